@@ -0,0 +1,70 @@
+package main.jarrenamerapp;
+
+import org.objectweb.asm.commons.Remapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AnalysisBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int classCount;
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    private File jarFile;
+    private ZipArchive archive;
+    private ClassModel classModel;
+
+    @Setup
+    public void setUp() throws IOException {
+        jarFile = SyntheticJars.get(classCount);
+        archive = ZipArchive.open(jarFile);
+        classModel = ClassModel.load(archive, parallelism);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        archive.close();
+    }
+
+    @Benchmark
+    public ClassModel loadClassModel() throws IOException {
+        return ClassModel.load(archive, parallelism);
+    }
+
+    @Benchmark
+    public ClassHierarchy buildClassHierarchy() {
+        return new ClassHierarchy(classModel);
+    }
+
+    @Benchmark
+    public Remapper prepareRenameTables() throws IOException {
+        JarRenamerService service = new JarRenamerService(jarFile, new HashMap<>(), true, "p_",
+                false, null, null, true, null);
+        service.setClassModel(classModel);
+        service.setParallelism(parallelism);
+        service.prepareRenameTables(archive);
+        return service.getRemapper();
+    }
+}
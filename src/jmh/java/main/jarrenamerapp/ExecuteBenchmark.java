@@ -0,0 +1,47 @@
+package main.jarrenamerapp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ExecuteBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int classCount;
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    private File jarFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        jarFile = SyntheticJars.copy(SyntheticJars.get(classCount), "execute");
+    }
+
+    @Benchmark
+    public File execute() throws IOException {
+        JarRenamerService service = new JarRenamerService(jarFile, new HashMap<>(), true, "p_",
+                false, null, null, true, null);
+        service.setParallelism(parallelism);
+        return service.execute();
+    }
+}
@@ -0,0 +1,50 @@
+package main.jarrenamerapp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MappingParseBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int classCount;
+
+    private final File jarFile = new File("synthetic.jar");
+    private String mappingContent;
+    private File mappingFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        mappingContent = SyntheticJars.mappingContent(classCount);
+        mappingFile = new File(SyntheticJars.get(classCount).getParentFile(), "mappings-" + classCount + ".txt");
+        Files.writeString(mappingFile.toPath(), mappingContent);
+    }
+
+    @Benchmark
+    public JarRenamerService parseMappingText() throws IOException {
+        return new JarRenamerService(jarFile, mappingContent, true, null);
+    }
+
+    @Benchmark
+    public JarRenamerService parseMappingFile() throws IOException {
+        return new JarRenamerService(jarFile, mappingFile, null);
+    }
+}
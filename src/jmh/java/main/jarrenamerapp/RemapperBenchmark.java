@@ -0,0 +1,97 @@
+package main.jarrenamerapp;
+
+import org.objectweb.asm.commons.Remapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RemapperBenchmark {
+    private static final int SAMPLE_SIZE = 4096;
+
+    @Param({"1000", "10000", "100000"})
+    public int classCount;
+
+    private Remapper remapper;
+    private final String[] types = new String[SAMPLE_SIZE];
+    private final MemberReference[] methods = new MemberReference[SAMPLE_SIZE];
+    private final MemberReference[] fields = new MemberReference[SAMPLE_SIZE];
+    private int cursor;
+
+    @Setup
+    public void setUp() throws IOException {
+        File jarFile = SyntheticJars.get(classCount);
+        JarRenamerService service = new JarRenamerService(jarFile, new HashMap<>(), true, "p_",
+                false, null, null, true, null);
+        List<String> allTypes = new ArrayList<>();
+        List<MemberReference> allMethods = new ArrayList<>();
+        List<MemberReference> allFields = new ArrayList<>();
+        try (ZipArchive archive = ZipArchive.open(jarFile)) {
+            ClassModel classModel = ClassModel.load(archive, Runtime.getRuntime().availableProcessors());
+            service.setClassModel(classModel);
+            service.prepareRenameTables(archive);
+            for (ClassInfo classInfo : classModel.getClasses()) {
+                allTypes.addAll(classInfo.getReferencedTypes());
+                for (MemberReference reference : classInfo.getMemberReferences()) {
+                    (reference.isField() ? allFields : allMethods).add(reference);
+                }
+            }
+        }
+        remapper = service.getRemapper();
+
+        Random random = new Random(42);
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            types[i] = allTypes.get(random.nextInt(allTypes.size()));
+            methods[i] = allMethods.get(random.nextInt(allMethods.size()));
+            fields[i] = allFields.get(random.nextInt(allFields.size()));
+        }
+    }
+
+    @Benchmark
+    public String mapType() {
+        return remapper.map(types[next()]);
+    }
+
+    @Benchmark
+    public String mapMethodName() {
+        MemberReference reference = methods[next()];
+        return remapper.mapMethodName(reference.getOwner(), reference.getName(), reference.getDescriptor());
+    }
+
+    @Benchmark
+    public String mapFieldName() {
+        MemberReference reference = fields[next()];
+        return remapper.mapFieldName(reference.getOwner(), reference.getName(), reference.getDescriptor());
+    }
+
+    @Benchmark
+    public String mapMethodDescriptor() {
+        return remapper.mapMethodDesc(methods[next()].getDescriptor());
+    }
+
+    private int next() {
+        cursor = (cursor + 1) & (SAMPLE_SIZE - 1);
+        return cursor;
+    }
+}
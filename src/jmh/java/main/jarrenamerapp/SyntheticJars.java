@@ -0,0 +1,159 @@
+package main.jarrenamerapp;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+final class SyntheticJars {
+    static final int INTERFACE_COUNT = 20;
+    static final int FIELDS_PER_CLASS = 4;
+    static final int METHODS_PER_CLASS = 4;
+
+    private SyntheticJars() {
+    }
+
+    static File get(int classCount) throws IOException {
+        File directory = new File(System.getProperty("jarrenamer.jmh.dir",
+                new File(System.getProperty("java.io.tmpdir"), "jarrenamer-jmh").getPath()));
+        File jarFile = new File(directory, "synthetic-" + classCount + ".jar");
+        if (!jarFile.isFile()) {
+            Files.createDirectories(directory.toPath());
+            File tempFile = File.createTempFile("synthetic-", ".tmp", directory);
+            write(tempFile, classCount);
+            Files.move(tempFile.toPath(), jarFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        return jarFile;
+    }
+
+    static File copy(File jarFile, String name) throws IOException {
+        File copy = new File(jarFile.getParentFile(), name + "-" + jarFile.getName());
+        Files.copy(jarFile.toPath(), copy.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        return copy;
+    }
+
+    static String className(int index) {
+        return "bench/p" + (index / 100) + "/C" + index;
+    }
+
+    static String interfaceName(int index) {
+        return "bench/api/Service" + index;
+    }
+
+    static String mappingContent(int classCount) {
+        StringBuilder content = new StringBuilder(classCount * 40);
+        for (int i = 0; i < classCount; i++) {
+            String className = className(i).replace('/', '.');
+            content.append(className).append(" -> ").append(className).append("Renamed\n");
+            content.append("compute").append(i % METHODS_PER_CLASS).append(" -> calc").append(i).append('\n');
+        }
+        return content.toString();
+    }
+
+    private static void write(File file, int classCount) throws IOException {
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(file))) {
+            for (int i = 0; i < INTERFACE_COUNT; i++) {
+                out.putNextEntry(new JarEntry(interfaceName(i) + ".class"));
+                out.write(generateInterface(i));
+                out.closeEntry();
+            }
+            for (int i = 0; i < classCount; i++) {
+                out.putNextEntry(new JarEntry(className(i) + ".class"));
+                out.write(generateClass(i, classCount));
+                out.closeEntry();
+            }
+        }
+    }
+
+    private static byte[] generateInterface(int index) {
+        ClassWriter writer = new ClassWriter(0);
+        writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_ABSTRACT | Opcodes.ACC_INTERFACE,
+                interfaceName(index), null, "java/lang/Object", null);
+        writer.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_ABSTRACT, "handle", "(I)I", null, null).visitEnd();
+        writer.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_ABSTRACT, "name", "()Ljava/lang/String;", null, null).visitEnd();
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    private static byte[] generateClass(int index, int classCount) {
+        String name = className(index);
+        String superName = index % 5 == 0 ? "java/lang/Object" : className(index - index % 5);
+        String interfaceName = interfaceName(index % INTERFACE_COUNT);
+
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, name, null, superName,
+                new String[]{interfaceName});
+
+        for (int i = 0; i < FIELDS_PER_CLASS; i++) {
+            FieldVisitor field = writer.visitField(Opcodes.ACC_PROTECTED, "value" + i, "I", null, null);
+            field.visitEnd();
+        }
+        writer.visitField(Opcodes.ACC_PRIVATE, "label", "Ljava/lang/String;", null, null).visitEnd();
+
+        MethodVisitor constructor = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitMethodInsn(Opcodes.INVOKESPECIAL, superName, "<init>", "()V", false);
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitLdcInsn(name.replace('/', '.'));
+        constructor.visitFieldInsn(Opcodes.PUTFIELD, name, "label", "Ljava/lang/String;");
+        constructor.visitInsn(Opcodes.RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+
+        MethodVisitor handle = writer.visitMethod(Opcodes.ACC_PUBLIC, "handle", "(I)I", null, null);
+        handle.visitCode();
+        handle.visitVarInsn(Opcodes.ALOAD, 0);
+        handle.visitFieldInsn(Opcodes.GETFIELD, name, "value0", "I");
+        handle.visitVarInsn(Opcodes.ILOAD, 1);
+        handle.visitInsn(Opcodes.IADD);
+        handle.visitInsn(Opcodes.IRETURN);
+        handle.visitMaxs(0, 0);
+        handle.visitEnd();
+
+        MethodVisitor label = writer.visitMethod(Opcodes.ACC_PUBLIC, "name", "()Ljava/lang/String;", null, null);
+        label.visitCode();
+        label.visitVarInsn(Opcodes.ALOAD, 0);
+        label.visitFieldInsn(Opcodes.GETFIELD, name, "label", "Ljava/lang/String;");
+        label.visitInsn(Opcodes.ARETURN);
+        label.visitMaxs(0, 0);
+        label.visitEnd();
+
+        MethodVisitor toString = writer.visitMethod(Opcodes.ACC_PUBLIC, "toString", "()Ljava/lang/String;", null, null);
+        toString.visitCode();
+        toString.visitVarInsn(Opcodes.ALOAD, 0);
+        toString.visitMethodInsn(Opcodes.INVOKEVIRTUAL, name, "name", "()Ljava/lang/String;", false);
+        toString.visitInsn(Opcodes.ARETURN);
+        toString.visitMaxs(0, 0);
+        toString.visitEnd();
+
+        for (int i = 0; i < METHODS_PER_CLASS; i++) {
+            String target = className((index * 31 + i + 1) % classCount);
+            MethodVisitor compute = writer.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC,
+                    "compute" + i, "(L" + name + ";I)I", null, null);
+            compute.visitCode();
+            compute.visitTypeInsn(Opcodes.NEW, target);
+            compute.visitInsn(Opcodes.DUP);
+            compute.visitMethodInsn(Opcodes.INVOKESPECIAL, target, "<init>", "()V", false);
+            compute.visitVarInsn(Opcodes.ILOAD, 1);
+            compute.visitMethodInsn(Opcodes.INVOKEVIRTUAL, target, "handle", "(I)I", false);
+            compute.visitVarInsn(Opcodes.ALOAD, 0);
+            compute.visitFieldInsn(Opcodes.GETFIELD, name, "value" + i, "I");
+            compute.visitInsn(Opcodes.IADD);
+            compute.visitInsn(Opcodes.IRETURN);
+            compute.visitMaxs(0, 0);
+            compute.visitEnd();
+        }
+
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+}
@@ -0,0 +1,68 @@
+package main.jarrenamerapp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TransformBenchmark {
+    private static final int SAMPLE_SIZE = 1000;
+
+    @Param({"1000", "10000", "100000"})
+    public int classCount;
+
+    @Param({"prefix", "replace"})
+    public String mode;
+
+    private JarRenamerService service;
+    private final byte[][] classBytes = new byte[SAMPLE_SIZE][];
+    private final String[] classNames = new String[SAMPLE_SIZE];
+
+    @Setup
+    public void setUp() throws IOException {
+        File jarFile = SyntheticJars.get(classCount);
+        service = mode.equals("prefix")
+                ? new JarRenamerService(jarFile, new HashMap<>(), true, "p_", false, null, null, true, null)
+                : new JarRenamerService(jarFile, new HashMap<>(), false, null, true, "C1", "K1", true, null);
+        try (ZipArchive archive = ZipArchive.open(jarFile)) {
+            service.prepareRenameTables(archive);
+            List<ZipArchiveEntry> entries = archive.getEntries();
+            int step = entries.size() / SAMPLE_SIZE;
+            for (int i = 0; i < SAMPLE_SIZE; i++) {
+                ZipArchiveEntry entry = entries.get(i * step);
+                classBytes[i] = archive.readEntry(entry);
+                String entryName = entry.getName();
+                classNames[i] = entryName.substring(0, entryName.length() - 6).replace('/', '.');
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE_SIZE)
+    public void transformClass(Blackhole blackhole) {
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            blackhole.consume(service.transformClass(classBytes[i], classNames[i]));
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package main.jarrenamerapp;
+
+final class ClassBufferPool {
+    private static final int INITIAL_SIZE = 1 << 16;
+    private static final int MAX_POOLED_SIZE = 1 << 22;
+    private static final ThreadLocal<byte[]> BUFFERS = ThreadLocal.withInitial(() -> new byte[INITIAL_SIZE]);
+
+    private ClassBufferPool() {
+    }
+
+    static byte[] get(long size) {
+        if (size > MAX_POOLED_SIZE) {
+            return new byte[(int) Math.min(size, Integer.MAX_VALUE - 8)];
+        }
+        byte[] buffer = BUFFERS.get();
+        if (buffer.length < size) {
+            buffer = new byte[Integer.highestOneBit((int) size - 1) << 1];
+            BUFFERS.set(buffer);
+        }
+        return buffer;
+    }
+}
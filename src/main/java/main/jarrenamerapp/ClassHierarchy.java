@@ -0,0 +1,225 @@
+package main.jarrenamerapp;
+
+import org.objectweb.asm.Opcodes;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class ClassHierarchy {
+    private static final ClassInfo MISSING = new ClassInfo("", 0, null, null);
+
+    private final Map<String, ClassInfo> classes = new HashMap<>();
+    private final Map<String, ClassInfo> externalClasses = new ConcurrentHashMap<>();
+    private final Map<String, List<String>> supertypes = new ConcurrentHashMap<>();
+    private final Map<String, List<String>> directSubtypes = new HashMap<>();
+    private final Map<String, List<String>> subtypes = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, MethodFamily>> methodFamilies = new HashMap<>();
+    private final List<ZipArchive> libraries;
+
+    public ClassHierarchy(ClassModel classModel) {
+        this(classModel, List.of());
+    }
+
+    public ClassHierarchy(ClassModel classModel, List<ZipArchive> libraries) {
+        this.libraries = libraries;
+        for (ClassInfo classInfo : classModel.getClasses()) {
+            classes.put(classInfo.getInternalName(), classInfo);
+            if (classInfo.getSuperName() != null) {
+                addDirectSubtype(classInfo.getSuperName(), classInfo.getInternalName());
+            }
+            for (String interfaceName : classInfo.getInterfaces()) {
+                addDirectSubtype(interfaceName, classInfo.getInternalName());
+            }
+        }
+        buildMethodFamilies(classModel);
+    }
+
+    public boolean isInJar(String internalName) {
+        return classes.containsKey(internalName);
+    }
+
+    public ClassInfo getClassInfo(String internalName) {
+        ClassInfo classInfo = classes.get(internalName);
+        if (classInfo != null) {
+            return classInfo;
+        }
+        classInfo = externalClasses.computeIfAbsent(internalName, this::loadExternalClass);
+        return classInfo != MISSING ? classInfo : null;
+    }
+
+    public List<String> getSupertypes(String internalName) {
+        List<String> result = supertypes.get(internalName);
+        if (result == null) {
+            Set<String> collected = new LinkedHashSet<>();
+            Deque<String> pending = new ArrayDeque<>();
+            pending.push(internalName);
+            while (!pending.isEmpty()) {
+                ClassInfo classInfo = getClassInfo(pending.pop());
+                if (classInfo == null) {
+                    continue;
+                }
+                List<String> interfaces = classInfo.getInterfaces();
+                for (int i = interfaces.size() - 1; i >= 0; i--) {
+                    if (collected.add(interfaces.get(i))) {
+                        pending.push(interfaces.get(i));
+                    }
+                }
+                if (classInfo.getSuperName() != null && collected.add(classInfo.getSuperName())) {
+                    pending.push(classInfo.getSuperName());
+                }
+            }
+            result = List.copyOf(collected);
+            supertypes.put(internalName, result);
+        }
+        return result;
+    }
+
+    public List<String> getSubtypes(String internalName) {
+        List<String> result = subtypes.get(internalName);
+        if (result == null) {
+            Set<String> collected = new LinkedHashSet<>();
+            Deque<String> pending = new ArrayDeque<>();
+            pending.push(internalName);
+            while (!pending.isEmpty()) {
+                for (String subtype : directSubtypes.getOrDefault(pending.pop(), List.of())) {
+                    if (collected.add(subtype)) {
+                        pending.push(subtype);
+                    }
+                }
+            }
+            result = List.copyOf(collected);
+            subtypes.put(internalName, result);
+        }
+        return result;
+    }
+
+    public MethodFamily getMethodFamily(String owner, String name, String descriptor) {
+        Map<String, MethodFamily> families = methodFamilies.get(owner);
+        return families != null ? families.get(name + descriptor) : null;
+    }
+
+    public ClassInfo findMethodOwner(String owner, String name, String descriptor) {
+        for (String type = owner; type != null; ) {
+            ClassInfo classInfo = getClassInfo(type);
+            if (classInfo == null) {
+                break;
+            }
+            if (findMember(classInfo.getMethods(), name, descriptor) != null) {
+                return classInfo;
+            }
+            type = classInfo.getSuperName();
+        }
+        for (String type : getSupertypes(owner)) {
+            ClassInfo classInfo = getClassInfo(type);
+            if (classInfo != null && classInfo.isInterface()) {
+                MemberInfo method = findMember(classInfo.getMethods(), name, descriptor);
+                if (method != null && (method.getAccess() & (Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC)) == 0) {
+                    return classInfo;
+                }
+            }
+        }
+        return null;
+    }
+
+    public ClassInfo findFieldOwner(String owner, String name, String descriptor) {
+        ClassInfo classInfo = getClassInfo(owner);
+        if (classInfo == null) {
+            return null;
+        }
+        if (findMember(classInfo.getFields(), name, descriptor) != null) {
+            return classInfo;
+        }
+        for (String type : classInfo.getInterfaces()) {
+            ClassInfo declaringClass = findFieldOwner(type, name, descriptor);
+            if (declaringClass != null) {
+                return declaringClass;
+            }
+        }
+        return classInfo.getSuperName() != null ? findFieldOwner(classInfo.getSuperName(), name, descriptor) : null;
+    }
+
+    public static MemberInfo findMember(List<MemberInfo> members, String name, String descriptor) {
+        for (MemberInfo member : members) {
+            if (member.getName().equals(name) && member.getDescriptor().equals(descriptor)) {
+                return member;
+            }
+        }
+        return null;
+    }
+
+    public static boolean isOverridable(MemberInfo method) {
+        return (method.getAccess() & (Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC)) == 0
+                && !method.getName().equals("<init>")
+                && !method.getName().equals("<clinit>");
+    }
+
+    private void addDirectSubtype(String supertype, String subtype) {
+        directSubtypes.computeIfAbsent(supertype, k -> new ArrayList<>()).add(subtype);
+    }
+
+    private void buildMethodFamilies(ClassModel classModel) {
+        Map<String, MethodFamily> visible = new HashMap<>();
+        NameDictionary keys = new NameDictionary();
+        for (ClassInfo classInfo : classModel.getClasses()) {
+            visible.clear();
+            addVisibleMethods(classInfo, visible, keys);
+            for (String supertype : getSupertypes(classInfo.getInternalName())) {
+                ClassInfo superInfo = getClassInfo(supertype);
+                if (superInfo != null) {
+                    addVisibleMethods(superInfo, visible, keys);
+                }
+            }
+        }
+        for (Map<String, MethodFamily> families : methodFamilies.values()) {
+            families.replaceAll((key, family) -> family.find());
+        }
+    }
+
+    private void addVisibleMethods(ClassInfo classInfo, Map<String, MethodFamily> visible, NameDictionary keys) {
+        for (MemberInfo method : classInfo.getMethods()) {
+            if (!isOverridable(method)) {
+                continue;
+            }
+            String key = keys.intern(method.getName() + method.getDescriptor());
+            MethodFamily family = methodFamilies
+                    .computeIfAbsent(classInfo.getInternalName(), k -> new HashMap<>())
+                    .get(key);
+            if (family == null) {
+                family = new MethodFamily(method.getName(), method.getDescriptor());
+                family.addOwner(classInfo.getInternalName(), !isInJar(classInfo.getInternalName()));
+                methodFamilies.get(classInfo.getInternalName()).put(key, family);
+            }
+            MethodFamily existing = visible.putIfAbsent(key, family);
+            if (existing != null) {
+                visible.put(key, existing.union(family));
+            }
+        }
+    }
+
+    private ClassInfo loadExternalClass(String internalName) {
+        String entryName = internalName + ".class";
+        try (InputStream in = ClassLoader.getPlatformClassLoader().getResourceAsStream(entryName)) {
+            if (in != null) {
+                return ClassModel.readClassInfo(in.readAllBytes());
+            }
+            for (ZipArchive library : libraries) {
+                ZipArchiveEntry entry = library.getEntry(entryName);
+                if (entry != null) {
+                    return ClassModel.readClassInfo(library.readEntry(entry));
+                }
+            }
+            return MISSING;
+        } catch (IOException | RuntimeException e) {
+            return MISSING;
+        }
+    }
+}
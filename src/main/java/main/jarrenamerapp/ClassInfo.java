@@ -0,0 +1,128 @@
+package main.jarrenamerapp;
+
+import org.objectweb.asm.Opcodes;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+public class ClassInfo {
+    private final String className;
+    private final String internalName;
+    private final String superName;
+    private final List<String> interfaces;
+    private final int access;
+    private final ArrayList<MemberInfo> fields = new ArrayList<>();
+    private final ArrayList<MemberInfo> methods = new ArrayList<>();
+    private final ArrayList<MemberReference> memberReferences = new ArrayList<>();
+    private final ArrayList<MemberInfo> dynamicCallSites = new ArrayList<>();
+    private final ArrayList<String> referencedTypes = new ArrayList<>();
+    private final ArrayList<String> stringConstants = new ArrayList<>();
+
+    public ClassInfo(String internalName, int access, String superName, String[] interfaces) {
+        this.internalName = internalName;
+        this.className = internalName.replace('/', '.');
+        this.access = access;
+        this.superName = superName;
+        this.interfaces = interfaces != null ? List.of(interfaces) : Collections.emptyList();
+    }
+
+    void addField(MemberInfo field) {
+        fields.add(field);
+    }
+
+    void addMethod(MemberInfo method) {
+        methods.add(method);
+    }
+
+    void addMemberReference(MemberReference reference) {
+        memberReferences.add(reference);
+    }
+
+    void addDynamicCallSite(MemberInfo callSite) {
+        dynamicCallSites.add(callSite);
+    }
+
+    void addReferencedType(String internalName) {
+        referencedTypes.add(internalName);
+    }
+
+    void addStringConstant(String value) {
+        stringConstants.add(value);
+    }
+
+    void trimToSize() {
+        fields.trimToSize();
+        methods.trimToSize();
+        memberReferences.trimToSize();
+        dynamicCallSites.trimToSize();
+        referencedTypes.trimToSize();
+        stringConstants.trimToSize();
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public String getInternalName() {
+        return internalName;
+    }
+
+    public String getSuperName() {
+        return superName;
+    }
+
+    public List<String> getInterfaces() {
+        return interfaces;
+    }
+
+    public int getAccess() {
+        return access;
+    }
+
+    public List<MemberInfo> getFields() {
+        return Collections.unmodifiableList(fields);
+    }
+
+    public List<MemberInfo> getMethods() {
+        return Collections.unmodifiableList(methods);
+    }
+
+    public List<MemberReference> getMemberReferences() {
+        return Collections.unmodifiableList(memberReferences);
+    }
+
+    public List<MemberInfo> getDynamicCallSites() {
+        return Collections.unmodifiableList(dynamicCallSites);
+    }
+
+    public boolean isInterface() {
+        return (access & Opcodes.ACC_INTERFACE) != 0;
+    }
+
+    public List<String> getReferencedTypes() {
+        return Collections.unmodifiableList(referencedTypes);
+    }
+
+    public List<String> getStringConstants() {
+        return Collections.unmodifiableList(stringConstants);
+    }
+
+    public Set<String> getFieldNames() {
+        Set<String> names = new LinkedHashSet<>();
+        for (MemberInfo field : fields) {
+            names.add(field.getName());
+        }
+        return names;
+    }
+
+    public Set<String> getMethodNames() {
+        Set<String> names = new LinkedHashSet<>();
+        for (MemberInfo method : methods) {
+            names.add(method.getName());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,282 @@
+package main.jarrenamerapp;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+public class ClassModel {
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_INTERFACE_METHODREF = 11;
+    private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+
+    private final File jarFile;
+    private final long jarLastModified;
+    private final long jarLength;
+    private final Map<String, ClassInfo> classes = new LinkedHashMap<>();
+    private final Map<String, File> classSources = new HashMap<>();
+
+    private ClassModel(File jarFile) {
+        this.jarFile = jarFile;
+        this.jarLastModified = jarFile.lastModified();
+        this.jarLength = jarFile.length();
+    }
+
+    public static ClassModel load(File jarFile) throws IOException {
+        try (ZipArchive archive = ZipArchive.open(jarFile, false)) {
+            return load(archive, Runtime.getRuntime().availableProcessors());
+        }
+    }
+
+    public static ClassModel load(ZipArchive archive, int parallelism) throws IOException {
+        return load(List.of(archive), parallelism);
+    }
+
+    public static ClassModel load(List<ZipArchive> archives, int parallelism) throws IOException {
+        List<ZipArchive> entryArchives = new ArrayList<>();
+        List<ZipArchiveEntry> classEntries = new ArrayList<>();
+        for (ZipArchive archive : archives) {
+            for (ZipArchiveEntry entry : archive.getEntries()) {
+                if (entry.getName().endsWith(".class")) {
+                    entryArchives.add(archive);
+                    classEntries.add(entry);
+                }
+            }
+        }
+
+        ClassInfo[] infos = new ClassInfo[classEntries.size()];
+        NameDictionary dictionary = new NameDictionary();
+        try {
+            if (parallelism <= 1) {
+                for (int i = 0; i < infos.length; i++) {
+                    infos[i] = readClassInfo(entryArchives.get(i), classEntries.get(i), dictionary);
+                }
+            } else {
+                ForkJoinPool pool = new ForkJoinPool(parallelism);
+                try {
+                    pool.submit(() -> IntStream.range(0, infos.length).parallel().forEach(i -> {
+                        try {
+                            infos[i] = readClassInfo(entryArchives.get(i), classEntries.get(i), dictionary);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    })).get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while analyzing classes");
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof UncheckedIOException) {
+                        throw ((UncheckedIOException) cause).getCause();
+                    }
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    }
+                    throw new IOException(cause);
+                } finally {
+                    pool.shutdown();
+                }
+            }
+        } catch (IOException e) {
+            throw new IOException("Error analyzing classes: " + e.getMessage(), e);
+        }
+
+        ClassModel model = new ClassModel(archives.get(0).getFile());
+        for (int i = 0; i < infos.length; i++) {
+            if (model.classes.putIfAbsent(infos[i].getClassName(), infos[i]) == null && archives.size() > 1) {
+                model.classSources.put(infos[i].getClassName(), entryArchives.get(i).getFile());
+            }
+        }
+        return model;
+    }
+
+    static ClassInfo readClassInfo(byte[] classBytes) {
+        return readClassInfo(classBytes, classBytes.length, new NameDictionary());
+    }
+
+    private static ClassInfo readClassInfo(ZipArchive archive, ZipArchiveEntry entry, NameDictionary dictionary)
+            throws IOException {
+        byte[] buffer = ClassBufferPool.get(entry.getSize());
+        int length = archive.readEntry(entry, buffer);
+        return readClassInfo(buffer, length, dictionary);
+    }
+
+    private static ClassInfo readClassInfo(byte[] classBytes, int length, NameDictionary dictionary) {
+        ClassReader reader = new ClassReader(classBytes, 0, length);
+        ClassInfoCollector collector = new ClassInfoCollector(dictionary);
+        reader.accept(collector, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+        ClassInfo info = collector.getClassInfo();
+        collectConstantPoolReferences(reader, info, dictionary);
+        info.trimToSize();
+        return info;
+    }
+
+    private static void collectConstantPoolReferences(ClassReader reader, ClassInfo info, NameDictionary dictionary) {
+        Set<String> referencedTypes = new HashSet<>();
+        char[] buffer = new char[reader.getMaxStringLength()];
+        for (int i = 1; i < reader.getItemCount(); i++) {
+            int offset = reader.getItem(i);
+            if (offset == 0) {
+                continue;
+            }
+            int tag = reader.readByte(offset - 1);
+            if (tag == CONSTANT_CLASS) {
+                String name = reader.readUTF8(offset, buffer);
+                if (name.charAt(0) != '[' && referencedTypes.add(name)) {
+                    info.addReferencedType(dictionary.intern(name));
+                }
+            } else if (tag == CONSTANT_UTF8) {
+                collectDescriptorTypes(reader, offset, info, referencedTypes, dictionary);
+            } else if (tag == CONSTANT_STRING) {
+                String value = reader.readUTF8(offset, buffer);
+                if (!value.isEmpty()) {
+                    info.addStringConstant(dictionary.intern(value));
+                }
+            } else if (tag == CONSTANT_FIELDREF
+                    || tag == CONSTANT_METHODREF
+                    || tag == CONSTANT_INTERFACE_METHODREF) {
+                String owner = reader.readClass(offset, buffer);
+                if (owner.charAt(0) == '[') {
+                    continue;
+                }
+                int nameAndType = reader.getItem(reader.readUnsignedShort(offset + 2));
+                String name = reader.readUTF8(nameAndType, buffer);
+                String descriptor = reader.readUTF8(nameAndType + 2, buffer);
+                info.addMemberReference(new MemberReference(dictionary.intern(owner), dictionary.intern(name),
+                        dictionary.intern(descriptor), tag == CONSTANT_FIELDREF));
+            } else if (tag == CONSTANT_INVOKE_DYNAMIC) {
+                int nameAndType = reader.getItem(reader.readUnsignedShort(offset + 2));
+                String name = reader.readUTF8(nameAndType, buffer);
+                String descriptor = reader.readUTF8(nameAndType + 2, buffer);
+                info.addDynamicCallSite(new MemberInfo(dictionary.intern(name), dictionary.intern(descriptor), 0));
+            }
+        }
+    }
+
+    private static void collectDescriptorTypes(ClassReader reader, int offset, ClassInfo info,
+                                               Set<String> referencedTypes, NameDictionary dictionary) {
+        int start = offset + 2;
+        int end = start + reader.readUnsignedShort(offset);
+        int previous = '(';
+        for (int i = start; i < end; i++) {
+            int current = reader.readByte(i);
+            if (current == 'L' && isTypeBoundary(previous)) {
+                int nameEnd = i + 1;
+                while (nameEnd < end) {
+                    int c = reader.readByte(nameEnd);
+                    if (c == ';' || c == '<' || c == '(' || c == ')' || c == ' ' || c == '.') {
+                        break;
+                    }
+                    nameEnd++;
+                }
+                if (nameEnd < end && nameEnd > i + 1) {
+                    int c = reader.readByte(nameEnd);
+                    if (c == ';' || c == '<') {
+                        byte[] name = new byte[nameEnd - i - 1];
+                        for (int j = 0; j < name.length; j++) {
+                            name[j] = (byte) reader.readByte(i + 1 + j);
+                        }
+                        String type = new String(name, StandardCharsets.UTF_8);
+                        if (referencedTypes.add(type)) {
+                            info.addReferencedType(dictionary.intern(type));
+                        }
+                    }
+                }
+            }
+            previous = current;
+        }
+    }
+
+    private static boolean isTypeBoundary(int c) {
+        return c == '(' || c == ')' || c == ';' || c == '[' || c == '<' || c == '>'
+                || c == ':' || c == '+' || c == '-' || c == '^';
+    }
+
+    public boolean isUpToDate(File file) {
+        return jarFile.equals(file)
+                && file.lastModified() == jarLastModified
+                && file.length() == jarLength;
+    }
+
+    public File getJarFile() {
+        return jarFile;
+    }
+
+    public File getSourceFile(String className) {
+        if (classSources.isEmpty()) {
+            return classes.containsKey(className) ? jarFile : null;
+        }
+        return classSources.get(className);
+    }
+
+    public Collection<ClassInfo> getClasses() {
+        return Collections.unmodifiableCollection(classes.values());
+    }
+
+    public ClassInfo getClass(String className) {
+        return classes.get(className);
+    }
+
+    public Set<String> getClassNames() {
+        return Collections.unmodifiableSet(classes.keySet());
+    }
+
+    public int size() {
+        return classes.size();
+    }
+
+    private static class ClassInfoCollector extends ClassVisitor {
+        private final NameDictionary dictionary;
+        private ClassInfo classInfo;
+
+        public ClassInfoCollector(NameDictionary dictionary) {
+            super(Opcodes.ASM9);
+            this.dictionary = dictionary;
+        }
+
+        @Override
+        public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+            classInfo = new ClassInfo(dictionary.intern(name), access, dictionary.intern(superName),
+                    dictionary.intern(interfaces));
+        }
+
+        @Override
+        public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value) {
+            classInfo.addField(new MemberInfo(dictionary.intern(name), dictionary.intern(descriptor), access));
+            return null;
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+            classInfo.addMethod(new MemberInfo(dictionary.intern(name), dictionary.intern(descriptor), access));
+            return null;
+        }
+
+        public ClassInfo getClassInfo() {
+            return classInfo;
+        }
+    }
+}
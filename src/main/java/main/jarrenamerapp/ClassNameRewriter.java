@@ -0,0 +1,170 @@
+package main.jarrenamerapp;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+final class ClassNameRewriter {
+    private static final String MANIFEST_NAME = "META-INF/MANIFEST.MF";
+    private static final String SERVICES_PREFIX = "META-INF/services/";
+    private static final int MANIFEST_LINE_LENGTH = 72;
+    private static final Set<String> MANIFEST_CLASS_ATTRIBUTES = Set.of(
+            "Main-Class", "Premain-Class", "Agent-Class", "Launcher-Agent-Class");
+
+    private final ReplacementRules qualifiedNames;
+    private final Map<String, String> unqualifiedNames = new HashMap<>();
+
+    ClassNameRewriter(Map<String, String> classNames) {
+        Map<String, String> qualified = new HashMap<>();
+        for (Map.Entry<String, String> entry : classNames.entrySet()) {
+            if (entry.getKey().indexOf('.') >= 0) {
+                qualified.put(entry.getKey(), entry.getValue());
+            } else {
+                unqualifiedNames.put(entry.getKey(), entry.getValue());
+            }
+        }
+        this.qualifiedNames = ReplacementRules.forClassNames(qualified);
+    }
+
+    boolean isEmpty() {
+        return qualifiedNames.size() == 0 && unqualifiedNames.isEmpty();
+    }
+
+    String rewrite(String value) {
+        return qualifiedNames.apply(value);
+    }
+
+    private String rewriteClassName(String className) {
+        String renamed = unqualifiedNames.get(className);
+        return renamed != null ? renamed : qualifiedNames.apply(className);
+    }
+
+    static boolean isTextResource(String entryName) {
+        return entryName.equals(MANIFEST_NAME)
+                || isServiceFile(entryName)
+                || entryName.endsWith(".xml")
+                || entryName.equals("META-INF/spring.factories")
+                || entryName.startsWith("META-INF/spring/") && entryName.endsWith(".imports");
+    }
+
+    String rewriteEntryName(String entryName) {
+        if (!isServiceFile(entryName)) {
+            return entryName;
+        }
+        return SERVICES_PREFIX + rewriteClassName(entryName.substring(SERVICES_PREFIX.length()));
+    }
+
+    byte[] rewriteResource(String entryName, byte[] content, int length) {
+        String text;
+        try {
+            text = StandardCharsets.UTF_8.newDecoder().decode(ByteBuffer.wrap(content, 0, length)).toString();
+        } catch (CharacterCodingException e) {
+            return null;
+        }
+        String rewritten;
+        if (entryName.equals(MANIFEST_NAME)) {
+            rewritten = rewriteManifest(text);
+        } else if (isServiceFile(entryName)) {
+            rewritten = rewriteLines(text);
+        } else {
+            rewritten = qualifiedNames.apply(text);
+        }
+        return rewritten.equals(text) ? null : rewritten.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static boolean isServiceFile(String entryName) {
+        return entryName.startsWith(SERVICES_PREFIX) && entryName.length() > SERVICES_PREFIX.length()
+                && entryName.indexOf('/', SERVICES_PREFIX.length()) < 0;
+    }
+
+    private String rewriteLines(String text) {
+        StringBuilder result = new StringBuilder(text.length() + 64);
+        int start = 0;
+        while (start < text.length()) {
+            int end = findLineEnd(text, start);
+            String line = text.substring(start, end);
+            String trimmed = line.trim();
+            String renamed = unqualifiedNames.get(trimmed);
+            result.append(renamed != null ? line.replace(trimmed, renamed) : qualifiedNames.apply(line));
+            start = skipLineSeparator(text, end);
+            result.append(text, end, start);
+        }
+        return result.toString();
+    }
+
+    private String rewriteManifest(String text) {
+        String lineSeparator = text.contains("\r\n") ? "\r\n" : "\n";
+        StringBuilder result = new StringBuilder(text.length() + 64);
+        StringBuilder logicalLine = new StringBuilder();
+        boolean changed = false;
+        int lineStart = 0;
+        int position = 0;
+        while (position < text.length()) {
+            int end = findLineEnd(text, position);
+            int next = skipLineSeparator(text, end);
+            logicalLine.append(text, position == lineStart ? position : position + 1, end);
+            if (next >= text.length() || text.charAt(next) != ' ') {
+                String line = logicalLine.toString();
+                String rewritten = rewriteManifestLine(line);
+                if (rewritten.equals(line)) {
+                    result.append(text, lineStart, next);
+                } else {
+                    appendManifestLine(result, rewritten, lineSeparator);
+                    changed = true;
+                }
+                logicalLine.setLength(0);
+                lineStart = next;
+            }
+            position = next;
+        }
+        return changed ? result.toString() : text;
+    }
+
+    private String rewriteManifestLine(String line) {
+        int separator = line.indexOf(": ");
+        if (separator < 0) {
+            return line;
+        }
+        String value = line.substring(separator + 2);
+        String rewritten = MANIFEST_CLASS_ATTRIBUTES.contains(line.substring(0, separator))
+                ? rewriteClassName(value) : rewrite(value);
+        return rewritten.equals(value) ? line : line.substring(0, separator + 2) + rewritten;
+    }
+
+    private static void appendManifestLine(StringBuilder result, String line, String lineSeparator) {
+        int lineBytes = 0;
+        for (int i = 0; i < line.length(); ) {
+            int codePoint = line.codePointAt(i);
+            int size = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (lineBytes + size > MANIFEST_LINE_LENGTH) {
+                result.append(lineSeparator).append(' ');
+                lineBytes = 1;
+            }
+            result.appendCodePoint(codePoint);
+            lineBytes += size;
+            i += Character.charCount(codePoint);
+        }
+        result.append(lineSeparator);
+    }
+
+    private static int findLineEnd(String text, int start) {
+        int end = start;
+        while (end < text.length() && text.charAt(end) != '\n' && text.charAt(end) != '\r') {
+            end++;
+        }
+        return end;
+    }
+
+    private static int skipLineSeparator(String text, int end) {
+        if (end < text.length() && text.charAt(end) == '\r') {
+            end++;
+        }
+        if (end < text.length() && text.charAt(end) == '\n') {
+            end++;
+        }
+        return end;
+    }
+}
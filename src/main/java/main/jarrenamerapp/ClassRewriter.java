@@ -0,0 +1,278 @@
+package main.jarrenamerapp;
+
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.TypePath;
+import org.objectweb.asm.commons.ClassRemapper;
+import org.objectweb.asm.commons.MethodRemapper;
+import org.objectweb.asm.commons.Remapper;
+
+import java.util.BitSet;
+
+class ClassRewriter {
+    private static final AnnotationVisitor ANNOTATION_SINK = new AnnotationSink();
+    private static final String LAMBDA_METAFACTORY = "java/lang/invoke/LambdaMetafactory";
+
+    private final Remapper remapper;
+    private final RenameMetrics metrics;
+
+    ClassRewriter(Remapper remapper, RenameMetrics metrics) {
+        this.remapper = remapper;
+        this.metrics = metrics;
+    }
+
+    public byte[] rewrite(byte[] classBytes) {
+        return rewrite(classBytes, classBytes.length);
+    }
+
+    public byte[] rewrite(byte[] classBytes, int length) {
+        ClassReader reader = new ClassReader(classBytes, 0, length);
+        try {
+            return rewriteFast(reader);
+        } catch (RuntimeException e) {
+            if (!isThrownByAsm(e)) {
+                throw e;
+            }
+            metrics.addRewriteFallback();
+            return rewriteExpanded(reader);
+        }
+    }
+
+    private static boolean isThrownByAsm(RuntimeException e) {
+        for (StackTraceElement element : e.getStackTrace()) {
+            String className = element.getClassName();
+            if (!className.startsWith("java.") && !className.startsWith("jdk.")) {
+                return className.startsWith("org.objectweb.asm.");
+            }
+        }
+        return false;
+    }
+
+    private byte[] rewriteFast(ClassReader reader) {
+        ClassWriter writer = new ClassWriter(reader, 0);
+        String className = reader.getClassName();
+        if (remapper.map(className).equals(className)) {
+            MethodScanner scanner = new MethodScanner(new ChangeTrackingRemapper(remapper));
+            reader.accept(scanner, 0);
+            reader.accept(new CopyingClassRemapper(writer, remapper, scanner.getChangedMethods()), 0);
+        } else {
+            reader.accept(new RenamingClassRemapper(writer, remapper), 0);
+        }
+        return writer.toByteArray();
+    }
+
+    private byte[] rewriteExpanded(ClassReader reader) {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        reader.accept(new RenamingClassRemapper(writer, remapper), ClassReader.EXPAND_FRAMES);
+        return writer.toByteArray();
+    }
+
+    private static class RenamingClassRemapper extends ClassRemapper {
+        RenamingClassRemapper(ClassVisitor classVisitor, Remapper remapper) {
+            super(Opcodes.ASM9, classVisitor, remapper);
+        }
+
+        @Override
+        protected MethodVisitor createMethodRemapper(MethodVisitor methodVisitor) {
+            return new RenamingMethodRemapper(methodVisitor, remapper);
+        }
+    }
+
+    private static class RenamingMethodRemapper extends MethodRemapper {
+        RenamingMethodRemapper(MethodVisitor methodVisitor, Remapper remapper) {
+            super(Opcodes.ASM9, methodVisitor, remapper);
+        }
+
+        @Override
+        public void visitInvokeDynamicInsn(String name, String descriptor, Handle bootstrapMethodHandle,
+                                           Object... bootstrapMethodArguments) {
+            if (bootstrapMethodHandle.getOwner().equals(LAMBDA_METAFACTORY)) {
+                super.visitInvokeDynamicInsn(name, descriptor, bootstrapMethodHandle, bootstrapMethodArguments);
+                return;
+            }
+            Object[] arguments = new Object[bootstrapMethodArguments.length];
+            for (int i = 0; i < arguments.length; i++) {
+                arguments[i] = remapper.mapValue(bootstrapMethodArguments[i]);
+            }
+            if (mv != null) {
+                mv.visitInvokeDynamicInsn(name, remapper.mapMethodDesc(descriptor),
+                        (Handle) remapper.mapValue(bootstrapMethodHandle), arguments);
+            }
+        }
+    }
+
+    private static class CopyingClassRemapper extends RenamingClassRemapper {
+        private final BitSet changedMethods;
+        private int methodIndex;
+        private boolean copyMethod;
+
+        CopyingClassRemapper(ClassVisitor classVisitor, Remapper remapper, BitSet changedMethods) {
+            super(classVisitor, remapper);
+            this.changedMethods = changedMethods;
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+            copyMethod = !changedMethods.get(methodIndex++);
+            return super.visitMethod(access, name, descriptor, signature, exceptions);
+        }
+
+        @Override
+        protected MethodVisitor createMethodRemapper(MethodVisitor methodVisitor) {
+            return copyMethod ? methodVisitor : super.createMethodRemapper(methodVisitor);
+        }
+    }
+
+    private static class MethodScanner extends ClassVisitor {
+        private final ChangeTrackingRemapper remapper;
+        private final BitSet changedMethods = new BitSet();
+        private int methodIndex;
+
+        MethodScanner(ChangeTrackingRemapper remapper) {
+            super(Opcodes.ASM9);
+            this.remapper = remapper;
+        }
+
+        public BitSet getChangedMethods() {
+            return changedMethods;
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+            int index = methodIndex++;
+            remapper.reset();
+            remapper.mapMethodDesc(descriptor);
+            remapper.mapSignature(signature, false);
+            if (exceptions != null) {
+                remapper.mapTypes(exceptions);
+            }
+            if (remapper.isChanged()) {
+                changedMethods.set(index);
+                return null;
+            }
+            return new RenamingMethodRemapper(new MethodVisitor(Opcodes.ASM9) {
+                @Override
+                public AnnotationVisitor visitAnnotationDefault() {
+                    return ANNOTATION_SINK;
+                }
+
+                @Override
+                public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+                    return ANNOTATION_SINK;
+                }
+
+                @Override
+                public AnnotationVisitor visitTypeAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible) {
+                    return ANNOTATION_SINK;
+                }
+
+                @Override
+                public AnnotationVisitor visitParameterAnnotation(int parameter, String descriptor, boolean visible) {
+                    return ANNOTATION_SINK;
+                }
+
+                @Override
+                public AnnotationVisitor visitInsnAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible) {
+                    return ANNOTATION_SINK;
+                }
+
+                @Override
+                public AnnotationVisitor visitTryCatchAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible) {
+                    return ANNOTATION_SINK;
+                }
+
+                @Override
+                public AnnotationVisitor visitLocalVariableAnnotation(int typeRef, TypePath typePath, Label[] start,
+                                                                      Label[] end, int[] index, String descriptor, boolean visible) {
+                    return ANNOTATION_SINK;
+                }
+
+                @Override
+                public void visitEnd() {
+                    if (remapper.isChanged()) {
+                        changedMethods.set(index);
+                    }
+                }
+            }, remapper);
+        }
+    }
+
+    private static class AnnotationSink extends AnnotationVisitor {
+        AnnotationSink() {
+            super(Opcodes.ASM9);
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotation(String name, String descriptor) {
+            return this;
+        }
+
+        @Override
+        public AnnotationVisitor visitArray(String name) {
+            return this;
+        }
+    }
+
+    private static class ChangeTrackingRemapper extends Remapper {
+        private final Remapper delegate;
+        private boolean changed;
+
+        ChangeTrackingRemapper(Remapper delegate) {
+            this.delegate = delegate;
+        }
+
+        public void reset() {
+            changed = false;
+        }
+
+        public boolean isChanged() {
+            return changed;
+        }
+
+        @Override
+        public String map(String internalName) {
+            return track(internalName, delegate.map(internalName));
+        }
+
+        @Override
+        public String mapMethodName(String owner, String name, String descriptor) {
+            return track(name, delegate.mapMethodName(owner, name, descriptor));
+        }
+
+        @Override
+        public String mapFieldName(String owner, String name, String descriptor) {
+            return track(name, delegate.mapFieldName(owner, name, descriptor));
+        }
+
+        @Override
+        public String mapInvokeDynamicMethodName(String name, String descriptor) {
+            return track(name, delegate.mapInvokeDynamicMethodName(name, descriptor));
+        }
+
+        @Override
+        public String mapRecordComponentName(String owner, String name, String descriptor) {
+            return track(name, delegate.mapRecordComponentName(owner, name, descriptor));
+        }
+
+        @Override
+        public Object mapValue(Object value) {
+            if (value instanceof String) {
+                return track((String) value, (String) delegate.mapValue(value));
+            }
+            return super.mapValue(value);
+        }
+
+        private String track(String name, String mapped) {
+            if (mapped != null && !mapped.equals(name)) {
+                changed = true;
+            }
+            return mapped;
+        }
+    }
+}
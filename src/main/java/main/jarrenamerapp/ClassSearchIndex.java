@@ -0,0 +1,141 @@
+package main.jarrenamerapp;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+public class ClassSearchIndex {
+    private static final int[] NO_IDS = new int[0];
+
+    private final ClassSelection selection;
+    private final Map<Long, int[]> postings;
+    private String lastQuery;
+    private int[] lastResult;
+
+    public ClassSearchIndex(ClassSelection selection) {
+        this.selection = selection;
+        Map<Long, PostingList> lists = new HashMap<>();
+        for (int id = 0; id < selection.size(); id++) {
+            String className = selection.getClassName(id);
+            for (int i = 0; i + 3 <= className.length(); i++) {
+                lists.computeIfAbsent(trigram(className, i), k -> new PostingList()).add(id);
+            }
+        }
+        this.postings = new HashMap<>(lists.size() * 4 / 3 + 1);
+        for (Map.Entry<Long, PostingList> entry : lists.entrySet()) {
+            postings.put(entry.getKey(), entry.getValue().toArray());
+        }
+    }
+
+    public synchronized int[] find(String text) {
+        String query = fold(text);
+        int[] candidates;
+        if (lastQuery != null && query.contains(lastQuery)) {
+            candidates = lastResult;
+        } else if (query.length() >= 3) {
+            candidates = findTrigramCandidates(query);
+        } else {
+            candidates = selection.getAllIds();
+        }
+        int[] matches = new int[candidates.length];
+        int count = 0;
+        for (int id : candidates) {
+            if (containsIgnoreCase(selection.getClassName(id), query)) {
+                matches[count++] = id;
+            }
+        }
+        lastQuery = query;
+        lastResult = count == matches.length ? matches : Arrays.copyOf(matches, count);
+        return lastResult;
+    }
+
+    private int[] findTrigramCandidates(String query) {
+        int[][] lists = new int[query.length() - 2][];
+        for (int i = 0; i < lists.length; i++) {
+            int[] ids = postings.get(trigram(query, i));
+            if (ids == null) {
+                return NO_IDS;
+            }
+            lists[i] = ids;
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.length, b.length));
+        int[] result = lists[0];
+        for (int i = 1; i < lists.length && result.length > 0; i++) {
+            result = intersect(result, lists[i]);
+        }
+        return result;
+    }
+
+    private static int[] intersect(int[] left, int[] right) {
+        int[] result = new int[left.length];
+        int count = 0;
+        int j = 0;
+        for (int id : left) {
+            j = search(right, j, id);
+            if (j < right.length && right[j] == id) {
+                result[count++] = id;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static int search(int[] ids, int from, int id) {
+        int low = from;
+        int high = ids.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ids[mid] < id) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static boolean containsIgnoreCase(String value, String query) {
+        for (int i = 0; i + query.length() <= value.length(); i++) {
+            if (value.regionMatches(true, i, query, 0, query.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long trigram(String value, int index) {
+        return (long) fold(value.charAt(index)) << 32
+                | (long) fold(value.charAt(index + 1)) << 16
+                | fold(value.charAt(index + 2));
+    }
+
+    private static String fold(String value) {
+        StringBuilder folded = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            folded.append(fold(value.charAt(i)));
+        }
+        return folded.toString();
+    }
+
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private static class PostingList {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            if (size > 0 && ids[size - 1] == id) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
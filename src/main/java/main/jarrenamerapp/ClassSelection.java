@@ -0,0 +1,119 @@
+package main.jarrenamerapp;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+public class ClassSelection {
+    private final String[] classNames;
+    private final BitSet selected;
+
+    public ClassSelection(Collection<String> classNames) {
+        String[] sorted = classNames.toArray(new String[0]);
+        Arrays.sort(sorted);
+        int count = 0;
+        for (String className : sorted) {
+            if (count == 0 || !sorted[count - 1].equals(className)) {
+                sorted[count++] = className;
+            }
+        }
+        this.classNames = count == sorted.length ? sorted : Arrays.copyOf(sorted, count);
+        this.selected = new BitSet(count);
+        this.selected.set(0, count);
+    }
+
+    public int size() {
+        return classNames.length;
+    }
+
+    public String getClassName(int id) {
+        return classNames[id];
+    }
+
+    public int[] getAllIds() {
+        int[] ids = new int[classNames.length];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i;
+        }
+        return ids;
+    }
+
+    public int findPrefixEnd(int[] ids, int from, int to, String prefix) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (classNames[ids[mid]].startsWith(prefix)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    public synchronized int getSelectedCount() {
+        return selected.cardinality();
+    }
+
+    public synchronized boolean isAllSelected() {
+        return selected.cardinality() == classNames.length;
+    }
+
+    public synchronized boolean isSelected(int id) {
+        return selected.get(id);
+    }
+
+    public synchronized boolean isAllSelected(int[] ids, int from, int to) {
+        if (isContiguous(ids, from, to)) {
+            return selected.nextClearBit(ids[from]) > ids[to - 1];
+        }
+        for (int i = from; i < to; i++) {
+            if (!selected.get(ids[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public synchronized boolean isNoneSelected(int[] ids, int from, int to) {
+        if (isContiguous(ids, from, to)) {
+            int next = selected.nextSetBit(ids[from]);
+            return next < 0 || next > ids[to - 1];
+        }
+        for (int i = from; i < to; i++) {
+            if (selected.get(ids[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public synchronized void setSelected(int[] ids, int from, int to, boolean value) {
+        if (isContiguous(ids, from, to)) {
+            selected.set(ids[from], ids[to - 1] + 1, value);
+            return;
+        }
+        for (int i = from; i < to; i++) {
+            selected.set(ids[i], value);
+        }
+    }
+
+    public synchronized void setAllSelected(boolean value) {
+        selected.set(0, classNames.length, value);
+    }
+
+    public synchronized Set<String> getSelectedClassNames() {
+        Set<String> names = new HashSet<>(selected.cardinality() * 4 / 3 + 1);
+        for (int id = selected.nextSetBit(0); id >= 0; id = selected.nextSetBit(id + 1)) {
+            names.add(classNames[id]);
+        }
+        return names;
+    }
+
+    private static boolean isContiguous(int[] ids, int from, int to) {
+        return from < to && ids[to - 1] - ids[from] == to - from - 1;
+    }
+}
@@ -0,0 +1,144 @@
+package main.jarrenamerapp;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+public class ClassSymbol {
+    private final String internalName;
+    private String newInternalName;
+    private Map<String, String[]> fieldNames;
+    private Map<String, String[]> methodNames;
+    private Map<String, String> lambdaMethodNames;
+
+    ClassSymbol(String internalName) {
+        this.internalName = internalName;
+        this.newInternalName = internalName;
+    }
+
+    public String getInternalName() {
+        return internalName;
+    }
+
+    public String getNewInternalName() {
+        return newInternalName;
+    }
+
+    void setNewInternalName(String newInternalName) {
+        this.newInternalName = newInternalName;
+    }
+
+    public String getFieldName(String name, String descriptor) {
+        return getOverloadName(fieldNames, name, descriptor);
+    }
+
+    public String getMethodName(String name, String descriptor) {
+        return getOverloadName(methodNames, name, descriptor);
+    }
+
+    public String getLambdaMethodName(String name) {
+        return lambdaMethodNames != null ? lambdaMethodNames.get(name) : null;
+    }
+
+    int getRenamedFieldCount() {
+        return countRenamed(fieldNames);
+    }
+
+    int getRenamedMethodCount() {
+        return countRenamed(methodNames);
+    }
+
+    boolean hasField(String name, String descriptor) {
+        return getFieldName(name, descriptor) != null;
+    }
+
+    boolean hasMethod(String name, String descriptor) {
+        return getMethodName(name, descriptor) != null;
+    }
+
+    boolean isFieldRenamedTo(String name, String newName) {
+        return isRenamedTo(fieldNames, name, newName);
+    }
+
+    boolean isMethodRenamedTo(String name, String newName) {
+        return isRenamedTo(methodNames, name, newName);
+    }
+
+    void putField(String name, String descriptor, String newName) {
+        if (fieldNames == null) {
+            fieldNames = new HashMap<>(4);
+        }
+        putOverload(fieldNames, name, descriptor, newName);
+    }
+
+    void putMethod(String name, String descriptor, String newName) {
+        if (methodNames == null) {
+            methodNames = new HashMap<>(8);
+        }
+        putOverload(methodNames, name, descriptor, newName);
+    }
+
+    void putLambdaMethod(String name, String newName) {
+        if (lambdaMethodNames == null) {
+            lambdaMethodNames = new HashMap<>(4);
+        }
+        lambdaMethodNames.put(name, newName);
+    }
+
+    private static String getOverloadName(Map<String, String[]> names, String name, String descriptor) {
+        String[] overloads = names != null ? names.get(name) : null;
+        if (overloads != null) {
+            for (int i = 0; i < overloads.length; i += 2) {
+                if (overloads[i].equals(descriptor)) {
+                    return overloads[i + 1];
+                }
+            }
+        }
+        return null;
+    }
+
+    private static int countRenamed(Map<String, String[]> names) {
+        int count = 0;
+        if (names != null) {
+            for (Map.Entry<String, String[]> member : names.entrySet()) {
+                String[] overloads = member.getValue();
+                for (int i = 1; i < overloads.length; i += 2) {
+                    if (!member.getKey().equals(overloads[i])) {
+                        count++;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    private static boolean isRenamedTo(Map<String, String[]> names, String name, String newName) {
+        String[] overloads = names != null ? names.get(name) : null;
+        if (overloads != null) {
+            for (int i = 1; i < overloads.length; i += 2) {
+                if (overloads[i].equals(newName)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void putOverload(Map<String, String[]> names, String name, String descriptor, String newName) {
+        String[] overloads = names.get(name);
+        if (overloads == null) {
+            names.put(name, new String[]{descriptor, newName});
+            return;
+        }
+        for (int i = 0; i < overloads.length; i += 2) {
+            if (overloads[i].equals(descriptor)) {
+                overloads[i + 1] = newName;
+                return;
+            }
+        }
+        overloads = Arrays.copyOf(overloads, overloads.length + 2);
+        overloads[overloads.length - 2] = descriptor;
+        overloads[overloads.length - 1] = newName;
+        names.put(name, overloads);
+    }
+}
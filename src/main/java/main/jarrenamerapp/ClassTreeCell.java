@@ -0,0 +1,35 @@
+package main.jarrenamerapp;
+
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.TreeCell;
+
+public class ClassTreeCell extends TreeCell<String> {
+    private final CheckBox checkBox = new CheckBox();
+    private final Runnable onSelectionChanged;
+
+    public ClassTreeCell(Runnable onSelectionChanged) {
+        this.onSelectionChanged = onSelectionChanged;
+        checkBox.setOnAction(event -> {
+            if (getTreeItem() instanceof ClassTreeItem) {
+                ((ClassTreeItem) getTreeItem()).setSelected(checkBox.isSelected());
+                getTreeView().refresh();
+                onSelectionChanged.run();
+            }
+        });
+    }
+
+    @Override
+    protected void updateItem(String item, boolean empty) {
+        super.updateItem(item, empty);
+        if (empty || !(getTreeItem() instanceof ClassTreeItem)) {
+            setText(null);
+            setGraphic(null);
+            return;
+        }
+        ClassTreeItem treeItem = (ClassTreeItem) getTreeItem();
+        checkBox.setSelected(treeItem.isSelected());
+        checkBox.setIndeterminate(treeItem.isIndeterminate());
+        setText(item);
+        setGraphic(checkBox);
+    }
+}
@@ -0,0 +1,92 @@
+package main.jarrenamerapp;
+
+import javafx.collections.ObservableList;
+import javafx.scene.control.TreeItem;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ClassTreeItem extends TreeItem<String> {
+    private final ClassSelection selection;
+    private final int[] ids;
+    private final int from;
+    private final int to;
+    private final int prefixLength;
+    private final boolean leaf;
+    private boolean childrenLoaded;
+
+    public ClassTreeItem(String value, ClassSelection selection, int[] ids) {
+        this(value, selection, ids, 0, ids.length, 0, false);
+    }
+
+    private ClassTreeItem(String value, ClassSelection selection, int[] ids, int from, int to,
+                          int prefixLength, boolean leaf) {
+        super(value);
+        this.selection = selection;
+        this.ids = ids;
+        this.from = from;
+        this.to = to;
+        this.prefixLength = prefixLength;
+        this.leaf = leaf;
+        this.childrenLoaded = leaf;
+    }
+
+    public int getClassCount() {
+        return to - from;
+    }
+
+    public boolean isSelected() {
+        return selection.isAllSelected(ids, from, to);
+    }
+
+    public boolean isIndeterminate() {
+        return !isSelected() && !selection.isNoneSelected(ids, from, to);
+    }
+
+    public void setSelected(boolean selected) {
+        selection.setSelected(ids, from, to, selected);
+    }
+
+    public void expandAll() {
+        if (!leaf) {
+            setExpanded(true);
+            for (TreeItem<String> child : getChildren()) {
+                ((ClassTreeItem) child).expandAll();
+            }
+        }
+    }
+
+    @Override
+    public boolean isLeaf() {
+        return leaf;
+    }
+
+    @Override
+    public ObservableList<TreeItem<String>> getChildren() {
+        if (!childrenLoaded) {
+            childrenLoaded = true;
+            super.getChildren().setAll(createChildren());
+        }
+        return super.getChildren();
+    }
+
+    private List<TreeItem<String>> createChildren() {
+        List<TreeItem<String>> children = new ArrayList<>();
+        int i = from;
+        while (i < to) {
+            String className = selection.getClassName(ids[i]);
+            int dot = className.indexOf('.', prefixLength);
+            if (dot < 0) {
+                children.add(new ClassTreeItem(className.substring(prefixLength), selection, ids, i, i + 1,
+                        prefixLength, true));
+                i++;
+            } else {
+                int end = selection.findPrefixEnd(ids, i, to, className.substring(0, dot + 1));
+                children.add(new ClassTreeItem(className.substring(prefixLength, dot), selection, ids, i, end,
+                        dot + 1, false));
+                i = end;
+            }
+        }
+        return children;
+    }
+}
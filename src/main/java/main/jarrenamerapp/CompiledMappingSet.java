@@ -0,0 +1,279 @@
+package main.jarrenamerapp;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+final class CompiledMappingSet extends MappingSet {
+    private static final int MAGIC = 0x4a524d43;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 32;
+    private static final int ENTRY_SIZE = 16;
+
+    private final ByteBuffer buffer;
+    private final int stringCount;
+    private final int offsetsPosition;
+    private final int stringsPosition;
+    private final Table classes;
+    private final Table fields;
+    private final Table methods;
+    private final Table names;
+
+    private CompiledMappingSet(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a compiled mapping file");
+        }
+        stringCount = buffer.getInt(8);
+        int stringsSize = buffer.getInt(12);
+        offsetsPosition = HEADER_SIZE;
+        stringsPosition = offsetsPosition + (stringCount + 1) * 4;
+        int position = align(stringsPosition + stringsSize);
+        classes = new Table(position, buffer.getInt(16));
+        fields = new Table(classes.end(), buffer.getInt(20));
+        methods = new Table(fields.end(), buffer.getInt(24));
+        names = new Table(methods.end(), buffer.getInt(28));
+        if (stringCount < 0 || stringsSize < 0 || names.end() != buffer.capacity()) {
+            throw new IOException("Truncated compiled mapping file");
+        }
+    }
+
+    static CompiledMappingSet open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new CompiledMappingSet(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    static void write(IndexedMappingSet mappingSet, Path file) throws IOException {
+        int count = mappingSet.getStringCount();
+        byte[][] encoded = new byte[count][];
+        Integer[] order = new Integer[count];
+        for (int id = 0; id < count; id++) {
+            encoded[id] = mappingSet.getStringBytes(id);
+            order[id] = id;
+        }
+        Arrays.sort(order, (a, b) -> Arrays.compareUnsigned(encoded[a], encoded[b]));
+        int[] ranks = new int[count];
+        int stringsSize = 0;
+        for (int rank = 0; rank < count; rank++) {
+            ranks[order[rank]] = rank;
+            stringsSize += encoded[order[rank]].length;
+        }
+
+        int[][] tables = {
+                sortEntries(mappingSet.getClassEntries(), ranks),
+                sortEntries(mappingSet.getFieldEntries(), ranks),
+                sortEntries(mappingSet.getMethodEntries(), ranks),
+                sortEntries(mappingSet.getNameEntries(), ranks)
+        };
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(count);
+            out.writeInt(stringsSize);
+            for (int[] table : tables) {
+                out.writeInt(table.length / 4);
+            }
+            int offset = 0;
+            for (int rank = 0; rank < count; rank++) {
+                out.writeInt(offset);
+                offset += encoded[order[rank]].length;
+            }
+            out.writeInt(offset);
+            for (int rank = 0; rank < count; rank++) {
+                out.write(encoded[order[rank]]);
+            }
+            for (int padding = align(stringsSize) - stringsSize; padding > 0; padding--) {
+                out.write(0);
+            }
+            for (int[] table : tables) {
+                for (int value : table) {
+                    out.writeInt(value);
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return classes.count == 0 && fields.count == 0 && methods.count == 0 && names.count == 0;
+    }
+
+    @Override
+    public int getClassCount() {
+        return classes.count;
+    }
+
+    @Override
+    public int getFieldCount() {
+        return fields.count;
+    }
+
+    @Override
+    public int getMethodCount() {
+        return methods.count;
+    }
+
+    @Override
+    public String getClassName(String className) {
+        int id = find(className);
+        if (id == ANY) {
+            return null;
+        }
+        int target = classes.get(ANY, id, ANY);
+        if (target == ANY) {
+            target = names.get(ANY, id, ANY);
+        }
+        return target != ANY ? getString(target) : null;
+    }
+
+    @Override
+    public String getName(String name) {
+        int id = find(name);
+        int target = id != ANY ? names.get(ANY, id, ANY) : ANY;
+        return target != ANY ? getString(target) : null;
+    }
+
+    @Override
+    public String getFieldName(String owner, String name, String descriptor) {
+        return getMemberName(fields, owner, name, descriptor);
+    }
+
+    @Override
+    public String getMethodName(String owner, String name, String descriptor) {
+        return getMemberName(methods, owner, name, descriptor);
+    }
+
+    private String getMemberName(Table table, String owner, String name, String descriptor) {
+        if (table.count == 0) {
+            return null;
+        }
+        int ownerId = find(owner);
+        int nameId = ownerId != ANY ? find(name) : ANY;
+        if (nameId == ANY) {
+            return null;
+        }
+        int descriptorId = descriptor != null ? find(descriptor) : ANY;
+        int target = descriptorId != ANY ? table.get(ownerId, nameId, descriptorId) : ANY;
+        if (target == ANY) {
+            target = table.get(ownerId, nameId, ANY);
+        }
+        return target != ANY ? getString(target) : null;
+    }
+
+    private int find(String value) {
+        int low = 0;
+        int high = stringCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compare(middle, value);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return ANY;
+    }
+
+    private int compare(int id, String value) {
+        return StringPool.compare(buffer, stringsPosition + buffer.getInt(offsetsPosition + id * 4),
+                stringsPosition + buffer.getInt(offsetsPosition + id * 4 + 4), value);
+    }
+
+    private String getString(int id) {
+        int start = buffer.getInt(offsetsPosition + id * 4);
+        int length = buffer.getInt(offsetsPosition + id * 4 + 4) - start;
+        byte[] bytes = new byte[length];
+        buffer.get(stringsPosition + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int[] sortEntries(int[] entries, int[] ranks) {
+        int count = entries.length / 4;
+        long[][] keys = new long[count][];
+        for (int entry = 0; entry < count; entry++) {
+            int owner = rank(entries[entry * 4], ranks);
+            int name = rank(entries[entry * 4 + 1], ranks);
+            int descriptor = rank(entries[entry * 4 + 2], ranks);
+            int target = rank(entries[entry * 4 + 3], ranks);
+            keys[entry] = new long[]{owner, name, descriptor, entry, target};
+        }
+        Arrays.sort(keys, (a, b) -> {
+            for (int i = 0; i < 4; i++) {
+                if (a[i] != b[i]) {
+                    return Long.compare(a[i], b[i]);
+                }
+            }
+            return 0;
+        });
+        int[] sorted = new int[count * 4];
+        int size = 0;
+        for (long[] key : keys) {
+            if (size > 0 && sorted[size - 4] == key[0] && sorted[size - 3] == key[1] && sorted[size - 2] == key[2]) {
+                continue;
+            }
+            sorted[size++] = (int) key[0];
+            sorted[size++] = (int) key[1];
+            sorted[size++] = (int) key[2];
+            sorted[size++] = (int) key[4];
+        }
+        return Arrays.copyOf(sorted, size);
+    }
+
+    private static int rank(int id, int[] ranks) {
+        return id != ANY ? ranks[id] : ANY;
+    }
+
+    private static int align(int position) {
+        return (position + 3) & ~3;
+    }
+
+    private final class Table {
+        private final int position;
+        private final int count;
+
+        Table(int position, int count) {
+            this.position = position;
+            this.count = count;
+        }
+
+        int end() {
+            return position + count * ENTRY_SIZE;
+        }
+
+        int get(int owner, int name, int descriptor) {
+            int low = 0;
+            int high = count - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                int entry = position + middle * ENTRY_SIZE;
+                int comparison = Integer.compare(buffer.getInt(entry), owner);
+                if (comparison == 0) {
+                    comparison = Integer.compare(buffer.getInt(entry + 4), name);
+                }
+                if (comparison == 0) {
+                    comparison = Integer.compare(buffer.getInt(entry + 8), descriptor);
+                }
+                if (comparison < 0) {
+                    low = middle + 1;
+                } else if (comparison > 0) {
+                    high = middle - 1;
+                } else {
+                    return buffer.getInt(entry + 12);
+                }
+            }
+            return ANY;
+        }
+    }
+}
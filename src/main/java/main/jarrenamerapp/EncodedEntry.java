@@ -0,0 +1,181 @@
+package main.jarrenamerapp;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.ZipEntry;
+
+public class EncodedEntry {
+    private static final byte[] NO_EXTRA = new byte[0];
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
+    private final String name;
+    private final int flags;
+    private final int method;
+    private final int dosTime;
+    private final long crc;
+    private final long compressedSize;
+    private final long size;
+    private final int externalAttributes;
+    private final byte[] extra;
+    private final byte[] data;
+    private final File dataFile;
+    private final ZipArchive source;
+    private final ZipArchiveEntry sourceEntry;
+
+    private EncodedEntry(String name, int flags, int method, int dosTime, long crc, long compressedSize, long size,
+                         int externalAttributes, byte[] extra, byte[] data, File dataFile, ZipArchive source,
+                         ZipArchiveEntry sourceEntry) {
+        this.name = name;
+        this.flags = flags;
+        this.method = method;
+        this.dosTime = dosTime;
+        this.crc = crc;
+        this.compressedSize = compressedSize;
+        this.size = size;
+        this.externalAttributes = externalAttributes;
+        this.extra = extra;
+        this.data = data;
+        this.dataFile = dataFile;
+        this.source = source;
+        this.sourceEntry = sourceEntry;
+    }
+
+    public static EncodedEntry copyOf(ZipArchive source, ZipArchiveEntry entry) {
+        return new EncodedEntry(entry.getName(), entry.getFlags(), entry.getMethod(), entry.getDosTime(),
+                entry.getCrc(), entry.getCompressedSize(), entry.getSize(), entry.getExternalAttributes(),
+                entry.getExtra(), null, null, source, entry);
+    }
+
+    public static EncodedEntry encode(String name, ZipArchiveEntry original, byte[] content) {
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        if (original.getMethod() == ZipEntry.STORED) {
+            return new EncodedEntry(name, 0, ZipEntry.STORED, original.getDosTime(), crc.getValue(),
+                    content.length, content.length, original.getExternalAttributes(), NO_EXTRA, content, null, null,
+                    null);
+        }
+        byte[] compressed = deflate(content);
+        return new EncodedEntry(name, 0, ZipEntry.DEFLATED, original.getDosTime(), crc.getValue(),
+                compressed.length, content.length, original.getExternalAttributes(), NO_EXTRA, compressed, null, null,
+                null);
+    }
+
+    public static EncodedEntry encode(String name, ZipArchiveEntry original, ContentWriter content)
+            throws IOException {
+        File dataFile = File.createTempFile("jar-renamer-", ".tmp");
+        dataFile.deleteOnExit();
+        boolean stored = original.getMethod() == ZipEntry.STORED;
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        CRC32 crc = new CRC32();
+        try {
+            try (OutputStream file = new BufferedOutputStream(new FileOutputStream(dataFile), STREAM_BUFFER_SIZE);
+                 OutputStream out = new CheckedOutputStream(stored ? file
+                         : new DeflaterOutputStream(file, deflater, STREAM_BUFFER_SIZE), crc)) {
+                content.writeTo(out);
+            }
+            long compressedSize = dataFile.length();
+            return new EncodedEntry(name, 0, stored ? ZipEntry.STORED : ZipEntry.DEFLATED, original.getDosTime(),
+                    crc.getValue(), compressedSize, stored ? compressedSize : deflater.getBytesRead(),
+                    original.getExternalAttributes(), NO_EXTRA, null, dataFile, null, null);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(dataFile.toPath());
+            throw e;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] deflate(byte[] content) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setInput(content);
+            deflater.finish();
+            byte[] buffer = new byte[Math.max(64, content.length / 2)];
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            return Arrays.copyOf(buffer, length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getFlags() {
+        return flags;
+    }
+
+    public int getMethod() {
+        return method;
+    }
+
+    public int getDosTime() {
+        return dosTime;
+    }
+
+    public long getCrc() {
+        return crc;
+    }
+
+    public long getCompressedSize() {
+        return compressedSize;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public int getExternalAttributes() {
+        return externalAttributes;
+    }
+
+    byte[] getExtra() {
+        return extra;
+    }
+
+    public boolean isRawCopy() {
+        return source != null;
+    }
+
+    byte[] getData() {
+        return data;
+    }
+
+    File getDataFile() {
+        return dataFile;
+    }
+
+    void release() throws IOException {
+        if (dataFile != null) {
+            Files.deleteIfExists(dataFile.toPath());
+        }
+    }
+
+    ZipArchive getSource() {
+        return source;
+    }
+
+    ZipArchiveEntry getSourceEntry() {
+        return sourceEntry;
+    }
+
+    public interface ContentWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+}
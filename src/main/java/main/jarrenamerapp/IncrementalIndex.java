@@ -0,0 +1,132 @@
+package main.jarrenamerapp;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+public class IncrementalIndex {
+    private static final int MAGIC = 0x4a524949;
+    private static final int VERSION = 4;
+    private static final int DIGEST_LENGTH = 32;
+
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    public static File getIndexFile(File outputFile) {
+        return new File(outputFile.getParentFile(), outputFile.getName() + ".idx");
+    }
+
+    public static IncrementalIndex read(File outputFile) {
+        IncrementalIndex index = new IncrementalIndex();
+        File indexFile = getIndexFile(outputFile);
+        if (!indexFile.isFile() || !outputFile.isFile()) {
+            return index;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile.toPath())))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION
+                    || in.readLong() != outputFile.length() || in.readLong() != outputFile.lastModified()) {
+                return index;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String entryName = in.readUTF();
+                long crc = in.readLong();
+                long size = in.readLong();
+                byte[] contentDigest = new byte[DIGEST_LENGTH];
+                in.readFully(contentDigest);
+                byte[] renameDigest = new byte[DIGEST_LENGTH];
+                in.readFully(renameDigest);
+                index.entries.put(entryName, new Entry(crc, size, contentDigest, renameDigest, in.readUTF()));
+            }
+        } catch (IOException e) {
+            index.entries.clear();
+        }
+        return index;
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    static MessageDigest newDigest() throws IOException {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+    }
+
+    static byte[] digest(byte[] content, int length) throws IOException {
+        MessageDigest digest = newDigest();
+        digest.update(content, 0, length);
+        return digest.digest();
+    }
+
+    public synchronized void put(ZipArchiveEntry entry, byte[] contentDigest, byte[] renameDigest, String outputName) {
+        entries.put(entry.getName(), new Entry(entry.getCrc(), entry.getSize(), contentDigest, renameDigest, outputName));
+    }
+
+    public String getReusableOutputName(ZipArchiveEntry entry, byte[] renameDigest) {
+        Entry previous = entries.get(entry.getName());
+        if (previous == null || previous.crc != entry.getCrc() || previous.size != entry.getSize()
+                || !Arrays.equals(previous.renameDigest, renameDigest)) {
+            return null;
+        }
+        return previous.outputName;
+    }
+
+    public boolean hasContent(ZipArchiveEntry entry, byte[] contentDigest) {
+        Entry previous = entries.get(entry.getName());
+        return previous != null && Arrays.equals(previous.contentDigest, contentDigest);
+    }
+
+    public void write(File outputFile) throws IOException {
+        File indexFile = getIndexFile(outputFile);
+        File tempFile = File.createTempFile(indexFile.getName(), ".tmp", indexFile.getAbsoluteFile().getParentFile());
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile.toPath())))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(outputFile.length());
+                out.writeLong(outputFile.lastModified());
+                out.writeInt(entries.size());
+                for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeLong(entry.getValue().crc);
+                    out.writeLong(entry.getValue().size);
+                    out.write(entry.getValue().contentDigest);
+                    out.write(entry.getValue().renameDigest);
+                    out.writeUTF(entry.getValue().outputName);
+                }
+            }
+            Files.move(tempFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempFile.toPath());
+        }
+    }
+
+    private static class Entry {
+        private final long crc;
+        private final long size;
+        private final byte[] contentDigest;
+        private final byte[] renameDigest;
+        private final String outputName;
+
+        Entry(long crc, long size, byte[] contentDigest, byte[] renameDigest, String outputName) {
+            this.crc = crc;
+            this.size = size;
+            this.contentDigest = contentDigest;
+            this.renameDigest = renameDigest;
+            this.outputName = outputName;
+        }
+    }
+}
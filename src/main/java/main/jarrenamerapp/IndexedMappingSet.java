@@ -0,0 +1,232 @@
+package main.jarrenamerapp;
+
+import java.util.Arrays;
+
+final class IndexedMappingSet extends MappingSet {
+    private final StringPool strings = new StringPool();
+    private final Table classes = new Table();
+    private final Table fields = new Table();
+    private final Table methods = new Table();
+    private final Table names = new Table();
+
+    @Override
+    public boolean isEmpty() {
+        return classes.size == 0 && fields.size == 0 && methods.size == 0 && names.size == 0;
+    }
+
+    @Override
+    public int getClassCount() {
+        return classes.size;
+    }
+
+    @Override
+    public int getFieldCount() {
+        return fields.size;
+    }
+
+    @Override
+    public int getMethodCount() {
+        return methods.size;
+    }
+
+    @Override
+    public String getClassName(String className) {
+        int id = find(className);
+        if (id == ANY) {
+            return null;
+        }
+        int target = classes.get(ANY, id, ANY);
+        if (target == ANY) {
+            target = names.get(ANY, id, ANY);
+        }
+        return target != ANY ? strings.get(target) : null;
+    }
+
+    @Override
+    public String getName(String name) {
+        int id = find(name);
+        int target = id != ANY ? names.get(ANY, id, ANY) : ANY;
+        return target != ANY ? strings.get(target) : null;
+    }
+
+    @Override
+    public String getFieldName(String owner, String name, String descriptor) {
+        return getMemberName(fields, owner, name, descriptor);
+    }
+
+    @Override
+    public String getMethodName(String owner, String name, String descriptor) {
+        return getMemberName(methods, owner, name, descriptor);
+    }
+
+    void putClass(String className, String newName) {
+        classes.put(ANY, intern(className), ANY, intern(newName));
+    }
+
+    void putField(String owner, String name, String descriptor, String newName) {
+        fields.put(intern(owner), intern(name), descriptor != null ? intern(descriptor) : ANY, intern(newName));
+    }
+
+    void putMethod(String owner, String name, String descriptor, String newName) {
+        methods.put(intern(owner), intern(name), descriptor != null ? intern(descriptor) : ANY, intern(newName));
+    }
+
+    void putName(String name, String newName) {
+        names.set(ANY, intern(name), ANY, intern(newName));
+    }
+
+    String getString(int id) {
+        return strings.get(id);
+    }
+
+    byte[] getStringBytes(int id) {
+        return strings.getBytes(id);
+    }
+
+    int intern(String value) {
+        return strings.intern(value);
+    }
+
+    void remapMemberDescriptors(int[] descriptorIds) {
+        fields.remapDescriptors(descriptorIds);
+        methods.remapDescriptors(descriptorIds);
+    }
+
+    int getStringCount() {
+        return strings.size();
+    }
+
+    int[] getClassEntries() {
+        return classes.getEntries();
+    }
+
+    int[] getFieldEntries() {
+        return fields.getEntries();
+    }
+
+    int[] getMethodEntries() {
+        return methods.getEntries();
+    }
+
+    int[] getNameEntries() {
+        return names.getEntries();
+    }
+
+    private int find(String value) {
+        return value != null ? strings.find(value) : ANY;
+    }
+
+    private String getMemberName(Table table, String owner, String name, String descriptor) {
+        int ownerId = find(owner);
+        int nameId = find(name);
+        if (ownerId == ANY || nameId == ANY) {
+            return null;
+        }
+        int descriptorId = find(descriptor);
+        int target = descriptorId != ANY ? table.get(ownerId, nameId, descriptorId) : ANY;
+        if (target == ANY) {
+            target = table.get(ownerId, nameId, ANY);
+        }
+        return target != ANY ? strings.get(target) : null;
+    }
+
+    private static final class Table {
+        private int[] owners = new int[16];
+        private int[] names = new int[16];
+        private int[] descriptors = new int[16];
+        private int[] targets = new int[16];
+        private int[] slots = new int[32];
+        private int size;
+
+        int get(int owner, int name, int descriptor) {
+            int entry = indexOf(owner, name, descriptor);
+            return entry >= 0 ? targets[entry] : ANY;
+        }
+
+        void put(int owner, int name, int descriptor, int target) {
+            if (indexOf(owner, name, descriptor) < 0) {
+                add(owner, name, descriptor, target);
+            }
+        }
+
+        void set(int owner, int name, int descriptor, int target) {
+            int entry = indexOf(owner, name, descriptor);
+            if (entry >= 0) {
+                targets[entry] = target;
+            } else {
+                add(owner, name, descriptor, target);
+            }
+        }
+
+        private int indexOf(int owner, int name, int descriptor) {
+            int mask = slots.length - 1;
+            for (int slot = hash(owner, name, descriptor) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+                int entry = slots[slot] - 1;
+                if (names[entry] == name && owners[entry] == owner && descriptors[entry] == descriptor) {
+                    return entry;
+                }
+            }
+            return -1;
+        }
+
+        private void add(int owner, int name, int descriptor, int target) {
+            if (size == owners.length) {
+                int capacity = size * 2;
+                owners = Arrays.copyOf(owners, capacity);
+                names = Arrays.copyOf(names, capacity);
+                descriptors = Arrays.copyOf(descriptors, capacity);
+                targets = Arrays.copyOf(targets, capacity);
+            }
+            owners[size] = owner;
+            names[size] = name;
+            descriptors[size] = descriptor;
+            targets[size] = target;
+            size++;
+            if (size * 2 > slots.length) {
+                slots = new int[slots.length * 2];
+                for (int entry = 0; entry < size; entry++) {
+                    insert(entry);
+                }
+            } else {
+                insert(size - 1);
+            }
+        }
+
+        int[] getEntries() {
+            int[] entries = new int[size * 4];
+            for (int entry = 0; entry < size; entry++) {
+                entries[entry * 4] = owners[entry];
+                entries[entry * 4 + 1] = names[entry];
+                entries[entry * 4 + 2] = descriptors[entry];
+                entries[entry * 4 + 3] = targets[entry];
+            }
+            return entries;
+        }
+
+        void remapDescriptors(int[] descriptorIds) {
+            for (int entry = 0; entry < size; entry++) {
+                if (descriptors[entry] != ANY && descriptors[entry] < descriptorIds.length) {
+                    descriptors[entry] = descriptorIds[descriptors[entry]];
+                }
+            }
+            Arrays.fill(slots, 0);
+            for (int entry = 0; entry < size; entry++) {
+                insert(entry);
+            }
+        }
+
+        private void insert(int entry) {
+            int mask = slots.length - 1;
+            int slot = hash(owners[entry], names[entry], descriptors[entry]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = entry + 1;
+        }
+
+        private static int hash(int owner, int name, int descriptor) {
+            int h = ((owner * 31 + name) * 31 + descriptor) * 0x9e3779b9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
@@ -14,6 +14,8 @@ public class JarRenamerApp extends Application {
         Scene scene = new Scene(fxmlLoader.load(), 800, 530);
         scene.getStylesheets().add(JarRenamerApp.class.getResource("main.css").toExternalForm());
         stage.setTitle("JAR Renamer Tool");
+        JarRenamerController controller = fxmlLoader.getController();
+        stage.setOnHidden(event -> controller.onClose());
         stage.setScene(scene);
         stage.show();
     }
@@ -0,0 +1,359 @@
+package main.jarrenamerapp;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class JarRenamerCli {
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: jar-renamer <mode> [options] <jar>...",
+            "",
+            "Modes (exactly one):",
+            "  --mapping-file <file|url>          rename using a ProGuard, Tiny, SRG/TSRG or \"old -> new\" mapping",
+            "  --mapping-text <text>              rename using \"old -> new\" pairs separated by '|' or newlines",
+            "  --prefix <prefix>                  prepend a prefix to class, method and field names",
+            "  --replace <text> <replacement>     replace text inside names",
+            "  --replace-rules <file>             apply many \"text -> replacement\" rules inside names in one pass",
+            "  --rules <file>                     rename with ordered glob and /regex/ rules, e.g. \"com.acme.** -> x.**\"",
+            "  --three-files <classes> <methods> <fields>",
+            "                                     pick new names from three name list files",
+            "",
+            "Options:",
+            "  --handle-duplicates                make generated names unique (prefix, replace, rules, three files)",
+            "  --classes <file>                   only rename the classes listed in the file, one per line",
+            "  --rewrite-strings                  rename classes in string constants, services, manifest and XML files",
+            "  --dry-run <csv|json>               only write the rename plan, including collisions, instead of a jar",
+            "  --incremental                      reuse unchanged classes from the previous -renamed.jar",
+            "  --metrics                          write phase timings and counters next to the output jar",
+            "  --classpath                        rename all jars together as one application",
+            "  --library <jar>                    read-only jar used to resolve references (repeatable)",
+            "  --jobs <n>                         number of jars processed at the same time",
+            "  --threads <n>                      worker threads per jar",
+            "  --memory-limit <mb>                bound the memory held by entries between read, transform and write",
+            "  -h, --help                         show this help");
+
+    private String mode;
+    private String mappingSource;
+    private String prefix;
+    private String textToReplace;
+    private String replacementText;
+    private File replacementRulesFile;
+    private File renameRulesFile;
+    private File classNamesFile;
+    private File methodNamesFile;
+    private File fieldNamesFile;
+    private File classFilterFile;
+    private boolean handleDuplicates;
+    private boolean rewriteStrings;
+    private String dryRunFormat;
+    private boolean incremental;
+    private boolean metrics;
+    private boolean classpath;
+    private final List<File> libraryJarFiles = new ArrayList<>();
+    private int jobs;
+    private int threads;
+    private int memoryLimit;
+    private final List<File> jarFiles = new ArrayList<>();
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    public static int run(String[] args, PrintStream out, PrintStream err) {
+        JarRenamerCli cli = new JarRenamerCli();
+        try {
+            if (!cli.parseArguments(args)) {
+                out.println(USAGE);
+                return 0;
+            }
+        } catch (IllegalArgumentException e) {
+            err.println("Error: " + e.getMessage());
+            err.println(USAGE);
+            return 2;
+        }
+        return cli.execute(out, err);
+    }
+
+    private boolean parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "-h":
+                case "--help":
+                    return false;
+                case "--mapping-file":
+                    setMode(arg);
+                    mappingSource = requireValue(args, ++i, arg);
+                    break;
+                case "--mapping-text":
+                    setMode(arg);
+                    mappingSource = requireValue(args, ++i, arg).replace('|', '\n');
+                    break;
+                case "--prefix":
+                    setMode(arg);
+                    prefix = requireValue(args, ++i, arg);
+                    break;
+                case "--replace":
+                    setMode(arg);
+                    textToReplace = requireValue(args, ++i, arg);
+                    replacementText = requireValue(args, ++i, arg);
+                    break;
+                case "--replace-rules":
+                    setMode(arg);
+                    replacementRulesFile = new File(requireValue(args, ++i, arg));
+                    break;
+                case "--rules":
+                    setMode(arg);
+                    renameRulesFile = new File(requireValue(args, ++i, arg));
+                    break;
+                case "--three-files":
+                    setMode(arg);
+                    classNamesFile = new File(requireValue(args, ++i, arg));
+                    methodNamesFile = new File(requireValue(args, ++i, arg));
+                    fieldNamesFile = new File(requireValue(args, ++i, arg));
+                    break;
+                case "--handle-duplicates":
+                    handleDuplicates = true;
+                    break;
+                case "--classpath":
+                    classpath = true;
+                    break;
+                case "--library":
+                    libraryJarFiles.add(new File(requireValue(args, ++i, arg)));
+                    break;
+                case "--rewrite-strings":
+                    rewriteStrings = true;
+                    break;
+                case "--dry-run":
+                    dryRunFormat = requireValue(args, ++i, arg);
+                    if (!dryRunFormat.equals("csv") && !dryRunFormat.equals("json")) {
+                        throw new IllegalArgumentException("--dry-run expects csv or json: " + dryRunFormat);
+                    }
+                    break;
+                case "--incremental":
+                    incremental = true;
+                    break;
+                case "--metrics":
+                    metrics = true;
+                    break;
+                case "--classes":
+                    classFilterFile = new File(requireValue(args, ++i, arg));
+                    break;
+                case "--jobs":
+                    jobs = parsePositive(requireValue(args, ++i, arg), arg);
+                    break;
+                case "--threads":
+                    threads = parsePositive(requireValue(args, ++i, arg), arg);
+                    break;
+                case "--memory-limit":
+                    memoryLimit = parsePositive(requireValue(args, ++i, arg), arg);
+                    break;
+                default:
+                    if (arg.startsWith("-")) {
+                        throw new IllegalArgumentException("Unknown option " + arg);
+                    }
+                    jarFiles.add(new File(arg));
+            }
+        }
+        if (args.length == 0) {
+            return false;
+        }
+        if (mode == null) {
+            throw new IllegalArgumentException("A renaming mode is required");
+        }
+        if (textToReplace != null && textToReplace.isEmpty()) {
+            throw new IllegalArgumentException("Text to replace must not be empty");
+        }
+        if (jarFiles.isEmpty()) {
+            throw new IllegalArgumentException("At least one JAR file is required");
+        }
+        return true;
+    }
+
+    private void setMode(String option) {
+        if (mode != null) {
+            throw new IllegalArgumentException("Options " + mode + " and " + option + " cannot be combined");
+        }
+        mode = option;
+    }
+
+    private static String requireValue(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + option);
+        }
+        return args[index];
+    }
+
+    private static int parsePositive(String value, String option) {
+        try {
+            int number = Integer.parseInt(value);
+            if (number > 0) {
+                return number;
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        throw new IllegalArgumentException(option + " expects a positive number: " + value);
+    }
+
+    private int execute(PrintStream out, PrintStream err) {
+        Set<String> classesToRename;
+        List<String> classNames = null;
+        List<String> methodNames = null;
+        List<String> fieldNames = null;
+        ReplacementRules replacementRules = null;
+        RenameRules renameRules = null;
+        try {
+            classesToRename = classFilterFile != null ? new HashSet<>(readLinesFromFile(classFilterFile)) : null;
+            if (mode.equals("--replace-rules")) {
+                replacementRules = ReplacementRules.read(replacementRulesFile);
+            }
+            if (mode.equals("--rules")) {
+                renameRules = RenameRules.read(renameRulesFile);
+            }
+            if (mode.equals("--three-files")) {
+                classNames = readLinesFromFile(classNamesFile);
+                methodNames = readLinesFromFile(methodNamesFile);
+                fieldNames = readLinesFromFile(fieldNamesFile);
+            }
+        } catch (IOException e) {
+            err.println("Error: " + e.getMessage());
+            return 1;
+        }
+
+        List<List<File>> jobFiles = new ArrayList<>();
+        if (classpath) {
+            jobFiles.add(jarFiles);
+        } else {
+            for (File jarFile : jarFiles) {
+                jobFiles.add(List.of(jarFile));
+            }
+        }
+
+        int processors = Runtime.getRuntime().availableProcessors();
+        int jobCount = jobs > 0 ? Math.min(jobs, jobFiles.size()) : Math.min(processors, jobFiles.size());
+        int workerCount = threads > 0 ? threads : Math.max(1, processors / jobCount);
+        long jobMemoryLimit = (long) memoryLimit * 1024 * 1024 / jobCount;
+
+        ExecutorService executor = Executors.newFixedThreadPool(jobCount, runnable -> {
+            Thread thread = new Thread(runnable, "jar-renamer-job");
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<Future<List<File>>> results = new ArrayList<>();
+        for (List<File> files : jobFiles) {
+            Set<String> filter = classesToRename;
+            List<String> classPool = classNames;
+            List<String> methodPool = methodNames;
+            List<String> fieldPool = fieldNames;
+            ReplacementRules replacements = replacementRules;
+            RenameRules rules = renameRules;
+            results.add(executor.submit(() -> {
+                for (File file : files) {
+                    requireFile(file);
+                }
+                for (File file : libraryJarFiles) {
+                    requireFile(file);
+                }
+                JarRenamerService service = createService(files.get(0), filter, classPool, methodPool, fieldPool,
+                        replacements, rules);
+                for (int i = 1; i < files.size(); i++) {
+                    service.addJarFile(files.get(i));
+                }
+                for (File libraryJarFile : libraryJarFiles) {
+                    service.addLibraryJarFile(libraryJarFile);
+                }
+                service.setParallelism(workerCount);
+                service.setRewriteStrings(rewriteStrings);
+                service.setIncremental(incremental);
+                service.setMemoryLimit(jobMemoryLimit);
+                service.setMetricsReport(metrics);
+                if (dryRunFormat != null) {
+                    return List.of(service.executeDryRun(dryRunFormat.equals("json")));
+                }
+                return service.executeAll();
+            }));
+        }
+        executor.shutdown();
+
+        int failures = 0;
+        for (int i = 0; i < results.size(); i++) {
+            List<File> files = jobFiles.get(i);
+            try {
+                List<File> outputFiles = results.get(i).get();
+                for (int j = 0; j < outputFiles.size(); j++) {
+                    out.println(files.get(j).getPath() + " -> " + outputFiles.get(j).getPath());
+                }
+            } catch (ExecutionException e) {
+                failures++;
+                Throwable cause = e.getCause();
+                String message = cause.getMessage() != null ? cause.getMessage() : cause.toString();
+                err.println((files.size() == 1 ? files.get(0).getPath() : "classpath") + ": " + message);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                executor.shutdownNow();
+                err.println("Interrupted");
+                return 1;
+            }
+        }
+        return failures == 0 ? 0 : 1;
+    }
+
+    private static void requireFile(File jarFile) throws FileNotFoundException {
+        if (!jarFile.isFile()) {
+            throw new FileNotFoundException("JAR file not found: " + jarFile.getPath());
+        }
+    }
+
+    private JarRenamerService createService(File jarFile, Set<String> classesToRename, List<String> classNames,
+                                            List<String> methodNames, List<String> fieldNames,
+                                            ReplacementRules replacementRules, RenameRules renameRules)
+            throws IOException {
+        switch (mode) {
+            case "--three-files":
+                return new JarRenamerService(jarFile, classNames, methodNames, fieldNames,
+                        handleDuplicates, classesToRename);
+            case "--prefix":
+                return new JarRenamerService(jarFile, new HashMap<>(), true, prefix, false, null, null,
+                        handleDuplicates, classesToRename);
+            case "--replace":
+                return new JarRenamerService(jarFile, new HashMap<>(), false, null, true, textToReplace,
+                        replacementText, handleDuplicates, classesToRename);
+            case "--replace-rules":
+                return new JarRenamerService(jarFile, replacementRules, handleDuplicates, classesToRename);
+            case "--rules":
+                return new JarRenamerService(jarFile, renameRules, handleDuplicates, classesToRename);
+            case "--mapping-text":
+                return new JarRenamerService(jarFile, mappingSource, true, classesToRename);
+            default:
+                if (mappingSource.startsWith("http://") || mappingSource.startsWith("https://")) {
+                    return new JarRenamerService(jarFile, mappingSource, false, classesToRename);
+                }
+                return new JarRenamerService(jarFile, new File(mappingSource), classesToRename);
+        }
+    }
+
+    private static List<String> readLinesFromFile(File file) throws IOException {
+        List<String> lines = Files.readAllLines(file.toPath());
+        List<String> nonEmptyLines = new ArrayList<>();
+
+        for (String line : lines) {
+            line = line.trim();
+            if (!line.isEmpty() && !line.startsWith("#")) {
+                nonEmptyLines.add(line);
+            }
+        }
+
+        return nonEmptyLines;
+    }
+}
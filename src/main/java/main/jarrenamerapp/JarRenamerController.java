@@ -1,30 +1,29 @@
 package main.jarrenamerapp;
 
+import javafx.animation.PauseTransition;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.CheckBoxTreeCell;
 import javafx.scene.Cursor;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.stage.FileChooser;
+import javafx.util.Duration;
 import org.controlsfx.control.StatusBar;
 
-import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.file.Files;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.jar.JarEntry;
-import java.util.jar.JarInputStream;
 import javafx.beans.value.ChangeListener;
 import javafx.collections.transformation.FilteredList;
 
 public class JarRenamerController {
+    private static final int EXPANDED_SEARCH_RESULTS = 500;
 
     @FXML private TextField jarFileField;
     @FXML private TextArea mappingTextArea;
@@ -36,10 +35,13 @@ public class JarRenamerController {
     @FXML private RadioButton replaceRadio;
     @FXML private RadioButton threeFilesRadio;
     @FXML private CheckBox handleDuplicatesCheck;
+    @FXML private CheckBox rewriteStringsCheck;
+    @FXML private Spinner<Integer> workerCountSpinner;
     @FXML private TextField prefixField;
     @FXML private TextField textToReplaceField;
     @FXML private TextField replacementTextField;
     @FXML private Button executeButton;
+    @FXML private Button cancelButton;
     @FXML private ProgressBar progressBar;
     @FXML private StatusBar statusBar;
     @FXML private HBox prefixBox;
@@ -57,14 +59,18 @@ public class JarRenamerController {
     @FXML private Button deselectAllButton;
 
     private ExecutorService executorService;
-    private CheckBoxTreeItem<String> rootItem;
-    private final Map<String, CheckBoxTreeItem<String>> packageItems = new HashMap<>();
-    private final Set<String> selectedClasses = new HashSet<>();
-    private final Map<String, CheckBoxTreeItem<String>> classItems = new HashMap<>();
+    private ExecutorService searchExecutor;
+    private final PauseTransition searchDelay = new PauseTransition(Duration.millis(200));
+    private CompletableFuture<ClassSearchIndex> searchIndex;
+    private long searchGeneration;
+    private volatile ClassSelection classSelection;
+    private volatile ClassModel classModel;
+    private volatile JarRenamerService runningService;
 
     @FXML
     public void initialize() {
         executorService = Executors.newSingleThreadExecutor();
+        searchExecutor = Executors.newSingleThreadExecutor();
         mappingRadio.selectedProperty().addListener((obs, oldVal, newVal) -> {
             if (newVal) updateUIForMode("mapping");
         });
@@ -85,54 +91,51 @@ public class JarRenamerController {
             if (newVal) updateUIForMode("threeFiles");
         });
 
+        searchDelay.setOnFinished(event -> filterTreeView(searchField.getText()));
         searchField.textProperty().addListener((observable, oldValue, newValue) -> {
-            filterTreeView(newValue);
+            searchDelay.playFromStart();
         });
 
+        int processors = Runtime.getRuntime().availableProcessors();
+        workerCountSpinner.setValueFactory(
+                new SpinnerValueFactory.IntegerSpinnerValueFactory(1, processors * 2, processors));
+
         progressBar.setVisible(false);
+        cancelButton.setDisable(true);
         statusBar.setText("Ready");
         updateUIForMode("mapping");
     }
 
     private void filterTreeView(String searchText) {
-        if (rootItem == null) return;
+        ClassSelection selection = classSelection;
+        if (selection == null) return;
 
+        long generation = ++searchGeneration;
         if (searchText == null || searchText.trim().isEmpty()) {
-            showAllItems(rootItem);
-        } else {
-            String searchLower = searchText.toLowerCase();
-            filterItems(rootItem, searchLower);
-        }
-    }
-
-    private boolean filterItems(CheckBoxTreeItem<String> item, String searchText) {
-        if (item == null) return false;
-
-        boolean matches = item.getValue().toLowerCase().contains(searchText);
-        boolean childMatches = false;
-        if (!item.isLeaf()) {
-            for (TreeItem<String> child : new ArrayList<>(item.getChildren())) {
-                if (child instanceof CheckBoxTreeItem) {
-                    boolean match = filterItems((CheckBoxTreeItem<String>) child, searchText);
-                    childMatches |= match;
-                }
-            }
+            showClassTree(new ClassTreeItem("All Classes", selection, selection.getAllIds()));
+            return;
         }
-        boolean visible = matches || childMatches;
-        item.setExpanded(visible);
-        return visible;
+        String query = searchText.trim();
+        searchIndex.thenApplyAsync(index -> index.find(query), searchExecutor)
+                .whenComplete((matches, error) -> Platform.runLater(() -> {
+                    if (generation != searchGeneration || classSelection != selection) {
+                        return;
+                    }
+                    if (error != null) {
+                        statusBar.setText("Error searching classes: " + error.getMessage());
+                        return;
+                    }
+                    ClassTreeItem root = new ClassTreeItem("Matching Classes", selection, matches);
+                    if (root.getClassCount() <= EXPANDED_SEARCH_RESULTS) {
+                        root.expandAll();
+                    }
+                    showClassTree(root);
+                }));
     }
 
-    private void showAllItems(CheckBoxTreeItem<String> item) {
-        if (item == null) return;
-        item.setExpanded(true);
-        if (!item.isLeaf()) {
-            for (TreeItem<String> child : item.getChildren()) {
-                if (child instanceof CheckBoxTreeItem) {
-                    showAllItems((CheckBoxTreeItem<String>) child);
-                }
-            }
-        }
+    private void showClassTree(ClassTreeItem root) {
+        root.setExpanded(true);
+        classTreeView.setRoot(root);
     }
 
     private void updateUIForMode(String mode) {
@@ -228,40 +231,27 @@ public class JarRenamerController {
             classTreeView.setCursor(Cursor.WAIT);
         }
         statusBar.setText("Loading classes from JAR...");
+        int workerCount = workerCountSpinner.getValue();
         executorService.submit(() -> {
             try {
-                rootItem = new CheckBoxTreeItem<>("All Classes");
-                rootItem.setExpanded(true);
-                packageItems.clear();
-                selectedClasses.clear();
-                classItems.clear();
-                Set<String> classNames = new TreeSet<>();
-                try (JarInputStream jarIn = new JarInputStream(new FileInputStream(jarFile))) {
-                    JarEntry entry;
-                    while ((entry = jarIn.getNextJarEntry()) != null) {
-                        String entryName = entry.getName();
-                        if (entryName.endsWith(".class")) {
-                            String className = entryName.substring(0, entryName.length() - 6).replace('/', '.');
-                            classNames.add(className);
-                        }
-                    }
-                }
-                for (String className : classNames) {
-                    addClassToTree(className);
-                }
-                final Set<String> finalClassNames = classNames;
-                Platform.runLater(() -> {
-                    classTreeView.setRoot(rootItem);
-                    classTreeView.setCellFactory(tv -> new CheckBoxTreeCell<>());
-                    rootItem.selectedProperty().addListener((obs, oldVal, newVal) -> {
-                        updateSelectedClasses(rootItem, newVal);
+                classSelection = null;
+                classModel = null;
+                try (ZipArchive archive = ZipArchive.open(jarFile, false)) {
+                    ClassSelection selection = new ClassSelection(archive.getClassNames());
+                    Platform.runLater(() -> {
+                        searchField.clear();
+                        searchDelay.stop();
+                        searchIndex = CompletableFuture.supplyAsync(() -> new ClassSearchIndex(selection), searchExecutor);
+                        classSelection = selection;
+                        classTreeView.setCellFactory(tv -> new ClassTreeCell(this::updateSelectionStatus));
+                        showClassTree(new ClassTreeItem("All Classes", selection, selection.getAllIds()));
+                        classesPane.setVisible(true);
+                        classesPane.setManaged(true);
+                        statusBar.setText("Loaded " + selection.size() + " classes from JAR.");
+                        classTreeView.setCursor(Cursor.DEFAULT);
                     });
-                    rootItem.setSelected(true);
-                    classesPane.setVisible(true);
-                    classesPane.setManaged(true);
-                    statusBar.setText("Loaded " + finalClassNames.size() + " classes from JAR.");
-                    classTreeView.setCursor(Cursor.DEFAULT);
-                });
+                    classModel = ClassModel.load(archive, workerCount);
+                }
 
             } catch (Exception e) {
                 Platform.runLater(() -> {
@@ -274,89 +264,29 @@ public class JarRenamerController {
         });
     }
 
-    private void addClassToTree(String className) {
-        int lastDot = className.lastIndexOf('.');
-        String packageName = (lastDot > 0) ? className.substring(0, lastDot) : "";
-        String simpleClassName = (lastDot > 0) ? className.substring(lastDot + 1) : className;
-        CheckBoxTreeItem<String> parentItem = rootItem;
-
-        if (!packageName.isEmpty()) {
-            String[] packages = packageName.split("\\.");
-            String currentPackage = "";
-            for (String pkg : packages) {
-                currentPackage = currentPackage.isEmpty() ? pkg : currentPackage + "." + pkg;
-                CheckBoxTreeItem<String> packageItem = packageItems.get(currentPackage);
-                if (packageItem == null) {
-                    packageItem = new CheckBoxTreeItem<>(pkg);
-                    packageItem.setExpanded(true);
-                    CheckBoxTreeItem<String> finalPackageItem = packageItem;
-                    packageItem.selectedProperty().addListener((obs, oldVal, newVal) -> {
-                        updateSelectedClasses(finalPackageItem, newVal);
-                    });
-
-                    packageItems.put(currentPackage, packageItem);
-                    parentItem.getChildren().add(packageItem);
-                    parentItem = packageItem;
-                } else {
-                    parentItem = packageItem;
-                }
-            }
-        }
-        CheckBoxTreeItem<String> classItem = new CheckBoxTreeItem<>(simpleClassName);
-        classItem.selectedProperty().addListener((obs, oldVal, newVal) -> {
-            if (newVal) {
-                selectedClasses.add(className);
-            } else {
-                selectedClasses.remove(className);
-            }
-        });
-        parentItem.getChildren().add(classItem);
-        classItems.put(className, classItem);
-        selectedClasses.add(className);
-    }
-
-    private void updateSelectedClasses(CheckBoxTreeItem<String> item, boolean selected) {
-        if (item.getChildren().isEmpty()) {
-            String className = getFullClassName(item);
-            if (selected) {
-                selectedClasses.add(className);
-            } else {
-                selectedClasses.remove(className);
-            }
-        } else {
-            for (TreeItem<String> child : item.getChildren()) {
-                if (child instanceof CheckBoxTreeItem) {
-                    ((CheckBoxTreeItem<String>) child).setSelected(selected);
-                }
-            }
-        }
-    }
-
-    private String getFullClassName(TreeItem<String> item) {
-        if (item == rootItem) return "";
-
-        List<String> path = new ArrayList<>();
-        TreeItem<String> current = item;
-
-        while (current != null && current != rootItem) {
-            path.add(0, current.getValue());
-            current = current.getParent();
+    private void updateSelectionStatus() {
+        ClassSelection selection = classSelection;
+        if (selection != null) {
+            statusBar.setText(selection.getSelectedCount() + " of " + selection.size() + " classes selected");
         }
-
-        return String.join(".", path);
     }
 
     @FXML
     protected void onSelectAllButtonClick() {
-        if (rootItem != null) {
-            rootItem.setSelected(true);
-        }
+        setAllSelected(true);
     }
 
     @FXML
     protected void onDeselectAllButtonClick() {
-        if (rootItem != null) {
-            rootItem.setSelected(false);
+        setAllSelected(false);
+    }
+
+    private void setAllSelected(boolean selected) {
+        ClassSelection selection = classSelection;
+        if (selection != null) {
+            selection.setAllSelected(selected);
+            classTreeView.refresh();
+            updateSelectionStatus();
         }
     }
 
@@ -411,7 +341,8 @@ public class JarRenamerController {
             return false;
         }
 
-        if (selectedClasses.isEmpty() && classesPane.isVisible()) {
+        ClassSelection selection = classSelection;
+        if (classesPane.isVisible() && selection != null && selection.getSelectedCount() == 0) {
             statusBar.setText("No classes selected for renaming");
             return false;
         }
@@ -427,7 +358,9 @@ public class JarRenamerController {
         executeButton.setDisable(true);
         progressBar.setVisible(true);
         progressBar.setProgress(ProgressBar.INDETERMINATE_PROGRESS);
-        statusBar.setText("Processing JAR file...");
+        statusBar.setText("Analyzing JAR file...");
+        int workerCount = workerCountSpinner.getValue();
+        boolean rewriteStrings = rewriteStringsCheck.isSelected();
 
         executorService.submit(() -> {
             try {
@@ -435,7 +368,9 @@ public class JarRenamerController {
 
                 JarRenamerService renamerService;
                 boolean handleDuplicates = handleDuplicatesCheck.isSelected();
-                Set<String> classesToRename = classesPane.isVisible() ? new HashSet<>(selectedClasses) : null;
+                ClassSelection selection = classSelection;
+                Set<String> classesToRename = classesPane.isVisible() && selection != null && !selection.isAllSelected()
+                        ? selection.getSelectedClassNames() : null;
 
                 if (threeFilesRadio.isSelected()) {
                     List<String> classNames = readLinesFromFile(new File(classNamesFileField.getText()));
@@ -504,11 +439,25 @@ public class JarRenamerController {
                     }
                 }
 
+                runningService = renamerService;
+                Platform.runLater(() -> cancelButton.setDisable(false));
+                ClassModel model = classModel;
+                if (model != null && model.isUpToDate(jarFile)) {
+                    renamerService.setClassModel(model);
+                }
+                renamerService.setParallelism(workerCount);
+                renamerService.setRewriteStrings(rewriteStrings);
+                renamerService.setProgressListener((processed, total, rate) -> Platform.runLater(() -> {
+                    progressBar.setProgress(total > 0 ? (double) processed / total : ProgressBar.INDETERMINATE_PROGRESS);
+                    statusBar.setText(String.format("Writing entries: %d / %d (%.0f entries/s)", processed, total, rate));
+                }));
                 File outputJar = renamerService.execute();
+                runningService = null;
                 Platform.runLater(() -> {
                     progressBar.setProgress(1.0);
                     statusBar.setText("Renaming completed successfully. Output: " + outputJar.getAbsolutePath());
                     executeButton.setDisable(false);
+                    cancelButton.setDisable(true);
                     Alert alert = new Alert(Alert.AlertType.INFORMATION);
                     alert.setTitle("Renaming Completed");
                     alert.setHeaderText("JAR Renaming Completed Successfully");
@@ -516,11 +465,21 @@ public class JarRenamerController {
                     alert.showAndWait();
                 });
 
+            } catch (CancellationException e) {
+                runningService = null;
+                Platform.runLater(() -> {
+                    progressBar.setProgress(0);
+                    statusBar.setText("Renaming cancelled");
+                    executeButton.setDisable(false);
+                    cancelButton.setDisable(true);
+                });
             } catch (Exception e) {
+                runningService = null;
                 Platform.runLater(() -> {
                     progressBar.setProgress(0);
                     statusBar.setText("Error: " + e.getMessage());
                     executeButton.setDisable(false);
+                    cancelButton.setDisable(true);
                     Alert alert = new Alert(Alert.AlertType.ERROR);
                     alert.setTitle("Renaming Error");
                     alert.setHeaderText("An error occurred during JAR renaming");
@@ -555,7 +514,25 @@ public class JarRenamerController {
         return nonEmptyLines;
     }
 
+    @FXML
+    protected void onCancelButtonClick() {
+        JarRenamerService service = runningService;
+        if (service != null) {
+            service.cancel();
+            cancelButton.setDisable(true);
+            statusBar.setText("Cancelling...");
+        }
+    }
+
     public void onClose() {
+        JarRenamerService service = runningService;
+        if (service != null) {
+            service.cancel();
+        }
+        searchDelay.stop();
+        if (searchExecutor != null) {
+            searchExecutor.shutdownNow();
+        }
         if (executorService != null) {
             executorService.shutdownNow();
         }
@@ -6,48 +6,78 @@ import org.objectweb.asm.commons.Remapper;
 
 import java.io.*;
 import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
 import java.util.*;
-import java.util.jar.JarEntry;
-import java.util.jar.JarInputStream;
-import java.util.jar.JarOutputStream;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.zip.ZipException;
 
 public class JarRenamerService {
+    private static final long NESTED_JAR_BUFFER_SIZE = 256 * 1024;
+
     private final File jarFile;
-    private final Map<String, String> mappings;
+    private final MappingSet mappingSet;
     private final boolean isPrefixMode;
     private final String prefix;
     private final boolean isReplaceMode;
-    private final String textToReplace;
-    private final String replacementText;
+    private final ReplacementRules replacementRules;
+    private final RenameRules renameRules;
     private final boolean handleDuplicates;
     private final Set<String> classesToRename;
     private final boolean isThreeFilesMode;
     private final List<String> classNames;
     private final List<String> methodNames;
     private final List<String> fieldNames;
-
-    private final Map<String, Set<String>> classFields = new HashMap<>();
-    private final Map<String, String> classToNewName = new HashMap<>();
-    private final Map<String, String> fieldMappingGlobal = new HashMap<>();
-    private final Map<String, String> methodMappingGlobal = new HashMap<>();
-
-    private final Map<String, Integer> classNameCounters = new HashMap<>();
-    private final Map<String, Integer> methodNameCounters = new HashMap<>();
-    private final Map<String, Integer> fieldNameCounters = new HashMap<>();
-
-    private final Map<String, Set<String>> usedNamesInClass = new HashMap<>();
-
-    private final Map<String, String> consistentRenamingCache = new HashMap<>();
+    private final List<File> additionalJarFiles = new ArrayList<>();
+    private final List<File> libraryJarFiles = new ArrayList<>();
+    private final Map<File, ZipArchive> nestedArchives = new HashMap<>();
+
+    private ClassModel classModel;
+    private ClassHierarchy classHierarchy;
+    private CustomRemapper renameRemapper;
+    private ClassRewriter classRewriter;
+    private ClassNameRewriter classNameRewriter;
+    private int parallelism = 1;
+    private boolean incremental;
+    private long memoryLimit;
+    private boolean metricsReport;
+    private boolean rewriteStrings;
+    private RenameProgressListener progressListener;
+    private RenameProgress progress;
+    private volatile boolean cancelled;
+    private int reusedClassCount;
+
+    private Map<String, String> classToNewName = new HashMap<>();
+    private final SymbolTable symbolTable = new SymbolTable();
+
+    private final Map<String, String> classCollisions = new HashMap<>();
+    private final Map<String, String> memberCollisions = new HashMap<>();
+    private final NameAllocator classNameAllocator = new NameAllocator();
+    private final NameAllocator memberNameAllocator = new NameAllocator();
+    private NameAllocator.NamePool classNamePool;
+    private NameAllocator.NamePool methodNamePool;
+    private NameAllocator.NamePool fieldNamePool;
+
+
+    private final Map<String, String> consistentRenamingCache = new ConcurrentHashMap<>();
+    private final Map<String, String> methodRenamingCache = new ConcurrentHashMap<>();
+    private final Map<String, String> fieldRenamingCache = new ConcurrentHashMap<>();
+    private final RenameMetrics metrics = new RenameMetrics();
 
     public JarRenamerService(File jarFile, File mappingFile, Set<String> classesToRename) throws IOException {
         this.jarFile = jarFile;
-        this.mappings = loadMappingsFromFile(mappingFile);
+        this.mappingSet = loadMappingsFromFile(mappingFile);
         this.isPrefixMode = false;
         this.prefix = null;
         this.isReplaceMode = false;
-        this.textToReplace = null;
-        this.replacementText = null;
+        this.replacementRules = null;
+        this.renameRules = null;
         this.handleDuplicates = false;
         this.classesToRename = classesToRename;
         this.isThreeFilesMode = false;
@@ -59,15 +89,15 @@ public class JarRenamerService {
     public JarRenamerService(File jarFile, String mappingSource, boolean isContent, Set<String> classesToRename) throws IOException {
         this.jarFile = jarFile;
         if (isContent) {
-            this.mappings = parseMappingContent(mappingSource);
+            this.mappingSet = parseMappingContent(mappingSource);
         } else {
-            this.mappings = loadMappingsFromUrl(mappingSource);
+            this.mappingSet = loadMappingsFromUrl(mappingSource);
         }
         this.isPrefixMode = false;
         this.prefix = null;
         this.isReplaceMode = false;
-        this.textToReplace = null;
-        this.replacementText = null;
+        this.replacementRules = null;
+        this.renameRules = null;
         this.handleDuplicates = false;
         this.classesToRename = classesToRename;
         this.isThreeFilesMode = false;
@@ -81,12 +111,46 @@ public class JarRenamerService {
                              String replacementText, boolean handleDuplicates,
                              Set<String> classesToRename) {
         this.jarFile = jarFile;
-        this.mappings = mappings != null ? mappings : new HashMap<>();
+        this.mappingSet = MappingSet.fromNames(mappings);
         this.isPrefixMode = isPrefixMode;
         this.prefix = prefix;
         this.isReplaceMode = isReplaceMode;
-        this.textToReplace = textToReplace;
-        this.replacementText = replacementText;
+        this.replacementRules = isReplaceMode ? ReplacementRules.of(textToReplace, replacementText) : null;
+        this.renameRules = null;
+        this.handleDuplicates = handleDuplicates;
+        this.classesToRename = classesToRename;
+        this.isThreeFilesMode = false;
+        this.classNames = null;
+        this.methodNames = null;
+        this.fieldNames = null;
+    }
+
+    public JarRenamerService(File jarFile, ReplacementRules replacementRules, boolean handleDuplicates,
+                             Set<String> classesToRename) {
+        this.jarFile = jarFile;
+        this.mappingSet = MappingSet.empty();
+        this.isPrefixMode = false;
+        this.prefix = null;
+        this.isReplaceMode = true;
+        this.replacementRules = replacementRules;
+        this.renameRules = null;
+        this.handleDuplicates = handleDuplicates;
+        this.classesToRename = classesToRename;
+        this.isThreeFilesMode = false;
+        this.classNames = null;
+        this.methodNames = null;
+        this.fieldNames = null;
+    }
+
+    public JarRenamerService(File jarFile, RenameRules renameRules, boolean handleDuplicates,
+                             Set<String> classesToRename) {
+        this.jarFile = jarFile;
+        this.mappingSet = MappingSet.empty();
+        this.isPrefixMode = false;
+        this.prefix = null;
+        this.isReplaceMode = false;
+        this.replacementRules = null;
+        this.renameRules = renameRules;
         this.handleDuplicates = handleDuplicates;
         this.classesToRename = classesToRename;
         this.isThreeFilesMode = false;
@@ -99,12 +163,12 @@ public class JarRenamerService {
                              List<String> fieldNames, boolean handleDuplicates,
                              Set<String> classesToRename) {
         this.jarFile = jarFile;
-        this.mappings = new HashMap<>();
+        this.mappingSet = MappingSet.empty();
         this.isPrefixMode = false;
         this.prefix = null;
         this.isReplaceMode = false;
-        this.textToReplace = null;
-        this.replacementText = null;
+        this.replacementRules = null;
+        this.renameRules = null;
         this.handleDuplicates = handleDuplicates;
         this.classesToRename = classesToRename;
         this.isThreeFilesMode = true;
@@ -113,224 +177,1011 @@ public class JarRenamerService {
         this.fieldNames = fieldNames;
     }
 
+    public void setClassModel(ClassModel classModel) {
+        this.classModel = classModel;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    public void setMemoryLimit(long memoryLimit) {
+        this.memoryLimit = memoryLimit;
+    }
+
+    public void setMetricsReport(boolean metricsReport) {
+        this.metricsReport = metricsReport;
+    }
+
+    public void setRewriteStrings(boolean rewriteStrings) {
+        this.rewriteStrings = rewriteStrings;
+    }
+
+    public void setProgressListener(RenameProgressListener progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public RenameMetrics getMetrics() {
+        return metrics;
+    }
+
+    public int getReusedClassCount() {
+        return reusedClassCount;
+    }
+
+    public void addJarFile(File additionalJarFile) {
+        additionalJarFiles.add(additionalJarFile);
+    }
+
+    public void addLibraryJarFile(File libraryJarFile) {
+        libraryJarFiles.add(libraryJarFile);
+    }
+
     public File execute() throws IOException {
-        String originalName = jarFile.getName();
+        return executeAll().get(0);
+    }
+
+    public List<File> executeAll() throws IOException {
+        List<ZipArchive> archives = new ArrayList<>();
+        List<ZipArchive> classpath = new ArrayList<>();
+        List<ZipArchive> libraries = new ArrayList<>();
+        try {
+            long totalEntries = openArchives(archives, classpath, libraries);
+            progress = progressListener != null ? new RenameProgress(progressListener, totalEntries) : null;
+            prepareRenameTables(classpath, libraries);
+            releaseNestedInflaters();
+
+            List<File> outputFiles = new ArrayList<>();
+            int reused = 0;
+            for (ZipArchive archive : archives) {
+                File outputFile = getOutputFile(archive.getFile());
+                timePhase("write", () -> {
+                    if (incremental) {
+                        writeRenamedJarIncrementally(archive, outputFile);
+                    } else {
+                        writeRenamedJar(archive, outputFile, null, null, null);
+                    }
+                });
+                metrics.addBytesWritten(outputFile.length());
+                reused += reusedClassCount;
+                outputFiles.add(outputFile);
+            }
+            if (progress != null) {
+                progress.finish();
+            }
+            reusedClassCount = reused;
+            metrics.setClassesReused(reused);
+            metrics.commitSummaryEvent(jarFile.getName());
+            if (metricsReport) {
+                metrics.writeReport(jarFile.getName(), outputFiles.get(0));
+            }
+            return outputFiles;
+        } finally {
+            nestedArchives.clear();
+            closeArchives(classpath);
+            closeArchives(archives);
+            closeArchives(libraries);
+        }
+    }
+
+    public File executeDryRun(boolean json) throws IOException {
+        File planFile = getPlanFile(jarFile, json);
+        boolean completed = false;
+        try (Writer writer = Files.newBufferedWriter(planFile.toPath(), StandardCharsets.UTF_8)) {
+            writeRenamePlan(writer, json);
+            completed = true;
+        } finally {
+            if (!completed) {
+                Files.deleteIfExists(planFile.toPath());
+            }
+        }
+        return planFile;
+    }
+
+    public void writeRenamePlan(Writer writer, boolean json) throws IOException {
+        List<ZipArchive> archives = new ArrayList<>();
+        List<ZipArchive> classpath = new ArrayList<>();
+        List<ZipArchive> libraries = new ArrayList<>();
+        try {
+            openArchives(archives, classpath, libraries);
+            prepareRenameTables(classpath, libraries);
+            timePhase("plan", () -> writeRenamePlan(new RenamePlanWriter(writer, json)));
+            metrics.commitSummaryEvent(jarFile.getName());
+        } finally {
+            nestedArchives.clear();
+            closeArchives(classpath);
+            closeArchives(archives);
+            closeArchives(libraries);
+        }
+    }
+
+    private long openArchives(List<ZipArchive> archives, List<ZipArchive> classpath, List<ZipArchive> libraries)
+            throws IOException {
+        checkCancelled();
+        archives.add(ZipArchive.open(jarFile));
+        for (File additionalJarFile : additionalJarFiles) {
+            archives.add(ZipArchive.open(additionalJarFile));
+        }
+        for (File libraryJarFile : libraryJarFiles) {
+            libraries.add(ZipArchive.open(libraryJarFile));
+        }
+        classpath.addAll(archives);
+        long totalEntries = 0;
+        for (ZipArchive archive : archives) {
+            metrics.addBytesRead(archive.getSize());
+            totalEntries += archive.getEntries().size();
+        }
+        for (int i = 0; i < classpath.size(); i++) {
+            openNestedArchives(classpath.get(i), classpath);
+        }
+        return totalEntries;
+    }
+
+    private void writeRenamePlan(RenamePlanWriter plan) throws IOException {
+        plan.writeHeader();
+        for (ClassInfo classInfo : classModel.getClasses()) {
+            checkCancelled();
+            String internalName = classInfo.getInternalName();
+            String className = classInfo.getClassName();
+            ClassSymbol symbol = symbolTable.get(internalName);
+            String newClassName = symbol.getNewInternalName().replace('/', '.');
+            String preferredClassName = classCollisions.get(newClassName);
+            plan.write("class", null, className, null, newClassName,
+                    getPlanStatus(className, newClassName, preferredClassName), preferredClassName);
+            for (MemberInfo field : classInfo.getFields()) {
+                String newName = symbol.getFieldName(field.getName(), field.getDescriptor());
+                writeMemberPlan(plan, "field", className, field, newName);
+            }
+            for (MemberInfo method : classInfo.getMethods()) {
+                if (!method.getName().equals("<init>") && !method.getName().equals("<clinit>")) {
+                    String newName = symbol.getMethodName(method.getName(), method.getDescriptor());
+                    writeMemberPlan(plan, "method", className, method, newName);
+                }
+            }
+        }
+        plan.finish();
+    }
+
+    private void writeMemberPlan(RenamePlanWriter plan, String kind, String className, MemberInfo member,
+                                 String newName) throws IOException {
+        String name = member.getName();
+        if (newName == null) {
+            newName = name;
+        }
+        String preferredName = newName.equals(name) ? null : memberCollisions.get(className + "." + newName);
+        plan.write(kind, className, name, member.getDescriptor(), newName,
+                getPlanStatus(name, newName, preferredName), preferredName);
+    }
+
+    private static String getPlanStatus(String name, String newName, String preferredName) {
+        if (newName.equals(name)) {
+            return isReservedName(name) ? "skipped" : "unchanged";
+        }
+        return preferredName != null ? "collision" : "renamed";
+    }
+
+    private static boolean isReservedName(String name) {
+        return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("android.");
+    }
+
+    private static File getPlanFile(File inputFile, boolean json) {
+        String originalName = inputFile.getName();
         String baseName = originalName.substring(0, originalName.lastIndexOf('.'));
-        File outputFile = new File(jarFile.getParentFile(), baseName + "-renamed.jar");
-        analyzeClasses();
-        analyzeFieldsAndMethods();
+        return new File(inputFile.getParentFile(), baseName + "-rename-plan." + (json ? "json" : "csv"));
+    }
+
+    private void openNestedArchives(ZipArchive archive, List<ZipArchive> classpath) throws IOException {
+        for (ZipArchiveEntry entry : archive.getEntries()) {
+            if (ZipArchive.isNestedArchive(entry.getName())) {
+                try {
+                    ZipArchive nestedArchive = archive.openNested(entry);
+                    nestedArchives.put(nestedArchive.getFile(), nestedArchive);
+                    classpath.add(nestedArchive);
+                } catch (ZipException ignored) {
+                }
+            }
+        }
+    }
+
+    private void releaseNestedInflaters() {
+        for (ZipArchive nestedArchive : nestedArchives.values()) {
+            nestedArchive.releaseInflaters();
+        }
+    }
+
+    private static File getOutputFile(File inputFile) {
+        String originalName = inputFile.getName();
+        String baseName = originalName.substring(0, originalName.lastIndexOf('.'));
+        return new File(inputFile.getParentFile(), baseName + "-renamed.jar");
+    }
+
+    private static void closeArchives(List<ZipArchive> archives) throws IOException {
+        IOException failure = null;
+        for (ZipArchive archive : archives) {
+            try {
+                archive.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    void prepareRenameTables(ZipArchive archive) throws IOException {
+        prepareRenameTables(List.of(archive), List.of());
+    }
+
+    void prepareRenameTables(List<ZipArchive> archives, List<ZipArchive> libraries) throws IOException {
+        timePhase("analyze-classes", () -> analyzeClasses(archives));
+        checkCancelled();
+        classHierarchy = timePhase("class-hierarchy", () -> new ClassHierarchy(classModel, libraries));
+        checkCancelled();
+        timePhase("class-names", this::assignUniqueClassNames);
+        checkCancelled();
+        timePhase("members", this::analyzeFieldsAndMethods);
+        checkCancelled();
+        timePhase("references", this::resolveReferencedMembers);
+        checkCancelled();
+        timePhase("lambda-names", this::assignLambdaMethodNames);
+        checkCancelled();
+        timePhase("freeze", this::freezeRenameTables);
+        recordRenameCounts();
+    }
+
+    private void checkCancelled() {
+        if (cancelled) {
+            throw new CancellationException("Renaming cancelled");
+        }
+    }
+
+    private <T> T timePhase(String name, IOCallable<T> action) throws IOException {
+        RenameMetrics.Phase phase = metrics.startPhase(jarFile.getName(), name);
+        try {
+            return action.call();
+        } finally {
+            phase.close();
+        }
+    }
+
+    private void timePhase(String name, IORunnable action) throws IOException {
+        RenameMetrics.Phase phase = metrics.startPhase(jarFile.getName(), name);
+        try {
+            action.run();
+        } finally {
+            phase.close();
+        }
+    }
+
+    private void recordRenameCounts() {
+        int classesRenamed = 0;
+        int fieldsRenamed = 0;
+        int methodsRenamed = 0;
+        for (ClassInfo classInfo : classModel.getClasses()) {
+            ClassSymbol symbol = symbolTable.get(classInfo.getInternalName());
+            if (!symbol.getNewInternalName().equals(symbol.getInternalName())) {
+                classesRenamed++;
+            }
+            fieldsRenamed += symbol.getRenamedFieldCount();
+            methodsRenamed += symbol.getRenamedMethodCount();
+        }
+        metrics.setRenameCounts(classModel.size(), classesRenamed, fieldsRenamed, methodsRenamed);
+    }
+
+    Remapper getRemapper() {
+        return renameRemapper;
+    }
+
+    private void assignUniqueClassNames() {
+        classNamePool = classNameAllocator.addPool(classNames);
+        methodNamePool = memberNameAllocator.addPool(methodNames);
+        fieldNamePool = memberNameAllocator.addPool(fieldNames);
         if (handleDuplicates) {
-            Set<String> usedClassNames = new HashSet<>();
-            for (String className : classFields.keySet()) {
+            for (String className : classModel.getClassNames()) {
                 boolean shouldRename = classesToRename == null || classesToRename.contains(className);
 
                 String newClassName;
                 if (shouldRename) {
-                    newClassName = getConsistentNameForClass(className);
-                    while (usedClassNames.contains(newClassName)) {
-                        newClassName = newClassName + "_" + generateDeterministicSuffix(className, classNameCounters);
-                    }
+                    newClassName = allocateClassName(getConsistentNameForClass(className));
                 } else {
                     newClassName = className;
+                    classNameAllocator.reserve(getPackageName(className), getSimpleClassName(className));
                 }
 
-                usedClassNames.add(newClassName);
                 classToNewName.put(className, newClassName);
-                usedNamesInClass.put(className, new HashSet<>());
                 if (shouldRename) {
-                    String simpleClassName = getSimpleClassName(newClassName);
-                    usedNamesInClass.get(className).add(simpleClassName);
+                    memberNameAllocator.reserve(className, getSimpleClassName(newClassName));
                 }
             }
         }
-        try (JarInputStream jarIn = new JarInputStream(new FileInputStream(jarFile));
-             JarOutputStream jarOut = new JarOutputStream(new FileOutputStream(outputFile))) {
-            Set<String> processedEntries = new HashSet<>();
-            JarEntry entry;
-            while ((entry = jarIn.getNextJarEntry()) != null) {
-                String entryName = entry.getName();
-                if (entryName.endsWith(".class")) {
-                    String className = entryName.substring(0, entryName.length() - 6).replace('/', '.');
-                    boolean shouldRename = classesToRename == null || classesToRename.contains(className);
-
-                    byte[] classBytes = readAllBytes(jarIn);
-                    byte[] transformedClass = transformClass(classBytes, className);
-
-                    String newEntryName;
-                    if (shouldRename) {
-                        String newClassName = handleDuplicates ?
-                                classToNewName.get(className) :
-                                getConsistentNameForClass(className);
-                        newEntryName = newClassName != null
-                                ? newClassName.replace('.', '/') + ".class"
-                                : entryName;
-                    } else {
-                        newEntryName = entryName;
-                    }
+    }
 
-                    if (!processedEntries.contains(newEntryName)) {
-                        processedEntries.add(newEntryName);
-                        jarOut.putNextEntry(new JarEntry(newEntryName));
-                        jarOut.write(transformedClass);
-                    }
+    private String allocateClassName(String newClassName) {
+        String packageName = getPackageName(newClassName);
+        String simpleClassName = getSimpleClassName(newClassName);
+        String allocatedName = classNameAllocator.allocate(List.of(packageName), simpleClassName, classNamePool,
+                name -> !classNameAllocator.isUsed(packageName, name));
+        if (allocatedName.equals(simpleClassName)) {
+            return newClassName;
+        }
+        metrics.addCollisionSuffix();
+        String allocatedClassName = packageName.isEmpty() ? allocatedName : packageName + "." + allocatedName;
+        classCollisions.put(allocatedClassName, newClassName);
+        return allocatedClassName;
+    }
+
+    private String allocateMemberName(List<String> ownerClassNames, String descriptor, String newName,
+                                      NameAllocator.NamePool pool, Predicate<String> available) {
+        Set<String> scopes = new LinkedHashSet<>(ownerClassNames);
+        Set<String> relatedScopes = new LinkedHashSet<>();
+        for (String ownerClassName : ownerClassNames) {
+            String owner = ownerClassName.replace('.', '/');
+            scopes.add(getMemberScope(owner, descriptor));
+            for (String subtype : classHierarchy.getSubtypes(owner)) {
+                scopes.add(getMemberScope(subtype, descriptor));
+            }
+            for (String supertype : classHierarchy.getSupertypes(owner)) {
+                relatedScopes.add(getMemberScope(supertype, descriptor));
+            }
+        }
+        relatedScopes.removeAll(scopes);
+        String allocatedName = memberNameAllocator.allocate(List.copyOf(scopes), List.copyOf(relatedScopes),
+                newName, pool, available);
+        if (!allocatedName.equals(newName)) {
+            metrics.addCollisionSuffix();
+            for (String ownerClassName : ownerClassNames) {
+                memberCollisions.put(ownerClassName + "." + allocatedName, newName);
+            }
+        }
+        return allocatedName;
+    }
+
+    private void writeRenamedJarIncrementally(ZipArchive archive, File outputFile) throws IOException {
+        IncrementalIndex previousIndex = IncrementalIndex.read(outputFile);
+        IncrementalIndex index = new IncrementalIndex();
+        File tempFile = File.createTempFile(outputFile.getName(), ".tmp", outputFile.getAbsoluteFile().getParentFile());
+        try {
+            try (ZipArchive previousOutput = previousIndex.isEmpty() ? null : ZipArchive.open(outputFile, false)) {
+                writeRenamedJar(archive, tempFile, previousIndex, previousOutput, index);
+            }
+            Files.move(tempFile.toPath(), outputFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempFile.toPath());
+        }
+        index.write(outputFile);
+    }
+
+    private void writeRenamedJar(ZipArchive archive, File outputFile, IncrementalIndex previousIndex,
+                                 ZipArchive previousOutput, IncrementalIndex index) throws IOException {
+        reusedClassCount = 0;
+        boolean completed = false;
+        try (ZipArchiveWriter archiveWriter = new ZipArchiveWriter(outputFile);
+             TransformPipeline pipeline = new TransformPipeline(archiveWriter, parallelism, memoryLimit, progress)) {
+            writeEntries(archive, pipeline, previousIndex, previousOutput, index);
+            pipeline.finish();
+            checkCancelled();
+            completed = true;
+        } finally {
+            if (!completed) {
+                Files.deleteIfExists(outputFile.toPath());
+            }
+        }
+    }
+
+    private void writeNestedJar(ZipArchive archive, OutputStream out) throws IOException {
+        try (ZipArchiveWriter archiveWriter = new ZipArchiveWriter(Channels.newChannel(out));
+             TransformPipeline pipeline = new TransformPipeline(archiveWriter, 1)) {
+            writeEntries(archive, pipeline, null, null, null);
+            pipeline.finish();
+        } finally {
+            archive.releaseInflaters();
+        }
+    }
+
+    private long getNestedJarMemory(ZipArchive archive) {
+        long memory = NESTED_JAR_BUFFER_SIZE;
+        for (ZipArchiveEntry entry : archive.getEntries()) {
+            ZipArchive nestedArchive = nestedArchives.get(new File(archive.getFile(), entry.getName()));
+            memory = Math.max(memory, nestedArchive != null
+                    ? getNestedJarMemory(nestedArchive)
+                    : entry.getSize() + NESTED_JAR_BUFFER_SIZE);
+        }
+        return memory;
+    }
+
+    private void writeEntries(ZipArchive archive, TransformPipeline pipeline, IncrementalIndex previousIndex,
+                              ZipArchive previousOutput, IncrementalIndex index) throws IOException {
+        Set<String> processedEntries = new HashSet<>();
+        for (ZipArchiveEntry entry : archive.getEntries()) {
+            checkCancelled();
+            String entryName = entry.getName();
+            String className = ZipArchive.getClassName(entryName);
+            if (className != null) {
+                String newEntryName = getNewClassEntryName(entryName, className);
+                if (processedEntries.contains(newEntryName)) {
+                    pipeline.skip();
                 } else {
-                    if (!processedEntries.contains(entryName)) {
-                        processedEntries.add(entryName);
-
-                        jarOut.putNextEntry(new JarEntry(entryName));
-                        byte[] buffer = new byte[8192];
-                        int bytesRead;
-                        while ((bytesRead = jarIn.read(buffer)) != -1) {
-                            jarOut.write(buffer, 0, bytesRead);
-                        }
+                    processedEntries.add(newEntryName);
+                    ClassInfo classInfo = getSourceClass(archive, className);
+                    if (newEntryName.equals(entryName) && !needsTransform(classInfo)) {
+                        metrics.addCopiedClass();
+                        pipeline.copy(EncodedEntry.copyOf(archive, entry));
+                    } else {
+                        writeClassEntry(archive, entry, classInfo, newEntryName, pipeline, previousIndex,
+                                previousOutput, index);
                     }
                 }
+            } else if (!isSignatureFile(entryName) && processedEntries.add(getNewResourceName(entryName))) {
+                ZipArchive nestedArchive = nestedArchives.get(new File(archive.getFile(), entryName));
+                if (nestedArchive != null && needsRewrite(nestedArchive)) {
+                    pipeline.submit(() -> EncodedEntry.encode(entryName, entry,
+                            out -> writeNestedJar(nestedArchive, out)), getNestedJarMemory(nestedArchive));
+                } else if (classNameRewriter != null && ClassNameRewriter.isTextResource(entryName)) {
+                    pipeline.submit(() -> rewriteResource(archive, entry), entry.getSize());
+                } else {
+                    pipeline.copy(EncodedEntry.copyOf(archive, entry));
+                }
+            } else {
+                pipeline.skip();
+            }
+        }
+    }
 
-                jarOut.closeEntry();
+    private void writeClassEntry(ZipArchive archive, ZipArchiveEntry entry, ClassInfo classInfo, String newEntryName,
+                                 TransformPipeline pipeline, IncrementalIndex previousIndex, ZipArchive previousOutput,
+                                 IncrementalIndex index) throws IOException {
+        byte[] renameDigest = index != null && classInfo != null ? renameDigest(classInfo) : null;
+        if (renameDigest != null && previousOutput != null
+                && newEntryName.equals(previousIndex.getReusableOutputName(entry, renameDigest))) {
+            ZipArchiveEntry previousEntry = findReusableEntry(archive, entry, previousIndex, previousOutput, index,
+                    renameDigest, newEntryName);
+            if (previousEntry != null) {
+                reusedClassCount++;
+                pipeline.copy(EncodedEntry.copyOf(previousOutput, previousEntry));
+                return;
             }
         }
+        IncrementalIndex entryIndex = renameDigest != null ? index : null;
+        pipeline.submit(() -> EncodedEntry.encode(newEntryName, entry,
+                transformEntry(archive, entry, entryIndex, renameDigest, newEntryName)), entry.getSize());
+    }
 
-        return outputFile;
+    private ZipArchiveEntry findReusableEntry(ZipArchive archive, ZipArchiveEntry entry, IncrementalIndex previousIndex,
+                                             ZipArchive previousOutput, IncrementalIndex index, byte[] renameDigest,
+                                             String outputName) throws IOException {
+        ZipArchiveEntry previousEntry = previousOutput.getEntry(outputName);
+        if (previousEntry == null) {
+            return null;
+        }
+        byte[] content = archive.readEntry(entry);
+        byte[] contentDigest = IncrementalIndex.digest(content, content.length);
+        if (!previousIndex.hasContent(entry, contentDigest)) {
+            return null;
+        }
+        index.put(entry, contentDigest, renameDigest, outputName);
+        return previousEntry;
+    }
+
+    private boolean needsRewrite(ZipArchive archive) throws IOException {
+        for (ZipArchiveEntry entry : archive.getEntries()) {
+            String entryName = entry.getName();
+            String className = ZipArchive.getClassName(entryName);
+            if (className != null) {
+                if (!getNewClassEntryName(entryName, className).equals(entryName)
+                        || needsTransform(getSourceClass(archive, className))) {
+                    return true;
+                }
+            } else if (classNameRewriter != null && ClassNameRewriter.isTextResource(entryName)) {
+                if (isResourceChanged(archive, entry)) {
+                    return true;
+                }
+            } else {
+                ZipArchive nestedArchive = nestedArchives.get(new File(archive.getFile(), entryName));
+                if (nestedArchive != null && needsRewrite(nestedArchive)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private String getNewResourceName(String entryName) {
+        return classNameRewriter != null ? classNameRewriter.rewriteEntryName(entryName) : entryName;
+    }
+
+    private boolean isResourceChanged(ZipArchive archive, ZipArchiveEntry entry) throws IOException {
+        String entryName = entry.getName();
+        if (!getNewResourceName(entryName).equals(entryName)) {
+            return true;
+        }
+        byte[] content = archive.readEntry(entry);
+        return classNameRewriter.rewriteResource(entryName, content, content.length) != null;
+    }
+
+    private EncodedEntry rewriteResource(ZipArchive archive, ZipArchiveEntry entry) throws IOException {
+        String entryName = entry.getName();
+        String newEntryName = getNewResourceName(entryName);
+        byte[] content = archive.readEntry(entry);
+        byte[] rewritten = classNameRewriter.rewriteResource(entryName, content, content.length);
+        if (rewritten != null) {
+            return EncodedEntry.encode(newEntryName, entry, rewritten);
+        }
+        return newEntryName.equals(entryName)
+                ? EncodedEntry.copyOf(archive, entry)
+                : EncodedEntry.encode(newEntryName, entry, content);
+    }
+
+    private String getNewClassEntryName(String entryName, String className) {
+        if (classesToRename != null && !classesToRename.contains(className)) {
+            return entryName;
+        }
+        String newClassName = handleDuplicates ?
+                classToNewName.get(className) :
+                getConsistentNameForClass(className);
+        return newClassName != null
+                ? ZipArchive.getClassRoot(entryName) + newClassName.replace('.', '/') + ".class"
+                : entryName;
+    }
+
+    private ClassInfo getSourceClass(ZipArchive archive, String className) {
+        return archive.getFile().equals(classModel.getSourceFile(className))
+                ? classModel.getClass(className)
+                : null;
     }
 
     private String getConsistentNameForClass(String className) {
         if (consistentRenamingCache.containsKey(className)) {
+            metrics.addCacheHit();
             return consistentRenamingCache.get(className);
         }
 
+        metrics.addCacheMiss();
         String newName = calculateNewName(className, "class");
         consistentRenamingCache.put(className, newName);
         return newName;
     }
 
-    private String getConsistentNameForMethod(String className, String methodName) {
-        String key = className + "." + methodName;
-        if (consistentRenamingCache.containsKey(key)) {
-            return consistentRenamingCache.get(key);
+    private String getConsistentNameForMethod(String methodName) {
+        String newName = methodRenamingCache.get(methodName);
+        if (newName == null) {
+            metrics.addCacheMiss();
+            newName = calculateNewName(methodName, "method");
+            methodRenamingCache.put(methodName, newName);
+        } else {
+            metrics.addCacheHit();
         }
+        return newName;
+    }
 
-        String newName = calculateNewName(methodName, "method");
-        consistentRenamingCache.put(key, newName);
+    private String getConsistentNameForField(String fieldName) {
+        String newName = fieldRenamingCache.get(fieldName);
+        if (newName == null) {
+            metrics.addCacheMiss();
+            newName = calculateNewName(fieldName, "field");
+            fieldRenamingCache.put(fieldName, newName);
+        } else {
+            metrics.addCacheHit();
+        }
         return newName;
     }
 
-    private String getConsistentNameForField(String className, String fieldName) {
-        String key = className + "." + fieldName;
-        if (consistentRenamingCache.containsKey(key)) {
-            return consistentRenamingCache.get(key);
+    private void analyzeClasses(List<ZipArchive> archives) throws IOException {
+        if (classModel == null || archives.size() > 1 || !classModel.isUpToDate(jarFile)) {
+            classModel = ClassModel.load(archives, parallelism);
+        }
+    }
+
+    private void analyzeFieldsAndMethods() {
+        for (ClassInfo classInfo : classModel.getClasses()) {
+            String className = classInfo.getClassName();
+
+            boolean shouldRename = shouldRename(className);
+
+            if (shouldRename) {
+                ClassSymbol symbol = symbolTable.getOrCreate(classInfo.getInternalName());
+                for (MemberInfo field : classInfo.getFields()) {
+                    String fieldName = field.getName();
+                    if (symbol.hasField(fieldName, field.getDescriptor())) {
+                        continue;
+                    }
+                    String newFieldName = mappingSet.getFieldName(classInfo.getInternalName(), fieldName,
+                            field.getDescriptor());
+                    if (newFieldName == null) {
+                        newFieldName = getConsistentNameForField(fieldName);
+                    }
+
+                    symbol.putField(fieldName, field.getDescriptor(),
+                            allocateUniqueFieldName(className, fieldName, field.getDescriptor(), newFieldName));
+                }
+
+                for (MemberInfo method : classInfo.getMethods()) {
+                    String methodName = method.getName();
+                    if (methodName.equals("<init>") || methodName.equals("<clinit>")
+                            || symbol.hasMethod(methodName, method.getDescriptor())) {
+                        continue;
+                    }
+
+                    if (ClassHierarchy.isOverridable(method)) {
+                        assignFamilyName(classHierarchy.getMethodFamily(
+                                classInfo.getInternalName(), methodName, method.getDescriptor()));
+                    } else {
+                        symbol.putMethod(methodName, method.getDescriptor(),
+                                allocateMethodName(List.of(className), methodName, method.getDescriptor(), true));
+                    }
+                }
+            }
+        }
+    }
+
+    private void assignFamilyName(MethodFamily family) {
+        List<String> ownerClassNames = new ArrayList<>();
+        for (String owner : family.getOwners()) {
+            ownerClassNames.add(owner.replace('/', '.'));
         }
 
-        String newName = calculateNewName(fieldName, "field");
-        consistentRenamingCache.put(key, newName);
-        return newName;
+        String newName = isLocked(family)
+                ? family.getName()
+                : allocateMethodName(ownerClassNames, family.getName(), family.getDescriptor(), true);
+        for (String owner : family.getOwners()) {
+            if (classHierarchy.isInJar(owner)) {
+                symbolTable.getOrCreate(owner).putMethod(family.getName(), family.getDescriptor(), newName);
+            }
+        }
+    }
+
+    private boolean isLocked(MethodFamily family) {
+        if (family.isExternal()) {
+            return true;
+        }
+        for (String owner : family.getOwners()) {
+            if (!shouldRename(owner.replace('/', '.'))) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    private void analyzeClasses() throws IOException {
-        try (JarInputStream jarIn = new JarInputStream(new FileInputStream(jarFile))) {
-            JarEntry entry;
-            while ((entry = jarIn.getNextJarEntry()) != null) {
-                String entryName = entry.getName();
+    private void resolveReferencedMembers() {
+        for (ClassInfo classInfo : classModel.getClasses()) {
+            for (MemberReference reference : classInfo.getMemberReferences()) {
+                String owner = reference.getOwner();
+                String name = reference.getName();
+                String descriptor = reference.getDescriptor();
+                if (reference.isField()) {
+                    ClassSymbol symbol = symbolTable.getOrCreate(owner);
+                    if (!symbol.hasField(name, descriptor)) {
+                        symbol.putField(name, descriptor, resolveFieldName(owner, name, descriptor));
+                    }
+                } else if (!name.equals("<init>") && !name.equals("<clinit>")) {
+                    ClassSymbol symbol = symbolTable.getOrCreate(owner);
+                    if (!symbol.hasMethod(name, descriptor)) {
+                        symbol.putMethod(name, descriptor, resolveMethodName(owner, name, descriptor));
+                    }
+                }
+            }
+        }
+    }
 
-                if (entryName.endsWith(".class")) {
-                    String className = entryName.substring(0, entryName.length() - 6).replace('/', '.');
-                    byte[] classBytes = readAllBytes(jarIn);
-                    ClassReader reader = new ClassReader(classBytes);
-                    FieldAnalyzer analyzer = new FieldAnalyzer();
-                    reader.accept(analyzer, 0);
-                    classFields.put(className, analyzer.getFieldNames());
+    private void assignLambdaMethodNames() {
+        for (ClassInfo classInfo : classModel.getClasses()) {
+            if (!classInfo.isInterface() || !shouldRename(classInfo.getClassName())) {
+                continue;
+            }
+            ClassSymbol symbol = symbolTable.getOrCreate(classInfo.getInternalName());
+            List<String> types = new ArrayList<>();
+            types.add(classInfo.getInternalName());
+            types.addAll(classHierarchy.getSupertypes(classInfo.getInternalName()));
+            for (String type : types) {
+                ClassInfo typeInfo = classHierarchy.getClassInfo(type);
+                if (typeInfo == null || !typeInfo.isInterface()) {
+                    continue;
+                }
+                for (MemberInfo method : typeInfo.getMethods()) {
+                    if ((method.getAccess() & Opcodes.ACC_ABSTRACT) == 0) {
+                        continue;
+                    }
+                    ClassSymbol typeSymbol = symbolTable.get(type);
+                    String newName = typeSymbol != null
+                            ? typeSymbol.getMethodName(method.getName(), method.getDescriptor())
+                            : null;
+                    if (newName != null && !newName.equals(method.getName())) {
+                        symbol.putLambdaMethod(method.getName(), newName);
+                    }
                 }
             }
         }
     }
 
-    private void analyzeFieldsAndMethods() throws IOException {
-        try (JarInputStream jarIn = new JarInputStream(new FileInputStream(jarFile))) {
-            JarEntry entry;
-            while ((entry = jarIn.getNextJarEntry()) != null) {
-                String entryName = entry.getName();
+    private String resolveFieldName(String owner, String name, String descriptor) {
+        ClassInfo declaringClass = classHierarchy.findFieldOwner(owner, name, descriptor);
+        if (declaringClass != null) {
+            ClassSymbol symbol = symbolTable.get(declaringClass.getInternalName());
+            String newName = symbol != null ? symbol.getFieldName(name, descriptor) : null;
+            return newName != null ? newName : name;
+        }
+        String ownerClassName = owner.replace('/', '.');
+        if (classHierarchy.isInJar(owner) && shouldRename(ownerClassName)) {
+            return allocateFieldName(ownerClassName, name, descriptor);
+        }
+        return name;
+    }
 
-                if (entryName.endsWith(".class")) {
-                    String className = entryName.substring(0, entryName.length() - 6).replace('/', '.');
+    private String resolveMethodName(String owner, String name, String descriptor) {
+        ClassInfo declaringClass = classHierarchy.findMethodOwner(owner, name, descriptor);
+        if (declaringClass != null) {
+            ClassSymbol symbol = symbolTable.get(declaringClass.getInternalName());
+            String newName = symbol != null ? symbol.getMethodName(name, descriptor) : null;
+            return newName != null ? newName : name;
+        }
+        String ownerClassName = owner.replace('/', '.');
+        if (classHierarchy.isInJar(owner) && shouldRename(ownerClassName)) {
+            return allocateMethodName(List.of(ownerClassName), name, descriptor, handleDuplicates);
+        }
+        return name;
+    }
 
-                    boolean shouldRename = classesToRename == null || classesToRename.contains(className);
+    private boolean shouldRename(String className) {
+        return classesToRename == null || classesToRename.contains(className);
+    }
 
-                    if (shouldRename) {
-                        byte[] classBytes = readAllBytes(jarIn);
-                        ClassReader reader = new ClassReader(classBytes);
-                        MemberAnalyzer analyzer = new MemberAnalyzer(className);
-                        reader.accept(analyzer, 0);
+    private void freezeRenameTables() {
+        classToNewName = Collections.unmodifiableMap(classToNewName);
+        for (ClassInfo classInfo : classModel.getClasses()) {
+            symbolTable.getOrCreate(classInfo.getInternalName());
+        }
+        for (ClassSymbol symbol : symbolTable.getSymbols()) {
+            symbol.setNewInternalName(mapClassName(symbol.getInternalName()));
+        }
+        symbolTable.freeze();
+        if (rewriteStrings) {
+            Map<String, String> renamedClasses = new HashMap<>();
+            for (ClassSymbol symbol : symbolTable.getSymbols()) {
+                if (!symbol.getNewInternalName().equals(symbol.getInternalName())) {
+                    renamedClasses.put(symbol.getInternalName().replace('/', '.'),
+                            symbol.getNewInternalName().replace('/', '.'));
+                }
+            }
+            ClassNameRewriter rewriter = new ClassNameRewriter(renamedClasses);
+            classNameRewriter = rewriter.isEmpty() ? null : rewriter;
+        }
+        renameRemapper = new CustomRemapper();
+        classRewriter = new ClassRewriter(renameRemapper, metrics);
+    }
 
-                        for (String fieldName : analyzer.getFieldNames()) {
-                            String key = className.replace('.', '/') + "." + fieldName;
-                            String newFieldName = getConsistentNameForField(className, fieldName);
+    private synchronized String allocateMethodName(List<String> ownerClassNames, String name, String descriptor,
+                                                   boolean unique) {
+        String newName = null;
+        for (int i = 0; i < ownerClassNames.size() && newName == null; i++) {
+            newName = mappingSet.getMethodName(ownerClassNames.get(i).replace('.', '/'), name, descriptor);
+        }
+        if (newName == null) {
+            newName = getConsistentNameForMethod(name);
+        }
+        if (unique) {
+            Set<String> relatedTypes = getRelatedTypes(ownerClassNames);
+            newName = allocateMemberName(ownerClassNames, descriptor, newName, methodNamePool,
+                    candidate -> isMethodNameAvailable(ownerClassNames, name, candidate)
+                            && !hasFixedMethod(relatedTypes, candidate, descriptor));
+        }
+        return newName;
+    }
 
-                            Set<String> usedNames = usedNamesInClass.get(className);
-                            if (usedNames == null) {
-                                usedNames = new HashSet<>();
-                                usedNamesInClass.put(className, usedNames);
-                            }
+    private Set<String> getRelatedTypes(List<String> ownerClassNames) {
+        Set<String> types = new LinkedHashSet<>();
+        for (String ownerClassName : ownerClassNames) {
+            String owner = ownerClassName.replace('.', '/');
+            types.add(owner);
+            types.addAll(classHierarchy.getSupertypes(owner));
+            types.addAll(classHierarchy.getSubtypes(owner));
+        }
+        return types;
+    }
 
-                            String newClassName = classToNewName.get(className);
-                            if (newClassName != null) {
-                                String simpleClassName = getSimpleClassName(newClassName);
-                                if (newFieldName.equals(simpleClassName)) {
-                                    newFieldName = newFieldName + "_" + generateDeterministicSuffix(fieldName, fieldNameCounters);
-                                }
-                            }
+    private static String getMemberScope(String internalName, String descriptor) {
+        return internalName + ":" + descriptor;
+    }
 
-                            while (usedNames.contains(newFieldName)) {
-                                newFieldName = newFieldName + "_" + generateDeterministicSuffix(fieldName, fieldNameCounters);
-                            }
+    private boolean hasFixedMethod(Set<String> types, String name, String descriptor) {
+        for (String type : types) {
+            if (hasFixedMethod(type, name, descriptor)) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-                            usedNames.add(newFieldName);
-                            fieldMappingGlobal.put(key, newFieldName);
-                        }
+    private boolean hasFixedMethod(String type, String name, String descriptor) {
+        ClassInfo classInfo = classHierarchy.getClassInfo(type);
+        MemberInfo method = classInfo != null ? ClassHierarchy.findMember(classInfo.getMethods(), name, descriptor) : null;
+        if (method == null) {
+            return false;
+        }
+        if (!classHierarchy.isInJar(type) || !shouldRename(classInfo.getClassName())) {
+            return true;
+        }
+        MethodFamily family = ClassHierarchy.isOverridable(method)
+                ? classHierarchy.getMethodFamily(type, name, descriptor)
+                : null;
+        return family != null && isLocked(family);
+    }
 
-                        for (String methodName : analyzer.getMethodNames()) {
-                            if (methodName.equals("<init>") || methodName.equals("<clinit>")) {
-                                continue;
-                            }
-
-                            String key = className.replace('.', '/') + "." + methodName;
-                            String newMethodName = getConsistentNameForMethod(className, methodName);
-
-                            Set<String> usedNames = usedNamesInClass.get(className);
-                            if (usedNames == null) {
-                                usedNames = new HashSet<>();
-                                usedNamesInClass.put(className, usedNames);
-                            }
-
-                            String newClassName = classToNewName.get(className);
-                            if (newClassName != null) {
-                                String simpleClassName = getSimpleClassName(newClassName);
-                                if (newMethodName.equals(simpleClassName)) {
-                                    newMethodName = newMethodName + "_" + generateDeterministicSuffix(methodName, methodNameCounters);
-                                }
-                            }
-
-                            while (usedNames.contains(newMethodName)) {
-                                newMethodName = newMethodName + "_" + generateDeterministicSuffix(methodName, methodNameCounters);
-                            }
-
-                            usedNames.add(newMethodName);
-                            methodMappingGlobal.put(key, newMethodName);
-                        }
-                    }
+    private boolean isMethodNameAvailable(List<String> ownerClassNames, String name, String newName) {
+        for (String ownerClassName : ownerClassNames) {
+            String ownerNewClassName = classToNewName.get(ownerClassName);
+            if (ownerNewClassName != null && newName.equals(getSimpleClassName(ownerNewClassName))) {
+                return false;
+            }
+            if (memberNameAllocator.isUsed(ownerClassName, newName)) {
+                ClassSymbol symbol = symbolTable.get(ownerClassName.replace('.', '/'));
+                if (symbol == null || !symbol.isMethodRenamedTo(name, newName)) {
+                    return false;
                 }
             }
-        } catch (IOException e) {
-            throw new IOException("Error analyzing fields and methods: " + e.getMessage(), e);
         }
+        return true;
+    }
+
+    private synchronized String allocateFieldName(String ownerClassName, String name, String descriptor) {
+        String newName = mappingSet.getFieldName(ownerClassName.replace('.', '/'), name, descriptor);
+        if (newName == null) {
+            newName = getConsistentNameForField(name);
+        }
+        if (handleDuplicates) {
+            newName = allocateUniqueFieldName(ownerClassName, name, descriptor, newName);
+        }
+        return newName;
+    }
+
+    private String allocateUniqueFieldName(String ownerClassName, String name, String descriptor, String newName) {
+        Set<String> relatedTypes = getRelatedTypes(List.of(ownerClassName));
+        return allocateMemberName(List.of(ownerClassName), descriptor, newName, fieldNamePool,
+                candidate -> isFieldNameAvailable(ownerClassName, name, candidate)
+                        && !hasFixedField(relatedTypes, candidate, descriptor));
     }
 
-    private byte[] transformClass(byte[] classBytes, String className) {
-        ClassReader reader = new ClassReader(classBytes);
-        ClassWriter writer = new ClassWriter(reader, ClassWriter.COMPUTE_MAXS);
+    private boolean hasFixedField(Set<String> types, String name, String descriptor) {
+        for (String type : types) {
+            ClassInfo classInfo = classHierarchy.getClassInfo(type);
+            if (classInfo != null && (!classHierarchy.isInJar(type) || !shouldRename(classInfo.getClassName()))
+                    && ClassHierarchy.findMember(classInfo.getFields(), name, descriptor) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-        ClassRemapper remapper = new ClassRemapper(writer, new CustomRemapper());
-        reader.accept(remapper, ClassReader.EXPAND_FRAMES);
+    private boolean isFieldNameAvailable(String ownerClassName, String name, String newName) {
+        String ownerNewClassName = classToNewName.get(ownerClassName);
+        if (ownerNewClassName != null && newName.equals(getSimpleClassName(ownerNewClassName))) {
+            return false;
+        }
+        if (memberNameAllocator.isUsed(ownerClassName, newName)) {
+            ClassSymbol symbol = symbolTable.get(ownerClassName.replace('.', '/'));
+            return symbol != null && symbol.isFieldRenamedTo(name, newName);
+        }
+        return true;
+    }
 
-        return writer.toByteArray();
+    private boolean needsTransform(ClassInfo classInfo) {
+        if (classInfo == null) {
+            return true;
+        }
+        String internalName = classInfo.getInternalName();
+        if (!renameRemapper.map(internalName).equals(internalName)) {
+            return true;
+        }
+        for (String type : classInfo.getReferencedTypes()) {
+            if (!renameRemapper.map(type).equals(type)) {
+                return true;
+            }
+        }
+        for (MemberInfo field : classInfo.getFields()) {
+            if (!renameRemapper.mapFieldName(internalName, field.getName(), field.getDescriptor()).equals(field.getName())) {
+                return true;
+            }
+        }
+        for (MemberInfo method : classInfo.getMethods()) {
+            if (!renameRemapper.mapMethodName(internalName, method.getName(), method.getDescriptor()).equals(method.getName())) {
+                return true;
+            }
+        }
+        for (MemberReference reference : classInfo.getMemberReferences()) {
+            String mapped = reference.isField()
+                    ? renameRemapper.mapFieldName(reference.getOwner(), reference.getName(), reference.getDescriptor())
+                    : renameRemapper.mapMethodName(reference.getOwner(), reference.getName(), reference.getDescriptor());
+            if (!mapped.equals(reference.getName())) {
+                return true;
+            }
+        }
+        for (MemberInfo callSite : classInfo.getDynamicCallSites()) {
+            if (!renameRemapper.mapInvokeDynamicMethodName(callSite.getName(), callSite.getDescriptor())
+                    .equals(callSite.getName())) {
+                return true;
+            }
+        }
+        if (classNameRewriter != null) {
+            for (String value : classInfo.getStringConstants()) {
+                if (!classNameRewriter.rewrite(value).equals(value)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private byte[] renameDigest(ClassInfo classInfo) throws IOException {
+        MessageDigest digest = IncrementalIndex.newDigest();
+        String internalName = classInfo.getInternalName();
+        updateDigest(digest, renameRemapper.map(internalName));
+        for (String type : classInfo.getReferencedTypes()) {
+            updateDigest(digest, renameRemapper.map(type));
+        }
+        for (MemberInfo field : classInfo.getFields()) {
+            updateDigest(digest, renameRemapper.mapFieldName(internalName, field.getName(), field.getDescriptor()));
+        }
+        for (MemberInfo method : classInfo.getMethods()) {
+            updateDigest(digest, renameRemapper.mapMethodName(internalName, method.getName(), method.getDescriptor()));
+        }
+        for (MemberReference reference : classInfo.getMemberReferences()) {
+            updateDigest(digest, reference.isField()
+                    ? renameRemapper.mapFieldName(reference.getOwner(), reference.getName(), reference.getDescriptor())
+                    : renameRemapper.mapMethodName(reference.getOwner(), reference.getName(), reference.getDescriptor()));
+        }
+        for (MemberInfo callSite : classInfo.getDynamicCallSites()) {
+            updateDigest(digest, renameRemapper.mapInvokeDynamicMethodName(callSite.getName(), callSite.getDescriptor()));
+        }
+        for (String value : classInfo.getStringConstants()) {
+            updateDigest(digest, (String) renameRemapper.mapValue(value));
+        }
+        return digest.digest();
+    }
+
+    private static void updateDigest(MessageDigest digest, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update(new byte[]{(byte) (bytes.length >>> 24), (byte) (bytes.length >>> 16),
+                (byte) (bytes.length >>> 8), (byte) bytes.length});
+        digest.update(bytes);
+    }
+
+    private static boolean isSignatureFile(String entryName) {
+        if (!entryName.startsWith("META-INF/") || entryName.indexOf('/', 9) != -1) {
+            return false;
+        }
+        String name = entryName.substring(9).toUpperCase(Locale.ROOT);
+        return name.endsWith(".SF") || name.endsWith(".RSA") || name.endsWith(".DSA")
+                || name.endsWith(".EC") || name.startsWith("SIG-");
+    }
+
+    byte[] transformClass(byte[] classBytes, String className) {
+        return classRewriter.rewrite(classBytes, classBytes.length);
+    }
+
+    private byte[] transformEntry(ZipArchive archive, ZipArchiveEntry entry, IncrementalIndex index,
+                                  byte[] renameDigest, String outputName) throws IOException {
+        long start = System.nanoTime();
+        byte[] buffer = ClassBufferPool.get(entry.getSize());
+        int length = archive.readEntry(entry, buffer);
+        if (index != null) {
+            index.put(entry, IncrementalIndex.digest(buffer, length), renameDigest, outputName);
+        }
+        byte[] result = classRewriter.rewrite(buffer, length);
+        metrics.addTransformTime(System.nanoTime() - start);
+        return result;
     }
 
     private String calculateNewName(String originalName, String type) {
@@ -365,11 +1216,17 @@ public class JarRenamerService {
             }
             return originalName;
         }
-        if (originalName.startsWith("java.") || originalName.startsWith("javax.") || originalName.startsWith("android.")) {
+        if (isReservedName(originalName)) {
             return originalName;
         }
-        if (mappings.containsKey(originalName)) {
-            return mappings.get(originalName);
+        String mappedName = type.equals("class")
+                ? mappingSet.getClassName(originalName)
+                : mappingSet.getName(originalName);
+        if (mappedName != null) {
+            return mappedName;
+        }
+        if (renameRules != null) {
+            return renameRules.apply(type, originalName);
         }
         if (isPrefixMode) {
             if (type.equals("class")) {
@@ -385,67 +1242,26 @@ public class JarRenamerService {
                 return prefix + originalName;
             }
         }
-        else if (isReplaceMode && originalName.contains(textToReplace)) {
-            return originalName.replace(textToReplace, replacementText);
+        else if (isReplaceMode) {
+            return replacementRules.apply(originalName);
         }
         return originalName;
     }
 
-    private Map<String, String> loadMappingsFromFile(File file) throws IOException {
-        return parseMappingContent(Files.readString(file.toPath()));
-    }
-
-    private Map<String, String> loadMappingsFromUrl(String urlString) throws IOException {
-        try (InputStream is = new URL(urlString).openStream();
-             BufferedReader reader = new BufferedReader(new InputStreamReader(is))) {
-
-            StringBuilder content = new StringBuilder();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                content.append(line).append("\n");
-            }
-
-            return parseMappingContent(content.toString());
-        }
+    private MappingSet loadMappingsFromFile(File file) throws IOException {
+        return timePhase("mapping-load", () -> MappingCache.load(file, metrics));
     }
 
-    private Map<String, String> parseMappingContent(String content) {
-        Map<String, String> result = new HashMap<>();
-
-        String[] lines = content.split("\n");
-        for (String line : lines) {
-            line = line.trim();
-            if (line.isEmpty() || line.startsWith("#")) {
-                continue;
-            }
-
-            String[] parts = line.split("->");
-            if (parts.length == 2) {
-                String originalName = parts[0].trim();
-                String newName = parts[1].trim();
-                result.put(originalName, newName);
+    private MappingSet loadMappingsFromUrl(String urlString) throws IOException {
+        return timePhase("mapping-load", () -> {
+            try (ReadableByteChannel channel = Channels.newChannel(new URL(urlString).openStream())) {
+                return MappingReader.read(channel);
             }
-        }
-
-        return result;
+        });
     }
 
-    private byte[] readAllBytes(InputStream is) throws IOException {
-        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
-        int bytesRead;
-        byte[] data = new byte[4096];
-
-        while ((bytesRead = is.read(data, 0, data.length)) != -1) {
-            buffer.write(data, 0, bytesRead);
-        }
-
-        return buffer.toByteArray();
-    }
-
-    private String generateDeterministicSuffix(String originalName, Map<String, Integer> counters) {
-        Integer counter = counters.getOrDefault(originalName, 0);
-        counters.put(originalName, counter + 1);
-        return String.valueOf(counter);
+    private MappingSet parseMappingContent(String content) throws IOException {
+        return timePhase("mapping-load", () -> MappingReader.read(new StringReader(content)));
     }
 
     private String getSimpleClassName(String fullClassName) {
@@ -453,156 +1269,122 @@ public class JarRenamerService {
         return lastDot != -1 ? fullClassName.substring(lastDot + 1) : fullClassName;
     }
 
-    private static class FieldAnalyzer extends ClassVisitor {
-        private final Set<String> fieldNames = new HashSet<>();
-
-        public FieldAnalyzer() {
-            super(Opcodes.ASM9);
-        }
-
-        @Override
-        public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
-            super.visit(version, access, name, signature, superName, interfaces);
-        }
-
-        @Override
-        public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value) {
-            fieldNames.add(name);
-            return super.visitField(access, name, descriptor, signature, value);
-        }
-
-        public Set<String> getFieldNames() {
-            return fieldNames;
-        }
+    private String getPackageName(String fullClassName) {
+        int lastDot = fullClassName.lastIndexOf('.');
+        return lastDot != -1 ? fullClassName.substring(0, lastDot) : "";
     }
 
-    private static class MemberAnalyzer extends ClassVisitor {
-        private final Set<String> fieldNames = new HashSet<>();
-        private final Set<String> methodNames = new HashSet<>();
-        private final String className;
-
-        public MemberAnalyzer(String className) {
-            super(Opcodes.ASM9);
-            this.className = className;
-        }
-
-        @Override
-        public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value) {
-            fieldNames.add(name);
-            return super.visitField(access, name, descriptor, signature, value);
+    private String mapClassName(String internalName) {
+        if (!classHierarchy.isInJar(internalName)) {
+            return internalName;
         }
-
-        @Override
-        public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
-            methodNames.add(name);
-            return super.visitMethod(access, name, descriptor, signature, exceptions);
-        }
-
-        public Set<String> getFieldNames() {
-            return fieldNames;
+        String className = internalName.replace('/', '.');
+        String newClassName;
+        if (handleDuplicates) {
+            newClassName = classToNewName.get(className);
+            if (newClassName == null) {
+                if (classesToRename == null || classesToRename.contains(className)) {
+                    newClassName = getConsistentNameForClass(className);
+                } else {
+                    newClassName = className;
+                }
+            }
+        } else {
+            if (classesToRename == null || classesToRename.contains(className)) {
+                newClassName = getConsistentNameForClass(className);
+            } else {
+                newClassName = className;
+            }
         }
-
-        public Set<String> getMethodNames() {
-            return methodNames;
+        if (newClassName == null || newClassName.equals(className)) {
+            return internalName;
         }
+        return newClassName.replace('.', '/');
     }
 
     private class CustomRemapper extends Remapper {
-        private final Map<String, String> fieldMappings = new HashMap<>();
-        private final Map<String, String> methodMappings = new HashMap<>();
-
-        public CustomRemapper() {
-            fieldMappings.putAll(fieldMappingGlobal);
-            methodMappings.putAll(methodMappingGlobal);
-        }
+        private final Map<String, String> lateClassNames = new ConcurrentHashMap<>();
+        private final Map<String, String> lateFieldMappings = new ConcurrentHashMap<>();
+        private final Map<String, String> lateMethodMappings = new ConcurrentHashMap<>();
 
         @Override
         public String map(String internalName) {
-            String className = internalName.replace('/', '.');
-            String newClassName;
-            if (handleDuplicates) {
-                newClassName = classToNewName.get(className);
-                if (newClassName == null) {
-                    if (classesToRename == null || classesToRename.contains(className)) {
-                        newClassName = getConsistentNameForClass(className);
-                    } else {
-                        newClassName = className;
-                    }
-                }
-            } else {
-                if (classesToRename == null || classesToRename.contains(className)) {
-                    newClassName = getConsistentNameForClass(className);
-                } else {
-                    newClassName = className;
-                }
+            ClassSymbol symbol = symbolTable.get(internalName);
+            if (symbol != null) {
+                return symbol.getNewInternalName();
+            }
+            String mapped = lateClassNames.get(internalName);
+            if (mapped == null) {
+                mapped = lateClassNames.computeIfAbsent(internalName, JarRenamerService.this::mapClassName);
             }
-            return newClassName != null ? newClassName.replace('.', '/') : internalName;
+            return mapped;
         }
 
         @Override
         public String mapMethodName(String owner, String name, String descriptor) {
-            if (name.equals("<init>") || name.equals("<clinit>")) {
+            if (name.equals("<init>") || name.equals("<clinit>") || owner.charAt(0) == '[') {
                 return name;
             }
 
-            String key = owner + "." + name;
-            if (methodMappings.containsKey(key)) {
-                return methodMappings.get(key);
+            ClassSymbol symbol = symbolTable.get(owner);
+            if (symbol != null) {
+                String mapped = symbol.getMethodName(name, descriptor);
+                if (mapped != null) {
+                    return mapped;
+                }
             }
 
-            String ownerClassName = owner.replace('/', '.');
-            if (classesToRename == null || classesToRename.contains(ownerClassName)) {
-                String newName = getConsistentNameForMethod(ownerClassName, name);
-                if (handleDuplicates) {
-                    Set<String> usedNames = usedNamesInClass.computeIfAbsent(ownerClassName, k -> new HashSet<>());
-                    String ownerNewClassName = classToNewName.get(ownerClassName);
-                    if (ownerNewClassName != null) {
-                        String simpleClassName = getSimpleClassName(ownerNewClassName);
-                        if (newName.equals(simpleClassName)) {
-                            newName = newName + "_" + generateDeterministicSuffix(name, methodNameCounters);
-                        }
-                    }
-                    while (usedNames.contains(newName)) {
-                        newName = newName + "_" + generateDeterministicSuffix(name, methodNameCounters);
-                    }
+            return lateMethodMappings.computeIfAbsent(owner + "." + name + descriptor,
+                    k -> resolveMethodName(owner, name, descriptor));
+        }
 
-                    usedNames.add(newName);
+        @Override
+        public String mapInvokeDynamicMethodName(String name, String descriptor) {
+            int returnType = descriptor.lastIndexOf(')') + 1;
+            if (descriptor.charAt(returnType) == 'L') {
+                ClassSymbol symbol = symbolTable.get(descriptor.substring(returnType + 1, descriptor.length() - 1));
+                if (symbol != null) {
+                    String mapped = symbol.getLambdaMethodName(name);
+                    if (mapped != null) {
+                        return mapped;
+                    }
                 }
-                methodMappings.put(key, newName);
-                return newName;
             }
             return name;
         }
 
+        @Override
+        public Object mapValue(Object value) {
+            if (value instanceof String && classNameRewriter != null) {
+                return classNameRewriter.rewrite((String) value);
+            }
+            return super.mapValue(value);
+        }
+
         @Override
         public String mapFieldName(String owner, String name, String descriptor) {
-            String key = owner + "." + name;
-            if (fieldMappings.containsKey(key)) {
-                return fieldMappings.get(key);
-            }
-
-            String ownerClassName = owner.replace('/', '.');
-            if (classesToRename == null || classesToRename.contains(ownerClassName)) {
-                String newName = getConsistentNameForField(ownerClassName, name);
-                if (handleDuplicates) {
-                    Set<String> usedNames = usedNamesInClass.computeIfAbsent(ownerClassName, k -> new HashSet<>());
-                    String ownerNewClassName = classToNewName.get(ownerClassName);
-                    if (ownerNewClassName != null) {
-                        String simpleClassName = getSimpleClassName(ownerNewClassName);
-                        if (newName.equals(simpleClassName)) {
-                            newName = newName + "_" + generateDeterministicSuffix(name, fieldNameCounters);
-                        }
-                    }
-                    while (usedNames.contains(newName)) {
-                        newName = newName + "_" + generateDeterministicSuffix(name, fieldNameCounters);
-                    }
+            if (owner.charAt(0) == '[') {
+                return name;
+            }
 
-                    usedNames.add(newName);
+            ClassSymbol symbol = symbolTable.get(owner);
+            if (symbol != null) {
+                String mapped = symbol.getFieldName(name, descriptor);
+                if (mapped != null) {
+                    return mapped;
                 }
-                fieldMappings.put(key, newName);
-                return newName;
             }
-            return name;
+
+            return lateFieldMappings.computeIfAbsent(owner + "." + name + ":" + descriptor,
+                    k -> resolveFieldName(owner, name, descriptor));
         }
     }
-}
\ No newline at end of file
+
+    private interface IOCallable<T> {
+        T call() throws IOException;
+    }
+
+    private interface IORunnable {
+        void run() throws IOException;
+    }
+}
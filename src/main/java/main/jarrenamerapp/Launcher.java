@@ -2,6 +2,10 @@ package main.jarrenamerapp;
 
 public class Launcher {
     public static void main(String[] args) {
-        JarRenamerApp.main(args);
+        if (args.length > 0) {
+            JarRenamerCli.main(args);
+        } else {
+            JarRenamerApp.main(args);
+        }
     }
 }
@@ -0,0 +1,78 @@
+package main.jarrenamerapp;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+final class MappingCache {
+    private MappingCache() {
+    }
+
+    static MappingSet load(File mappingFile, RenameMetrics metrics) throws IOException {
+        Path directory = getCacheDirectory();
+        String hash = hash(mappingFile.toPath());
+        Path cacheFile = directory.resolve(hash + ".bin");
+        if (Files.isRegularFile(cacheFile)) {
+            try {
+                CompiledMappingSet mappingSet = CompiledMappingSet.open(cacheFile);
+                metrics.addMappingCacheHit();
+                return mappingSet;
+            } catch (IOException e) {
+                metrics.addMappingCacheError();
+            }
+        }
+        metrics.addMappingCacheMiss();
+
+        IndexedMappingSet mappingSet;
+        try (FileChannel channel = FileChannel.open(mappingFile.toPath(), StandardOpenOption.READ)) {
+            mappingSet = MappingReader.read(channel);
+        }
+        try {
+            Files.createDirectories(directory);
+            Path tempFile = Files.createTempFile(directory, hash, ".tmp");
+            try {
+                CompiledMappingSet.write(mappingSet, tempFile);
+                Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        } catch (IOException e) {
+            metrics.addMappingCacheError();
+        }
+        return mappingSet;
+    }
+
+    static Path getCacheDirectory() {
+        String directory = System.getProperty("jarrenamer.cache.dir");
+        return directory != null
+                ? Paths.get(directory)
+                : Paths.get(System.getProperty("user.home"), ".jarrenamer", "mappings");
+    }
+
+    private static String hash(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
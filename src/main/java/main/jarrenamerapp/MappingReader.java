@@ -0,0 +1,292 @@
+package main.jarrenamerapp;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+final class MappingReader {
+    private final BufferedReader reader;
+    private final IndexedMappingSet mappingSet = new IndexedMappingSet();
+
+    private MappingReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader, 1 << 16);
+    }
+
+    static IndexedMappingSet read(ReadableByteChannel channel) throws IOException {
+        return read(Channels.newReader(channel, StandardCharsets.UTF_8));
+    }
+
+    static IndexedMappingSet read(Reader reader) throws IOException {
+        return new MappingReader(reader).read();
+    }
+
+    private IndexedMappingSet read() throws IOException {
+        String line = reader.readLine();
+        while (line != null && (line.isBlank() || line.trim().startsWith("#"))) {
+            line = reader.readLine();
+        }
+        if (line == null) {
+            return mappingSet;
+        }
+        if (line.startsWith("tiny\t2\t")) {
+            readTinyV2(line);
+        } else if (line.startsWith("v1\t")) {
+            readTinyV1();
+        } else if (line.startsWith("tsrg2 ")) {
+            readTsrg(line.split(" ").length - 1, null);
+        } else if (line.startsWith("PK: ") || line.startsWith("CL: ") || line.startsWith("FD: ") || line.startsWith("MD: ")) {
+            readSrg(line);
+        } else if (line.trim().endsWith(":") && line.contains(" -> ")) {
+            readProGuard(line);
+        } else if (!line.contains("->") && line.indexOf('\t') == -1 && line.split(" ").length == 2) {
+            readTsrg(2, line);
+        } else {
+            readLegacy(line);
+        }
+        return mappingSet;
+    }
+
+    private void readLegacy(String line) throws IOException {
+        for (; line != null; line = reader.readLine()) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split("->");
+            if (parts.length == 2) {
+                mappingSet.putName(parts[0].trim(), parts[1].trim());
+            }
+        }
+    }
+
+    private void readProGuard(String line) throws IOException {
+        Map<String, String> obfuscatedClassNames = new HashMap<>();
+        BitSet descriptorIds = new BitSet();
+        String owner = null;
+        for (; line != null; line = reader.readLine()) {
+            if (line.isBlank() || line.trim().startsWith("#")) {
+                continue;
+            }
+            int arrow = line.lastIndexOf(" -> ");
+            if (arrow == -1) {
+                continue;
+            }
+            if (!Character.isWhitespace(line.charAt(0))) {
+                String className = line.substring(0, arrow).trim();
+                String newName = line.substring(arrow + 4).trim();
+                if (newName.endsWith(":")) {
+                    newName = newName.substring(0, newName.length() - 1);
+                }
+                owner = newName.replace('.', '/');
+                obfuscatedClassNames.put(className.replace('.', '/'), owner);
+                mappingSet.putClass(newName, className);
+                continue;
+            }
+            if (owner == null) {
+                continue;
+            }
+            String member = stripLineNumbers(line.substring(0, arrow).trim());
+            String obfuscatedName = line.substring(arrow + 4).trim();
+            int space = member.indexOf(' ');
+            if (space == -1) {
+                continue;
+            }
+            String type = toDescriptor(member.substring(0, space));
+            String signature = member.substring(space + 1).trim();
+            int paren = signature.indexOf('(');
+            if (paren == -1) {
+                descriptorIds.set(mappingSet.intern(type));
+                mappingSet.putField(owner, obfuscatedName, type, signature);
+                continue;
+            }
+            String name = signature.substring(0, paren);
+            if (name.indexOf('.') != -1) {
+                continue;
+            }
+            StringBuilder descriptor = new StringBuilder("(");
+            String parameters = signature.substring(paren + 1, signature.indexOf(')', paren));
+            if (!parameters.isEmpty()) {
+                for (String parameter : parameters.split(",")) {
+                    descriptor.append(toDescriptor(parameter.trim()));
+                }
+            }
+            String methodDescriptor = descriptor.append(')').append(type).toString();
+            descriptorIds.set(mappingSet.intern(methodDescriptor));
+            mappingSet.putMethod(owner, obfuscatedName, methodDescriptor, name);
+        }
+
+        int[] remapped = new int[mappingSet.getStringCount()];
+        for (int id = 0; id < remapped.length; id++) {
+            remapped[id] = id;
+        }
+        for (int id = descriptorIds.nextSetBit(0); id >= 0; id = descriptorIds.nextSetBit(id + 1)) {
+            remapped[id] = mappingSet.intern(remapDescriptor(mappingSet.getString(id), obfuscatedClassNames));
+        }
+        mappingSet.remapMemberDescriptors(remapped);
+    }
+
+    private void readTinyV2(String header) throws IOException {
+        int target = header.split("\t").length - 4;
+        String owner = null;
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            int depth = 0;
+            while (depth < line.length() && line.charAt(depth) == '\t') {
+                depth++;
+            }
+            String[] parts = line.substring(depth).split("\t", -1);
+            if (depth == 0 && parts[0].equals("c") && parts.length > target + 1) {
+                owner = parts[1];
+                if (!parts[target + 1].isEmpty()) {
+                    mappingSet.putClass(owner.replace('/', '.'), parts[target + 1].replace('/', '.'));
+                }
+            } else if (depth == 1 && owner != null && parts.length > target + 2 && !parts[target + 2].isEmpty()) {
+                if (parts[0].equals("f")) {
+                    mappingSet.putField(owner, parts[2], parts[1], parts[target + 2]);
+                } else if (parts[0].equals("m")) {
+                    mappingSet.putMethod(owner, parts[2], parts[1], parts[target + 2]);
+                }
+            }
+        }
+    }
+
+    private void readTinyV1() throws IOException {
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            String[] parts = line.split("\t");
+            if (parts[0].equals("CLASS") && parts.length >= 3) {
+                mappingSet.putClass(parts[1].replace('/', '.'), parts[parts.length - 1].replace('/', '.'));
+            } else if (parts[0].equals("FIELD") && parts.length >= 5) {
+                mappingSet.putField(parts[1], parts[3], parts[2], parts[parts.length - 1]);
+            } else if (parts[0].equals("METHOD") && parts.length >= 5) {
+                mappingSet.putMethod(parts[1], parts[3], parts[2], parts[parts.length - 1]);
+            }
+        }
+    }
+
+    private void readSrg(String line) throws IOException {
+        for (; line != null; line = reader.readLine()) {
+            String[] parts = line.trim().split(" ");
+            switch (parts[0]) {
+                case "CL:":
+                    if (parts.length >= 3) {
+                        mappingSet.putClass(parts[1].replace('/', '.'), parts[2].replace('/', '.'));
+                    }
+                    break;
+                case "FD:":
+                    if (parts.length == 3) {
+                        putSrgMember(false, parts[1], null, parts[2]);
+                    } else if (parts.length >= 5) {
+                        putSrgMember(false, parts[1], parts[2], parts[3]);
+                    }
+                    break;
+                case "MD:":
+                    if (parts.length >= 5) {
+                        putSrgMember(true, parts[1], parts[2], parts[3]);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private void putSrgMember(boolean method, String source, String descriptor, String target) {
+        int sourceSlash = source.lastIndexOf('/');
+        if (sourceSlash == -1) {
+            return;
+        }
+        String owner = source.substring(0, sourceSlash);
+        String name = source.substring(sourceSlash + 1);
+        String newName = target.substring(target.lastIndexOf('/') + 1);
+        if (method) {
+            mappingSet.putMethod(owner, name, descriptor, newName);
+        } else {
+            mappingSet.putField(owner, name, descriptor, newName);
+        }
+    }
+
+    private void readTsrg(int namespaceCount, String line) throws IOException {
+        String owner = null;
+        if (line == null) {
+            line = reader.readLine();
+        }
+        for (; line != null; line = reader.readLine()) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            int depth = 0;
+            while (depth < line.length() && line.charAt(depth) == '\t') {
+                depth++;
+            }
+            String[] parts = line.substring(depth).split(" ");
+            if (depth == 0 && parts.length >= 2) {
+                owner = parts[0];
+                mappingSet.putClass(owner.replace('/', '.'), parts[1].replace('/', '.'));
+            } else if (depth == 1 && owner != null && parts.length >= 2) {
+                if (parts[1].startsWith("(")) {
+                    if (parts.length >= 3) {
+                        mappingSet.putMethod(owner, parts[0], parts[1], parts[2]);
+                    }
+                } else if (parts.length > namespaceCount) {
+                    mappingSet.putField(owner, parts[0], parts[1], parts[2]);
+                } else {
+                    mappingSet.putField(owner, parts[0], null, parts[1]);
+                }
+            }
+        }
+    }
+
+    private static String stripLineNumbers(String member) {
+        int start = 0;
+        while (start < member.length() && (Character.isDigit(member.charAt(start)) || member.charAt(start) == ':')) {
+            start++;
+        }
+        int end = member.lastIndexOf(')');
+        return end != -1 ? member.substring(start, end + 1) : member.substring(start);
+    }
+
+    static String toDescriptor(String type) {
+        int dimensions = 0;
+        while (type.endsWith("[]")) {
+            type = type.substring(0, type.length() - 2);
+            dimensions++;
+        }
+        String descriptor;
+        switch (type) {
+            case "boolean": descriptor = "Z"; break;
+            case "byte": descriptor = "B"; break;
+            case "char": descriptor = "C"; break;
+            case "short": descriptor = "S"; break;
+            case "int": descriptor = "I"; break;
+            case "long": descriptor = "J"; break;
+            case "float": descriptor = "F"; break;
+            case "double": descriptor = "D"; break;
+            case "void": descriptor = "V"; break;
+            default: descriptor = "L" + type.replace('.', '/') + ";";
+        }
+        return "[".repeat(dimensions) + descriptor;
+    }
+
+    private static String remapDescriptor(String descriptor, Map<String, String> classNames) {
+        if (descriptor.indexOf('L') == -1) {
+            return descriptor;
+        }
+        StringBuilder result = new StringBuilder(descriptor.length());
+        for (int i = 0; i < descriptor.length(); i++) {
+            char c = descriptor.charAt(i);
+            result.append(c);
+            if (c == 'L') {
+                int end = descriptor.indexOf(';', i);
+                String className = descriptor.substring(i + 1, end);
+                result.append(classNames.getOrDefault(className, className)).append(';');
+                i = end;
+            }
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,35 @@
+package main.jarrenamerapp;
+
+import java.util.Map;
+
+public abstract class MappingSet {
+    static final int ANY = -1;
+
+    public static MappingSet empty() {
+        return new IndexedMappingSet();
+    }
+
+    public static MappingSet fromNames(Map<String, String> mappings) {
+        IndexedMappingSet mappingSet = new IndexedMappingSet();
+        if (mappings != null) {
+            mappings.forEach(mappingSet::putName);
+        }
+        return mappingSet;
+    }
+
+    public abstract boolean isEmpty();
+
+    public abstract int getClassCount();
+
+    public abstract int getFieldCount();
+
+    public abstract int getMethodCount();
+
+    public abstract String getClassName(String className);
+
+    public abstract String getName(String name);
+
+    public abstract String getFieldName(String owner, String name, String descriptor);
+
+    public abstract String getMethodName(String owner, String name, String descriptor);
+}
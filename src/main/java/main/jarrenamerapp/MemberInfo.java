@@ -0,0 +1,25 @@
+package main.jarrenamerapp;
+
+public class MemberInfo {
+    private final String name;
+    private final String descriptor;
+    private final int access;
+
+    public MemberInfo(String name, String descriptor, int access) {
+        this.name = name;
+        this.descriptor = descriptor;
+        this.access = access;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescriptor() {
+        return descriptor;
+    }
+
+    public int getAccess() {
+        return access;
+    }
+}
@@ -0,0 +1,31 @@
+package main.jarrenamerapp;
+
+public class MemberReference {
+    private final String owner;
+    private final String name;
+    private final String descriptor;
+    private final boolean field;
+
+    public MemberReference(String owner, String name, String descriptor, boolean field) {
+        this.owner = owner;
+        this.name = name;
+        this.descriptor = descriptor;
+        this.field = field;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescriptor() {
+        return descriptor;
+    }
+
+    public boolean isField() {
+        return field;
+    }
+}
@@ -0,0 +1,71 @@
+package main.jarrenamerapp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class MethodFamily {
+    private final String name;
+    private final String descriptor;
+    private final List<String> owners = new ArrayList<>();
+    private boolean external;
+    private MethodFamily parent = this;
+
+    MethodFamily(String name, String descriptor) {
+        this.name = name;
+        this.descriptor = descriptor;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescriptor() {
+        return descriptor;
+    }
+
+    public List<String> getOwners() {
+        return Collections.unmodifiableList(owners);
+    }
+
+    public boolean isExternal() {
+        return external;
+    }
+
+    void addOwner(String owner, boolean external) {
+        owners.add(owner);
+        this.external |= external;
+    }
+
+    MethodFamily find() {
+        MethodFamily root = this;
+        while (root.parent != root) {
+            root = root.parent;
+        }
+        MethodFamily current = this;
+        while (current.parent != root) {
+            MethodFamily next = current.parent;
+            current.parent = root;
+            current = next;
+        }
+        return root;
+    }
+
+    MethodFamily union(MethodFamily other) {
+        MethodFamily root = find();
+        MethodFamily otherRoot = other.find();
+        if (root == otherRoot) {
+            return root;
+        }
+        if (root.owners.size() < otherRoot.owners.size()) {
+            MethodFamily swap = root;
+            root = otherRoot;
+            otherRoot = swap;
+        }
+        otherRoot.parent = root;
+        root.owners.addAll(otherRoot.owners);
+        root.external |= otherRoot.external;
+        otherRoot.owners.clear();
+        return root;
+    }
+}
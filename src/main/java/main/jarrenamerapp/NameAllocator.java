@@ -0,0 +1,167 @@
+package main.jarrenamerapp;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+final class NameAllocator {
+    private final List<NamePool> pools = new ArrayList<>();
+    private final Map<String, Set<String>> usedNames = new HashMap<>();
+    private final Map<String, Map<String, Integer>> suffixCounters = new HashMap<>();
+
+    NamePool addPool(List<String> names) {
+        if (names == null || names.isEmpty()) {
+            return null;
+        }
+        NamePool pool = new NamePool(names);
+        pools.add(pool);
+        return pool;
+    }
+
+    boolean isUsed(String scope, String name) {
+        Set<String> names = usedNames.get(scope);
+        return names != null && names.contains(name);
+    }
+
+    void reserve(String scope, String name) {
+        if (usedNames.computeIfAbsent(scope, k -> new HashSet<>()).add(name)) {
+            for (NamePool pool : pools) {
+                pool.markUsed(scope, name);
+            }
+        }
+    }
+
+    String allocate(List<String> scopes, String preferredName, NamePool pool, Predicate<String> available) {
+        return allocate(scopes, List.of(), preferredName, pool, available);
+    }
+
+    String allocate(List<String> scopes, List<String> relatedScopes, String preferredName, NamePool pool,
+                    Predicate<String> available) {
+        List<String> checkedScopes = scopes;
+        Predicate<String> free = available;
+        if (!relatedScopes.isEmpty()) {
+            checkedScopes = new ArrayList<>(scopes.size() + relatedScopes.size());
+            checkedScopes.addAll(scopes);
+            checkedScopes.addAll(relatedScopes);
+            free = name -> !isUsedInAny(relatedScopes, name) && available.test(name);
+        }
+        String name = preferredName;
+        if (!free.test(name)) {
+            name = pool != null ? pool.probe(checkedScopes, preferredName, free) : null;
+            if (name == null) {
+                name = allocateSuffixed(checkedScopes, scopes, preferredName, free);
+            }
+        }
+        for (String scope : scopes) {
+            reserve(scope, name);
+        }
+        return name;
+    }
+
+    private boolean isUsedInAny(List<String> scopes, String name) {
+        for (String scope : scopes) {
+            if (isUsed(scope, name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String allocateSuffixed(List<String> checkedScopes, List<String> scopes, String baseName,
+                                    Predicate<String> available) {
+        int suffix = 0;
+        for (String scope : checkedScopes) {
+            Map<String, Integer> counters = suffixCounters.get(scope);
+            if (counters != null) {
+                suffix = Math.max(suffix, counters.getOrDefault(baseName, 0));
+            }
+        }
+        String name = baseName + "_" + suffix;
+        while (!available.test(name)) {
+            suffix++;
+            name = baseName + "_" + suffix;
+        }
+        for (String scope : scopes) {
+            suffixCounters.computeIfAbsent(scope, k -> new HashMap<>()).put(baseName, suffix + 1);
+        }
+        return name;
+    }
+
+    static final class NamePool {
+        private final List<String> names;
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final Map<String, Map<Integer, Integer>> usedIndexes = new HashMap<>();
+
+        private NamePool(List<String> names) {
+            this.names = new ArrayList<>(names);
+            for (int i = 0; i < this.names.size(); i++) {
+                indexes.putIfAbsent(this.names.get(i), i);
+            }
+        }
+
+        private void markUsed(String scope, String name) {
+            Integer index = indexes.get(name);
+            if (index != null) {
+                usedIndexes.computeIfAbsent(scope, k -> new HashMap<>()).putIfAbsent(index, (index + 1) % names.size());
+            }
+        }
+
+        private String probe(List<String> scopes, String preferredName, Predicate<String> available) {
+            Integer start = indexes.get(preferredName);
+            if (start == null) {
+                return null;
+            }
+            int size = names.size();
+            int index = (start + 1) % size;
+            int tried = 1;
+            while (tried < size) {
+                int free = index;
+                for (String scope : scopes) {
+                    free = nextFree(scope, free);
+                    if (free < 0) {
+                        return null;
+                    }
+                }
+                int skipped = (free - index + size) % size;
+                if (skipped > 0) {
+                    tried += skipped;
+                    index = free;
+                    continue;
+                }
+                String name = names.get(index);
+                if (available.test(name)) {
+                    return name;
+                }
+                tried++;
+                index = (index + 1) % size;
+            }
+            return null;
+        }
+
+        private int nextFree(String scope, int index) {
+            Map<Integer, Integer> next = usedIndexes.get(scope);
+            if (next == null) {
+                return index;
+            }
+            if (next.size() >= names.size()) {
+                return -1;
+            }
+            int free = index;
+            Integer candidate;
+            while ((candidate = next.get(free)) != null) {
+                free = candidate;
+            }
+            int current = index;
+            while (current != free) {
+                int following = next.get(current);
+                next.put(current, free);
+                current = following;
+            }
+            return free;
+        }
+    }
+}
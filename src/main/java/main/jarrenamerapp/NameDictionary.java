@@ -0,0 +1,24 @@
+package main.jarrenamerapp;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+final class NameDictionary {
+    private final ConcurrentHashMap<String, String> names = new ConcurrentHashMap<>();
+
+    String intern(String name) {
+        if (name == null) {
+            return null;
+        }
+        String existing = names.putIfAbsent(name, name);
+        return existing != null ? existing : name;
+    }
+
+    String[] intern(String[] values) {
+        if (values != null) {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = intern(values[i]);
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,272 @@
+package main.jarrenamerapp;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+public class RenameMetrics {
+    private final Map<String, Long> phaseNanos = new LinkedHashMap<>();
+    private final LongAdder transformNanos = new LongAdder();
+    private final LongAdder classesTransformed = new LongAdder();
+    private final LongAdder classesCopied = new LongAdder();
+    private final LongAdder rewriteFallbacks = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder collisionSuffixes = new LongAdder();
+    private final LongAdder mappingCacheHits = new LongAdder();
+    private final LongAdder mappingCacheMisses = new LongAdder();
+    private final LongAdder mappingCacheErrors = new LongAdder();
+    private long bytesRead;
+    private long bytesWritten;
+    private int classCount;
+    private int classesRenamed;
+    private int fieldsRenamed;
+    private int methodsRenamed;
+    private int classesReused;
+
+    public static File getReportFile(File outputFile) {
+        return new File(outputFile.getParentFile(), outputFile.getName() + ".metrics.json");
+    }
+
+    Phase startPhase(String jarName, String name) {
+        return new Phase(jarName, name);
+    }
+
+    public synchronized Map<String, Long> getPhaseNanos() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(phaseNanos));
+    }
+
+    public long getTransformNanos() {
+        return transformNanos.sum();
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public int getClassCount() {
+        return classCount;
+    }
+
+    public int getClassesRenamed() {
+        return classesRenamed;
+    }
+
+    public int getFieldsRenamed() {
+        return fieldsRenamed;
+    }
+
+    public int getMethodsRenamed() {
+        return methodsRenamed;
+    }
+
+    public long getClassesTransformed() {
+        return classesTransformed.sum();
+    }
+
+    public long getClassesCopied() {
+        return classesCopied.sum();
+    }
+
+    public long getRewriteFallbacks() {
+        return rewriteFallbacks.sum();
+    }
+
+    public int getClassesReused() {
+        return classesReused;
+    }
+
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    public long getCollisionSuffixes() {
+        return collisionSuffixes.sum();
+    }
+
+    public long getMappingCacheHits() {
+        return mappingCacheHits.sum();
+    }
+
+    public long getMappingCacheMisses() {
+        return mappingCacheMisses.sum();
+    }
+
+    public long getMappingCacheErrors() {
+        return mappingCacheErrors.sum();
+    }
+
+    synchronized void addPhaseTime(String name, long nanos) {
+        phaseNanos.merge(name, nanos, Long::sum);
+    }
+
+    void addTransformTime(long nanos) {
+        transformNanos.add(nanos);
+        classesTransformed.increment();
+    }
+
+    void addCopiedClass() {
+        classesCopied.increment();
+    }
+
+    void addRewriteFallback() {
+        rewriteFallbacks.increment();
+    }
+
+    void addCacheHit() {
+        cacheHits.increment();
+    }
+
+    void addCacheMiss() {
+        cacheMisses.increment();
+    }
+
+    void addCollisionSuffix() {
+        collisionSuffixes.increment();
+    }
+
+    void addMappingCacheHit() {
+        mappingCacheHits.increment();
+    }
+
+    void addMappingCacheMiss() {
+        mappingCacheMisses.increment();
+    }
+
+    void addMappingCacheError() {
+        mappingCacheErrors.increment();
+    }
+
+    void addBytesRead(long bytes) {
+        bytesRead += bytes;
+    }
+
+    void addBytesWritten(long bytes) {
+        bytesWritten += bytes;
+    }
+
+    void setRenameCounts(int classCount, int classesRenamed, int fieldsRenamed, int methodsRenamed) {
+        this.classCount = classCount;
+        this.classesRenamed = classesRenamed;
+        this.fieldsRenamed = fieldsRenamed;
+        this.methodsRenamed = methodsRenamed;
+    }
+
+    void setClassesReused(int classesReused) {
+        this.classesReused = classesReused;
+    }
+
+    void commitSummaryEvent(String jarName) {
+        RenameSummaryEvent event = new RenameSummaryEvent();
+        if (event.shouldCommit()) {
+            event.jar = jarName;
+            event.bytesRead = bytesRead;
+            event.bytesWritten = bytesWritten;
+            event.classesRenamed = classesRenamed;
+            event.fieldsRenamed = fieldsRenamed;
+            event.methodsRenamed = methodsRenamed;
+            event.classesTransformed = getClassesTransformed();
+            event.classesCopied = getClassesCopied();
+            event.classesReused = classesReused;
+            event.rewriteFallbacks = getRewriteFallbacks();
+            event.cacheHits = getCacheHits();
+            event.cacheMisses = getCacheMisses();
+            event.collisionSuffixes = getCollisionSuffixes();
+            event.mappingCacheHits = getMappingCacheHits();
+            event.mappingCacheMisses = getMappingCacheMisses();
+            event.mappingCacheErrors = getMappingCacheErrors();
+            event.transformTime = getTransformNanos();
+            event.commit();
+        }
+    }
+
+    public String toJson(String jarName) {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        json.append("  \"jar\": ").append(quote(jarName)).append(",\n");
+        json.append("  \"phaseNanos\": {");
+        Map<String, Long> phases = getPhaseNanos();
+        String separator = "\n";
+        for (Map.Entry<String, Long> phase : phases.entrySet()) {
+            json.append(separator).append("    ").append(quote(phase.getKey())).append(": ").append(phase.getValue());
+            separator = ",\n";
+        }
+        json.append(phases.isEmpty() ? "},\n" : "\n  },\n");
+        json.append("  \"transformNanos\": ").append(getTransformNanos()).append(",\n");
+        json.append("  \"bytesRead\": ").append(bytesRead).append(",\n");
+        json.append("  \"bytesWritten\": ").append(bytesWritten).append(",\n");
+        json.append("  \"classes\": {\n");
+        json.append("    \"total\": ").append(classCount).append(",\n");
+        json.append("    \"renamed\": ").append(classesRenamed).append(",\n");
+        json.append("    \"transformed\": ").append(getClassesTransformed()).append(",\n");
+        json.append("    \"copied\": ").append(getClassesCopied()).append(",\n");
+        json.append("    \"reused\": ").append(classesReused).append(",\n");
+        json.append("    \"rewriteFallbacks\": ").append(getRewriteFallbacks()).append("\n");
+        json.append("  },\n");
+        json.append("  \"fieldsRenamed\": ").append(fieldsRenamed).append(",\n");
+        json.append("  \"methodsRenamed\": ").append(methodsRenamed).append(",\n");
+        json.append("  \"renameCache\": {\n");
+        json.append("    \"hits\": ").append(getCacheHits()).append(",\n");
+        json.append("    \"misses\": ").append(getCacheMisses()).append("\n");
+        json.append("  },\n");
+        json.append("  \"collisionSuffixes\": ").append(getCollisionSuffixes()).append(",\n");
+        json.append("  \"mappingCache\": {\n");
+        json.append("    \"hits\": ").append(getMappingCacheHits()).append(",\n");
+        json.append("    \"misses\": ").append(getMappingCacheMisses()).append(",\n");
+        json.append("    \"errors\": ").append(getMappingCacheErrors()).append("\n");
+        json.append("  }\n");
+        json.append("}\n");
+        return json.toString();
+    }
+
+    public void writeReport(String jarName, File outputFile) throws IOException {
+        Files.writeString(getReportFile(outputFile).toPath(), toJson(jarName), StandardCharsets.UTF_8);
+    }
+
+    static String quote(String value) {
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < 0x20) {
+                quoted.append(String.format("\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    public final class Phase implements AutoCloseable {
+        private final String name;
+        private final long start = System.nanoTime();
+        private final RenamePhaseEvent event = new RenamePhaseEvent();
+
+        private Phase(String jarName, String name) {
+            this.name = name;
+            event.jar = jarName;
+            event.phase = name;
+            event.begin();
+        }
+
+        @Override
+        public void close() {
+            addPhaseTime(name, System.nanoTime() - start);
+            event.commit();
+        }
+    }
+}
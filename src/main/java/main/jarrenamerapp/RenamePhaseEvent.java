@@ -0,0 +1,18 @@
+package main.jarrenamerapp;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("main.jarrenamerapp.RenamePhase")
+@Label("Rename Phase")
+@Category("Jar Renamer")
+@Description("One phase of a jar rename")
+class RenamePhaseEvent extends jdk.jfr.Event {
+    @Label("Jar")
+    String jar;
+
+    @Label("Phase")
+    String phase;
+}
@@ -0,0 +1,96 @@
+package main.jarrenamerapp;
+
+import java.io.IOException;
+import java.io.Writer;
+
+final class RenamePlanWriter {
+    private static final String[] COLUMNS = {"kind", "owner", "name", "descriptor", "newName", "status", "preferredName"};
+
+    private final Writer writer;
+    private final boolean json;
+    private final String[] row = new String[COLUMNS.length];
+    private boolean first = true;
+
+    RenamePlanWriter(Writer writer, boolean json) {
+        this.writer = writer;
+        this.json = json;
+    }
+
+    void writeHeader() throws IOException {
+        if (json) {
+            writer.write('[');
+        } else {
+            writer.write(String.join(",", COLUMNS));
+            writer.write('\n');
+        }
+    }
+
+    void write(String kind, String owner, String name, String descriptor, String newName, String status,
+               String preferredName) throws IOException {
+        row[0] = kind;
+        row[1] = owner;
+        row[2] = name;
+        row[3] = descriptor;
+        row[4] = newName;
+        row[5] = status;
+        row[6] = preferredName;
+        if (json) {
+            writeJsonRow();
+        } else {
+            writeCsvRow();
+        }
+        first = false;
+    }
+
+    void finish() throws IOException {
+        if (json) {
+            writer.write(first ? "]\n" : "\n]\n");
+        }
+        writer.flush();
+    }
+
+    private void writeJsonRow() throws IOException {
+        writer.write(first ? "\n  {" : ",\n  {");
+        boolean firstField = true;
+        for (int i = 0; i < COLUMNS.length; i++) {
+            if (row[i] == null) {
+                continue;
+            }
+            if (!firstField) {
+                writer.write(", ");
+            }
+            writer.write(RenameMetrics.quote(COLUMNS[i]));
+            writer.write(": ");
+            writer.write(RenameMetrics.quote(row[i]));
+            firstField = false;
+        }
+        writer.write('}');
+    }
+
+    private void writeCsvRow() throws IOException {
+        for (int i = 0; i < COLUMNS.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (row[i] != null) {
+                writeCsvValue(row[i]);
+            }
+        }
+        writer.write('\n');
+    }
+
+    private void writeCsvValue(String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,37 @@
+package main.jarrenamerapp;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+final class RenameProgress {
+    private static final long REPORT_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final RenameProgressListener listener;
+    private final long totalEntries;
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong processedEntries = new AtomicLong();
+    private final AtomicLong nextReportNanos = new AtomicLong(startNanos);
+
+    RenameProgress(RenameProgressListener listener, long totalEntries) {
+        this.listener = listener;
+        this.totalEntries = totalEntries;
+    }
+
+    void entryProcessed() {
+        long processed = processedEntries.incrementAndGet();
+        long now = System.nanoTime();
+        long nextReport = nextReportNanos.get();
+        if (now - nextReport >= 0 && nextReportNanos.compareAndSet(nextReport, now + REPORT_INTERVAL_NANOS)) {
+            report(processed, now);
+        }
+    }
+
+    void finish() {
+        report(processedEntries.get(), System.nanoTime());
+    }
+
+    private void report(long processed, long now) {
+        double seconds = (now - startNanos) / 1e9;
+        listener.onProgress(processed, totalEntries, seconds > 0 ? processed / seconds : 0);
+    }
+}
@@ -0,0 +1,6 @@
+package main.jarrenamerapp;
+
+@FunctionalInterface
+public interface RenameProgressListener {
+    void onProgress(long processedEntries, long totalEntries, double entriesPerSecond);
+}
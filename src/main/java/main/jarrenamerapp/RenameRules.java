@@ -0,0 +1,260 @@
+package main.jarrenamerapp;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+public final class RenameRules {
+    private static final String REGEX_META_CHARACTERS = "\\^$.|?*+()[]{}";
+
+    private final List<Rule> rules = new ArrayList<>();
+    private final RuleTrie classRules = new RuleTrie();
+    private final RuleTrie methodRules = new RuleTrie();
+    private final RuleTrie fieldRules = new RuleTrie();
+
+    public static RenameRules read(File file) throws IOException {
+        return parse(Files.readAllLines(file.toPath()));
+    }
+
+    public static RenameRules parse(List<String> lines) throws IOException {
+        RenameRules renameRules = new RenameRules();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            try {
+                renameRules.addRule(line);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Invalid rename rule at line " + (i + 1) + ": " + e.getMessage(), e);
+            }
+        }
+        return renameRules;
+    }
+
+    public void addRule(String line) {
+        int arrow = line.lastIndexOf("->");
+        if (arrow < 0) {
+            throw new IllegalArgumentException("expected \"<pattern> -> <replacement>\"");
+        }
+        String pattern = line.substring(0, arrow).trim();
+        String replacement = line.substring(arrow + 2).trim();
+        String type = "class";
+        int space = pattern.indexOf(' ');
+        if (space > 0) {
+            type = pattern.substring(0, space);
+            pattern = pattern.substring(space + 1).trim();
+        }
+        RuleTrie trie = getRuleTrie(type);
+        if (trie == null) {
+            throw new IllegalArgumentException("unknown rule type " + type);
+        }
+        if (pattern.isEmpty()) {
+            throw new IllegalArgumentException("empty pattern");
+        }
+        Rule rule;
+        try {
+            if (pattern.length() > 1 && pattern.startsWith("/") && pattern.endsWith("/")) {
+                String regex = pattern.substring(1, pattern.length() - 1);
+                rule = new Rule(Pattern.compile(regex), replacement, getRegexLiteralPrefix(regex));
+            } else {
+                rule = compileGlob(pattern, replacement, type.equals("class"));
+            }
+        } catch (PatternSyntaxException e) {
+            throw new IllegalArgumentException(e.getDescription(), e);
+        }
+        trie.add(rule.literalPrefix, rules.size());
+        rules.add(rule);
+    }
+
+    public int size() {
+        return rules.size();
+    }
+
+    public String apply(String type, String name) {
+        RuleTrie trie = getRuleTrie(type);
+        return trie != null ? trie.apply(name) : name;
+    }
+
+    private RuleTrie getRuleTrie(String type) {
+        switch (type) {
+            case "class":
+                return classRules;
+            case "method":
+                return methodRules;
+            case "field":
+                return fieldRules;
+            default:
+                return null;
+        }
+    }
+
+    private static Rule compileGlob(String glob, String replacement, boolean dottedNames) {
+        StringBuilder regex = new StringBuilder();
+        int literalEnd = -1;
+        int literalStart = 0;
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (c == '*' || c == '?') {
+                if (literalEnd < 0) {
+                    literalEnd = i;
+                }
+                if (literalStart < i) {
+                    regex.append(Pattern.quote(glob.substring(literalStart, i)));
+                }
+                if (c == '?') {
+                    regex.append(dottedNames ? "([^.])" : "(.)");
+                } else if (i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+                    regex.append("(.*)");
+                    i++;
+                } else {
+                    regex.append(dottedNames ? "([^.]*)" : "(.*)");
+                }
+                literalStart = i + 1;
+            }
+        }
+        if (literalStart < glob.length()) {
+            regex.append(Pattern.quote(glob.substring(literalStart)));
+        }
+        StringBuilder regexReplacement = new StringBuilder();
+        int group = 1;
+        for (int i = 0; i < replacement.length(); i++) {
+            char c = replacement.charAt(i);
+            if (c == '*' || c == '?') {
+                if (c == '*' && i + 1 < replacement.length() && replacement.charAt(i + 1) == '*') {
+                    i++;
+                }
+                regexReplacement.append('$').append(group++);
+            } else if (c == '$' || c == '\\') {
+                regexReplacement.append('\\').append(c);
+            } else {
+                regexReplacement.append(c);
+            }
+        }
+        String literalPrefix = literalEnd < 0 ? glob : glob.substring(0, literalEnd);
+        return new Rule(Pattern.compile(regex.toString()), regexReplacement.toString(), literalPrefix);
+    }
+
+    private static String getRegexLiteralPrefix(String regex) {
+        if (regex.indexOf('|') >= 0) {
+            return "";
+        }
+        int start = regex.startsWith("^") ? 1 : 0;
+        int end = start;
+        while (end < regex.length() && REGEX_META_CHARACTERS.indexOf(regex.charAt(end)) < 0) {
+            end++;
+        }
+        if (end < regex.length() && end > start && "?*{".indexOf(regex.charAt(end)) >= 0) {
+            end--;
+        }
+        return regex.substring(start, end);
+    }
+
+    private static final class Rule {
+        private final Pattern pattern;
+        private final String replacement;
+        private final String literalPrefix;
+
+        Rule(Pattern pattern, String replacement, String literalPrefix) {
+            validateReplacement(pattern, replacement);
+            this.pattern = pattern;
+            this.replacement = replacement;
+            this.literalPrefix = literalPrefix;
+        }
+
+        private static void validateReplacement(Pattern pattern, String replacement) {
+            Matcher matcher = Pattern.compile("(?:" + pattern.pattern() + "\n)|", pattern.flags()).matcher("");
+            matcher.find();
+            try {
+                matcher.appendReplacement(new StringBuilder(), replacement);
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("invalid replacement \"" + replacement + "\": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private final class RuleTrie {
+        private final Node root = new Node();
+
+        void add(String literalPrefix, int ruleIndex) {
+            Node node = root;
+            for (int i = 0; i < literalPrefix.length(); i++) {
+                node = node.getOrCreateChild(literalPrefix.charAt(i));
+            }
+            node.addRule(ruleIndex);
+        }
+
+        String apply(String name) {
+            int best = Integer.MAX_VALUE;
+            String result = name;
+            Node node = root;
+            for (int i = 0; node != null; i++) {
+                for (int r = 0; r < node.ruleCount && node.rules[r] < best; r++) {
+                    int ruleIndex = node.rules[r];
+                    Matcher matcher = rules.get(ruleIndex).pattern.matcher(name);
+                    if (matcher.matches()) {
+                        best = ruleIndex;
+                        StringBuilder renamed = new StringBuilder();
+                        matcher.appendReplacement(renamed, rules.get(ruleIndex).replacement);
+                        result = matcher.appendTail(renamed).toString();
+                        break;
+                    }
+                }
+                node = i < name.length() ? node.getChild(name.charAt(i)) : null;
+            }
+            return result;
+        }
+    }
+
+    private static final class Node {
+        private char[] labels;
+        private Node[] children;
+        private int childCount;
+        private int[] rules;
+        private int ruleCount;
+
+        Node getChild(char c) {
+            if (labels == null) {
+                return null;
+            }
+            int index = Arrays.binarySearch(labels, 0, childCount, c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node getOrCreateChild(char c) {
+            Node child = getChild(c);
+            if (child != null) {
+                return child;
+            }
+            if (labels == null) {
+                labels = new char[2];
+                children = new Node[2];
+            } else if (childCount == labels.length) {
+                labels = Arrays.copyOf(labels, childCount * 2);
+                children = Arrays.copyOf(children, childCount * 2);
+            }
+            int index = -Arrays.binarySearch(labels, 0, childCount, c) - 1;
+            System.arraycopy(labels, index, labels, index + 1, childCount - index);
+            System.arraycopy(children, index, children, index + 1, childCount - index);
+            labels[index] = c;
+            children[index] = child = new Node();
+            childCount++;
+            return child;
+        }
+
+        void addRule(int ruleIndex) {
+            if (rules == null) {
+                rules = new int[1];
+            } else if (ruleCount == rules.length) {
+                rules = Arrays.copyOf(rules, ruleCount * 2);
+            }
+            rules[ruleCount++] = ruleIndex;
+        }
+    }
+}
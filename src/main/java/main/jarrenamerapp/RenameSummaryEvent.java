@@ -0,0 +1,70 @@
+package main.jarrenamerapp;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+@Name("main.jarrenamerapp.RenameSummary")
+@Label("Rename Summary")
+@Category("Jar Renamer")
+@Description("Counters collected over a completed jar rename")
+class RenameSummaryEvent extends jdk.jfr.Event {
+    @Label("Jar")
+    String jar;
+
+    @Label("Bytes Read")
+    @DataAmount
+    long bytesRead;
+
+    @Label("Bytes Written")
+    @DataAmount
+    long bytesWritten;
+
+    @Label("Classes Renamed")
+    int classesRenamed;
+
+    @Label("Fields Renamed")
+    int fieldsRenamed;
+
+    @Label("Methods Renamed")
+    int methodsRenamed;
+
+    @Label("Classes Transformed")
+    long classesTransformed;
+
+    @Label("Classes Copied")
+    long classesCopied;
+
+    @Label("Classes Reused")
+    int classesReused;
+
+    @Label("Rewrite Fallbacks")
+    @Description("Classes rewritten with expanded frames after the fast path failed")
+    long rewriteFallbacks;
+
+    @Label("Rename Cache Hits")
+    long cacheHits;
+
+    @Label("Rename Cache Misses")
+    long cacheMisses;
+
+    @Label("Collision Suffixes")
+    long collisionSuffixes;
+
+    @Label("Mapping Cache Hits")
+    long mappingCacheHits;
+
+    @Label("Mapping Cache Misses")
+    long mappingCacheMisses;
+
+    @Label("Mapping Cache Errors")
+    @Description("Compiled mapping files that could not be read or written")
+    long mappingCacheErrors;
+
+    @Label("Transform Time")
+    @Timespan
+    long transformTime;
+}
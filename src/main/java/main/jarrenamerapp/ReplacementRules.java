@@ -0,0 +1,228 @@
+package main.jarrenamerapp;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+public final class ReplacementRules {
+    private static final int ROOT = 0;
+
+    private char[][] labels = new char[16][];
+    private int[][] targets = new int[16][];
+    private int[] edgeCounts = new int[16];
+    private int[] depths = new int[16];
+    private int[] outputs = new int[16];
+    private int[] failures;
+    private int[] dictionaryLinks;
+    private int stateCount;
+    private final String[] replacements;
+    private final boolean classNames;
+
+    public ReplacementRules(Map<String, String> rules) {
+        this(rules, false);
+    }
+
+    private ReplacementRules(Map<String, String> rules, boolean classNames) {
+        this.classNames = classNames;
+        replacements = new String[rules.size()];
+        newState(0);
+        int rule = 0;
+        for (Map.Entry<String, String> entry : rules.entrySet()) {
+            String text = entry.getKey();
+            if (text.isEmpty()) {
+                throw new IllegalArgumentException("Text to replace must not be empty");
+            }
+            int state = ROOT;
+            for (int i = 0; i < text.length(); i++) {
+                int next = getTransition(state, text.charAt(i));
+                if (next < 0) {
+                    next = newState(i + 1);
+                    addTransition(state, text.charAt(i), next);
+                }
+                state = next;
+            }
+            if (outputs[state] < 0) {
+                outputs[state] = rule;
+                replacements[rule] = entry.getValue();
+                rule++;
+            }
+        }
+        buildFailureLinks();
+    }
+
+    public static ReplacementRules of(String textToReplace, String replacementText) {
+        return new ReplacementRules(Map.of(textToReplace, replacementText));
+    }
+
+    static ReplacementRules forClassNames(Map<String, String> classNames) {
+        return new ReplacementRules(classNames, true);
+    }
+
+    public static ReplacementRules read(File file) throws IOException {
+        return parse(Files.readAllLines(file.toPath()));
+    }
+
+    public static ReplacementRules parse(List<String> lines) {
+        Map<String, String> rules = new LinkedHashMap<>();
+        for (String line : lines) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            int arrow = line.indexOf("->");
+            if (arrow > 0) {
+                String text = line.substring(0, arrow).trim();
+                if (!text.isEmpty()) {
+                    rules.putIfAbsent(text, line.substring(arrow + 2).trim());
+                }
+            }
+        }
+        return new ReplacementRules(rules);
+    }
+
+    public int size() {
+        return replacements.length;
+    }
+
+    public String apply(String name) {
+        StringBuilder result = null;
+        int copied = 0;
+        int state = ROOT;
+        int matchStart = -1;
+        int matchEnd = -1;
+        int matchRule = -1;
+        int i = 0;
+        while (true) {
+            if (i < name.length()) {
+                char c = name.charAt(i);
+                state = nextState(state, classNames && c == '/' ? '.' : c);
+                int output = outputs[state] >= 0 ? state : dictionaryLinks[state];
+                while (classNames && output > ROOT && !isNameBoundary(name, i + 1 - depths[output], i + 1)) {
+                    output = dictionaryLinks[output];
+                }
+                if (output > ROOT) {
+                    int start = i + 1 - depths[output];
+                    if (matchRule < 0 || start <= matchStart) {
+                        matchStart = start;
+                        matchEnd = i + 1;
+                        matchRule = outputs[output];
+                    }
+                }
+                i++;
+                if (matchRule < 0 || i - depths[state] <= matchStart) {
+                    continue;
+                }
+            } else if (matchRule < 0) {
+                break;
+            }
+            if (result == null) {
+                result = new StringBuilder(name.length() + 16);
+            }
+            String replacement = replacements[matchRule];
+            if (classNames && name.lastIndexOf('/', matchEnd - 1) >= matchStart) {
+                replacement = replacement.replace('.', '/');
+            }
+            result.append(name, copied, matchStart).append(replacement);
+            copied = matchEnd;
+            i = matchEnd;
+            state = ROOT;
+            matchRule = -1;
+        }
+        if (result == null) {
+            return name;
+        }
+        return result.append(name, copied, name.length()).toString();
+    }
+
+    private static boolean isNameBoundary(String text, int start, int end) {
+        if (end < text.length() && Character.isJavaIdentifierPart(text.charAt(end))) {
+            return false;
+        }
+        if (start == 0) {
+            return true;
+        }
+        char before = text.charAt(start - 1);
+        if (before == 'L' && end < text.length() && text.charAt(end) == ';') {
+            return true;
+        }
+        return before != '.' && !Character.isJavaIdentifierPart(before);
+    }
+
+    private int nextState(int state, char c) {
+        while (true) {
+            int next = getTransition(state, c);
+            if (next >= 0) {
+                return next;
+            }
+            if (state == ROOT) {
+                return ROOT;
+            }
+            state = failures[state];
+        }
+    }
+
+    private int getTransition(int state, char c) {
+        char[] stateLabels = labels[state];
+        if (stateLabels == null) {
+            return -1;
+        }
+        int index = Arrays.binarySearch(stateLabels, 0, edgeCounts[state], c);
+        return index >= 0 ? targets[state][index] : -1;
+    }
+
+    private void addTransition(int state, char c, int target) {
+        int count = edgeCounts[state];
+        if (labels[state] == null) {
+            labels[state] = new char[2];
+            targets[state] = new int[2];
+        } else if (count == labels[state].length) {
+            labels[state] = Arrays.copyOf(labels[state], count * 2);
+            targets[state] = Arrays.copyOf(targets[state], count * 2);
+        }
+        int index = -Arrays.binarySearch(labels[state], 0, count, c) - 1;
+        System.arraycopy(labels[state], index, labels[state], index + 1, count - index);
+        System.arraycopy(targets[state], index, targets[state], index + 1, count - index);
+        labels[state][index] = c;
+        targets[state][index] = target;
+        edgeCounts[state] = count + 1;
+    }
+
+    private int newState(int depth) {
+        if (stateCount == depths.length) {
+            int capacity = stateCount * 2;
+            labels = Arrays.copyOf(labels, capacity);
+            targets = Arrays.copyOf(targets, capacity);
+            edgeCounts = Arrays.copyOf(edgeCounts, capacity);
+            depths = Arrays.copyOf(depths, capacity);
+            outputs = Arrays.copyOf(outputs, capacity);
+        }
+        depths[stateCount] = depth;
+        outputs[stateCount] = -1;
+        return stateCount++;
+    }
+
+    private void buildFailureLinks() {
+        failures = new int[stateCount];
+        dictionaryLinks = new int[stateCount];
+        dictionaryLinks[ROOT] = -1;
+        Queue<Integer> queue = new ArrayDeque<>();
+        queue.add(ROOT);
+        while (!queue.isEmpty()) {
+            int state = queue.remove();
+            for (int e = 0; e < edgeCounts[state]; e++) {
+                char c = labels[state][e];
+                int child = targets[state][e];
+                int failure = state == ROOT ? ROOT : nextState(failures[state], c);
+                failures[child] = failure;
+                dictionaryLinks[child] = outputs[failure] >= 0 ? failure : dictionaryLinks[failure];
+                queue.add(child);
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package main.jarrenamerapp;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+final class StringPool {
+    private byte[] bytes = new byte[1 << 12];
+    private ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    private int[] offsets = new int[257];
+    private int[] hashes = new int[256];
+    private int[] slots = new int[512];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    int find(String value) {
+        int hash = value.hashCode();
+        int mask = slots.length - 1;
+        for (int slot = mix(hash) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int id = slots[slot] - 1;
+            if (hashes[id] == hash && compare(buffer, offsets[id], offsets[id + 1], value) == 0) {
+                return id;
+            }
+        }
+        return -1;
+    }
+
+    int intern(String value) {
+        int id = find(value);
+        if (id != -1) {
+            return id;
+        }
+        if (size == hashes.length) {
+            hashes = Arrays.copyOf(hashes, size * 2);
+            offsets = Arrays.copyOf(offsets, size * 2 + 1);
+        }
+        append(value);
+        hashes[size] = value.hashCode();
+        size++;
+        if (size * 2 > slots.length) {
+            slots = new int[slots.length * 2];
+            for (int entry = 0; entry < size; entry++) {
+                insert(entry);
+            }
+        } else {
+            insert(size - 1);
+        }
+        return size - 1;
+    }
+
+    String get(int id) {
+        return new String(bytes, offsets[id], offsets[id + 1] - offsets[id], StandardCharsets.UTF_8);
+    }
+
+    byte[] getBytes(int id) {
+        return Arrays.copyOfRange(bytes, offsets[id], offsets[id + 1]);
+    }
+
+    static int compare(ByteBuffer buffer, int position, int end, String value) {
+        int index = 0;
+        while (position < end && index < value.length()) {
+            int b = buffer.get(position) & 0xff;
+            int codePoint;
+            if (b < 0x80) {
+                codePoint = b;
+                position++;
+            } else if (b < 0xe0) {
+                codePoint = (b & 0x1f) << 6 | buffer.get(position + 1) & 0x3f;
+                position += 2;
+            } else if (b < 0xf0) {
+                codePoint = (b & 0x0f) << 12 | (buffer.get(position + 1) & 0x3f) << 6 | buffer.get(position + 2) & 0x3f;
+                position += 3;
+            } else {
+                codePoint = (b & 0x07) << 18 | (buffer.get(position + 1) & 0x3f) << 12
+                        | (buffer.get(position + 2) & 0x3f) << 6 | buffer.get(position + 3) & 0x3f;
+                position += 4;
+            }
+            int other = value.codePointAt(index);
+            if (codePoint != other) {
+                return Integer.compare(codePoint, other);
+            }
+            index += Character.charCount(other);
+        }
+        if (position < end) {
+            return 1;
+        }
+        return index < value.length() ? -1 : 0;
+    }
+
+    private void append(String value) {
+        int start = offsets[size];
+        int length = value.length();
+        ensureCapacity(start + length * 3);
+        int position = start;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+                ensureCapacity(start + encoded.length);
+                System.arraycopy(encoded, 0, bytes, start, encoded.length);
+                position = start + encoded.length;
+                break;
+            }
+            bytes[position++] = (byte) c;
+        }
+        offsets[size + 1] = position;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(capacity, bytes.length * 2));
+            buffer = ByteBuffer.wrap(bytes);
+        }
+    }
+
+    private void insert(int id) {
+        int mask = slots.length - 1;
+        int slot = mix(hashes[id]) & mask;
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = id + 1;
+    }
+
+    private static int mix(int hash) {
+        hash *= 0x9e3779b9;
+        return hash ^ (hash >>> 16);
+    }
+}
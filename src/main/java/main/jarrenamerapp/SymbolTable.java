@@ -0,0 +1,43 @@
+package main.jarrenamerapp;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class SymbolTable {
+    private final Map<String, ClassSymbol> symbols = new HashMap<>();
+    private boolean frozen;
+
+    ClassSymbol getOrCreate(String internalName) {
+        ClassSymbol symbol = symbols.get(internalName);
+        if (symbol == null) {
+            if (frozen) {
+                throw new IllegalStateException("Symbol table is frozen: " + internalName);
+            }
+            symbol = new ClassSymbol(internalName);
+            symbols.put(internalName, symbol);
+        }
+        return symbol;
+    }
+
+    public ClassSymbol get(String internalName) {
+        return symbols.get(internalName);
+    }
+
+    public Collection<ClassSymbol> getSymbols() {
+        return Collections.unmodifiableCollection(symbols.values());
+    }
+
+    void freeze() {
+        frozen = true;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    public int size() {
+        return symbols.size();
+    }
+}
@@ -0,0 +1,222 @@
+package main.jarrenamerapp;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+class TransformPipeline implements AutoCloseable {
+    private static final PendingEntry END_OF_ENTRIES = new PendingEntry(null, 0);
+    private static final int KILOBYTE = 1024;
+
+    private final ZipArchiveWriter archiveWriter;
+    private final ForkJoinPool workers;
+    private final BlockingQueue<PendingEntry> pendingEntries;
+    private final Thread writerThread;
+    private final Semaphore memoryBudget;
+    private final int memoryBudgetPermits;
+    private final RenameProgress progress;
+    private volatile Throwable failure;
+
+    TransformPipeline(ZipArchiveWriter archiveWriter, int workerCount) {
+        this(archiveWriter, workerCount, 0, null);
+    }
+
+    TransformPipeline(ZipArchiveWriter archiveWriter, int workerCount, long memoryLimit, RenameProgress progress) {
+        this.archiveWriter = archiveWriter;
+        this.progress = progress;
+        this.memoryBudgetPermits = (int) Math.min(memoryLimit / KILOBYTE, Integer.MAX_VALUE);
+        this.memoryBudget = workerCount > 1 && memoryBudgetPermits > 0 ? new Semaphore(memoryBudgetPermits) : null;
+        if (workerCount > 1) {
+            this.workers = new ForkJoinPool(workerCount);
+            this.pendingEntries = new ArrayBlockingQueue<>(workerCount * 4);
+            this.writerThread = new Thread(this::writeEntries, "jar-renamer-writer");
+            this.writerThread.setDaemon(true);
+            this.writerThread.start();
+        } else {
+            this.workers = null;
+            this.pendingEntries = null;
+            this.writerThread = null;
+        }
+    }
+
+    public void submit(Callable<EncodedEntry> task) throws IOException {
+        submit(task, 0);
+    }
+
+    public void submit(Callable<EncodedEntry> task, long entrySize) throws IOException {
+        rethrowFailure();
+        if (workers == null) {
+            write(call(task));
+            return;
+        }
+        int permits = reserveMemory(entrySize);
+        enqueue(new PendingEntry(workers.submit(() -> callUnchecked(task)), permits));
+    }
+
+    public void copy(EncodedEntry entry) throws IOException {
+        rethrowFailure();
+        if (workers == null) {
+            write(entry);
+            return;
+        }
+        enqueue(new PendingEntry(CompletableFuture.completedFuture(entry), 0));
+    }
+
+    public void skip() {
+        countEntry();
+    }
+
+    public void finish() throws IOException {
+        if (writerThread != null) {
+            enqueue(END_OF_ENTRIES);
+            try {
+                writerThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while writing entries", e);
+            }
+        }
+        rethrowFailure();
+    }
+
+    @Override
+    public void close() {
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+        if (writerThread != null && writerThread.isAlive()) {
+            writerThread.interrupt();
+            try {
+                writerThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private int reserveMemory(long entrySize) throws IOException {
+        if (memoryBudget == null) {
+            return 0;
+        }
+        int permits = (int) Math.min(memoryBudgetPermits, entrySize * 2 / KILOBYTE + 1);
+        try {
+            memoryBudget.acquire(permits);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for memory", e);
+        }
+        return permits;
+    }
+
+    private void enqueue(PendingEntry entry) throws IOException {
+        try {
+            pendingEntries.put(entry);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while queueing entries", e);
+        }
+    }
+
+    private void writeEntries() {
+        try {
+            PendingEntry entry;
+            while ((entry = pendingEntries.take()) != END_OF_ENTRIES) {
+                try {
+                    if (failure != null) {
+                        discard(entry.result);
+                        continue;
+                    }
+                    write(entry.result.get());
+                } catch (ExecutionException e) {
+                    failure = e.getCause() instanceof UncheckedIOException ? e.getCause().getCause() : e.getCause();
+                } catch (IOException | RuntimeException e) {
+                    failure = e;
+                } finally {
+                    if (entry.permits > 0) {
+                        memoryBudget.release(entry.permits);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            if (failure == null) {
+                failure = e;
+            }
+        }
+    }
+
+    private void write(EncodedEntry entry) throws IOException {
+        try {
+            archiveWriter.write(entry);
+        } finally {
+            entry.release();
+        }
+        countEntry();
+    }
+
+    private static void discard(Future<EncodedEntry> result) throws InterruptedException {
+        if (!result.cancel(true) && !result.isCancelled()) {
+            try {
+                result.get().release();
+            } catch (ExecutionException | IOException ignored) {
+            }
+        }
+    }
+
+    private void countEntry() {
+        if (progress != null) {
+            progress.entryProcessed();
+        }
+    }
+
+    private void rethrowFailure() throws IOException {
+        Throwable cause = failure;
+        if (cause == null) {
+            return;
+        }
+        if (cause instanceof IOException) {
+            throw (IOException) cause;
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        throw new IOException("Error transforming entries: " + cause.getMessage(), cause);
+    }
+
+    private static EncodedEntry call(Callable<EncodedEntry> task) throws IOException {
+        try {
+            return task.call();
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Error transforming entries: " + e.getMessage(), e);
+        }
+    }
+
+    private static EncodedEntry callUnchecked(Callable<EncodedEntry> task) {
+        try {
+            return call(task);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static class PendingEntry {
+        private final Future<EncodedEntry> result;
+        private final int permits;
+
+        PendingEntry(Future<EncodedEntry> result, int permits) {
+            this.result = result;
+            this.permits = permits;
+        }
+    }
+}
@@ -0,0 +1,555 @@
+package main.jarrenamerapp;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+
+public class ZipArchive implements Closeable {
+    static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+    static final int ZIP64_END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06064b50;
+    static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+    static final int ZIP64_EXTRA_ID = 0x0001;
+    static final int LOCAL_HEADER_LENGTH = 30;
+    static final int CENTRAL_HEADER_LENGTH = 46;
+    static final int END_OF_CENTRAL_DIRECTORY_LENGTH = 22;
+    static final int ZIP64_END_OF_CENTRAL_DIRECTORY_LENGTH = 56;
+    static final int ZIP64_LOCATOR_LENGTH = 20;
+    static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+    static final int ZIP64_MAGIC_COUNT = 0xFFFF;
+
+    private static final byte[] INFLATER_PADDING = new byte[1];
+    private static final byte[] NO_EXTRA = new byte[0];
+    private static final int TRANSFER_CHUNK = 64 * 1024;
+    private static final String[] CLASS_ROOTS = {"BOOT-INF/classes/", "WEB-INF/classes/"};
+
+    private final File file;
+    private final FileChannel channel;
+    private final boolean ownsChannel;
+    private final long base;
+    private final long size;
+    private final ByteBuffer mapped;
+    private final InflatedSource inflated;
+    private final List<ZipArchiveEntry> entries;
+    private final Map<String, ZipArchiveEntry> entriesByName = new HashMap<>();
+
+    private ZipArchive(File file, FileChannel channel, boolean ownsChannel, long base, long size,
+                       ByteBuffer mapped, InflatedSource inflated) throws IOException {
+        this.file = file;
+        this.channel = channel;
+        this.ownsChannel = ownsChannel;
+        this.base = base;
+        this.size = size;
+        this.mapped = mapped;
+        this.inflated = inflated;
+        this.entries = readCentralDirectory();
+        for (ZipArchiveEntry entry : entries) {
+            entriesByName.putIfAbsent(entry.getName(), entry);
+        }
+    }
+
+    public static ZipArchive open(File file) throws IOException {
+        return open(file, true);
+    }
+
+    public static ZipArchive open(File file, boolean memoryMapped) throws IOException {
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            ByteBuffer mapped = memoryMapped && size <= Integer.MAX_VALUE
+                    ? channel.map(FileChannel.MapMode.READ_ONLY, 0, size)
+                    : null;
+            return new ZipArchive(file, channel, true, 0, size, mapped, null);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public ZipArchive openNested(ZipArchiveEntry entry) throws IOException {
+        File nestedFile = new File(file, entry.getName());
+        if (entry.getMethod() == ZipEntry.STORED) {
+            long offset = getDataOffset(entry);
+            long length = entry.getCompressedSize();
+            if (offset + length > size) {
+                throw new EOFException("Unexpected end of archive: " + entry.getName());
+            }
+            ByteBuffer nested = mapped != null && length <= Integer.MAX_VALUE
+                    ? mapped.slice((int) offset, (int) length)
+                    : null;
+            return new ZipArchive(nestedFile, channel, false, base + offset, length, nested, inflated);
+        }
+        if (entry.getMethod() != ZipEntry.DEFLATED) {
+            throw new ZipException("Unsupported compression method " + entry.getMethod() + ": " + entry.getName());
+        }
+        InflatedSource source = new InflatedSource(this, entry, getDataOffset(entry));
+        try {
+            return new ZipArchive(nestedFile, null, false, 0, entry.getSize(), null, source);
+        } finally {
+            source.releaseInflaters();
+        }
+    }
+
+    void releaseInflaters() {
+        if (inflated != null) {
+            inflated.releaseInflaters();
+        }
+    }
+
+    public static boolean isNestedArchive(String entryName) {
+        return entryName.regionMatches(true, entryName.length() - 4, ".jar", 0, 4);
+    }
+
+    public static String getClassName(String entryName) {
+        if (!entryName.endsWith(".class")) {
+            return null;
+        }
+        return entryName.substring(getClassRoot(entryName).length(), entryName.length() - 6).replace('/', '.');
+    }
+
+    public static String getClassRoot(String entryName) {
+        for (String root : CLASS_ROOTS) {
+            if (entryName.startsWith(root)) {
+                return root;
+            }
+        }
+        return "";
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public List<ZipArchiveEntry> getEntries() {
+        return entries;
+    }
+
+    public ZipArchiveEntry getEntry(String name) {
+        return entriesByName.get(name);
+    }
+
+    public List<String> getClassNames() {
+        List<String> classNames = new ArrayList<>();
+        for (ZipArchiveEntry entry : entries) {
+            String className = getClassName(entry.getName());
+            if (className != null) {
+                classNames.add(className);
+            }
+        }
+        return classNames;
+    }
+
+    public byte[] readEntry(ZipArchiveEntry entry) throws IOException {
+        checkEntrySize(entry);
+        byte[] data = new byte[(int) entry.getSize()];
+        readEntry(entry, data);
+        return data;
+    }
+
+    public int readEntry(ZipArchiveEntry entry, byte[] buffer) throws IOException {
+        checkEntrySize(entry);
+        int size = (int) entry.getSize();
+        if (buffer.length < size) {
+            throw new IllegalArgumentException("Buffer too small for " + entry.getName());
+        }
+        ByteBuffer compressed = region(getDataOffset(entry), (int) entry.getCompressedSize());
+        if (entry.getMethod() == ZipEntry.STORED) {
+            if (compressed.remaining() != size) {
+                throw new ZipException("Invalid entry size: " + entry.getName());
+            }
+            compressed.get(buffer, 0, size);
+        } else if (entry.getMethod() == ZipEntry.DEFLATED) {
+            Inflater inflater = new Inflater(true);
+            try {
+                inflater.setInput(compressed);
+                boolean paddingSupplied = false;
+                int length = 0;
+                while (length < size) {
+                    int inflated = inflater.inflate(buffer, length, size - length);
+                    if (inflated == 0) {
+                        if (inflater.needsInput() && !paddingSupplied) {
+                            inflater.setInput(INFLATER_PADDING);
+                            paddingSupplied = true;
+                            continue;
+                        }
+                        if (inflater.finished() || inflater.needsInput() || inflater.needsDictionary()) {
+                            break;
+                        }
+                    }
+                    length += inflated;
+                }
+                if (length != size) {
+                    throw new ZipException("Invalid entry size: " + entry.getName());
+                }
+            } catch (DataFormatException e) {
+                throw new ZipException("Invalid compressed data in " + entry.getName() + ": " + e.getMessage());
+            } finally {
+                inflater.end();
+            }
+        } else {
+            throw new ZipException("Unsupported compression method " + entry.getMethod() + ": " + entry.getName());
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer, 0, size);
+        if (crc.getValue() != entry.getCrc()) {
+            throw new ZipException("Invalid entry CRC: " + entry.getName());
+        }
+        return size;
+    }
+
+    private static void checkEntrySize(ZipArchiveEntry entry) throws ZipException {
+        if (entry.getSize() > Integer.MAX_VALUE - 8 || entry.getCompressedSize() > Integer.MAX_VALUE - 8) {
+            throw new ZipException("Entry too large: " + entry.getName());
+        }
+    }
+
+    public void transferRawTo(ZipArchiveEntry entry, WritableByteChannel target) throws IOException {
+        long position = getDataOffset(entry);
+        long remaining = entry.getCompressedSize();
+        if (channel == null || inflated != null) {
+            while (remaining > 0) {
+                int length = (int) Math.min(remaining, TRANSFER_CHUNK);
+                ByteBuffer data = region(position, length);
+                while (data.hasRemaining()) {
+                    target.write(data);
+                }
+                position += length;
+                remaining -= length;
+            }
+            return;
+        }
+        position += base;
+        while (remaining > 0) {
+            long transferred = channel.transferTo(position, remaining, target);
+            if (transferred <= 0) {
+                throw new EOFException("Unexpected end of archive: " + entry.getName());
+            }
+            position += transferred;
+            remaining -= transferred;
+        }
+    }
+
+    byte[] readLocalExtra(ZipArchiveEntry entry) throws IOException {
+        ByteBuffer header = region(entry.getLocalHeaderOffset(), LOCAL_HEADER_LENGTH);
+        if (header.getInt(0) != LOCAL_HEADER_SIGNATURE) {
+            throw new ZipException("Invalid local header: " + entry.getName());
+        }
+        int nameLength = Short.toUnsignedInt(header.getShort(26));
+        int extraLength = Short.toUnsignedInt(header.getShort(28));
+        if (extraLength == 0) {
+            return NO_EXTRA;
+        }
+        ByteBuffer extra = region(entry.getLocalHeaderOffset() + LOCAL_HEADER_LENGTH + nameLength, extraLength);
+        return withoutZip64Extra(extra, 0, extraLength);
+    }
+
+    private static byte[] withoutZip64Extra(ByteBuffer buffer, int start, int end) {
+        if (start == end) {
+            return NO_EXTRA;
+        }
+        ByteBuffer result = ByteBuffer.allocate(end - start);
+        int extra = start;
+        while (extra + 4 <= end) {
+            int id = Short.toUnsignedInt(buffer.getShort(extra));
+            int length = Short.toUnsignedInt(buffer.getShort(extra + 2));
+            if (extra + 4 + length > end) {
+                break;
+            }
+            if (id != ZIP64_EXTRA_ID) {
+                result.put(buffer.slice(extra, 4 + length));
+            }
+            extra += 4 + length;
+        }
+        return result.position() > 0 ? Arrays.copyOf(result.array(), result.position()) : NO_EXTRA;
+    }
+
+    long getDataOffset(ZipArchiveEntry entry) throws IOException {
+        ByteBuffer header = region(entry.getLocalHeaderOffset(), LOCAL_HEADER_LENGTH);
+        if (header.getInt(0) != LOCAL_HEADER_SIGNATURE) {
+            throw new ZipException("Invalid local header: " + entry.getName());
+        }
+        int nameLength = Short.toUnsignedInt(header.getShort(26));
+        int extraLength = Short.toUnsignedInt(header.getShort(28));
+        return entry.getLocalHeaderOffset() + LOCAL_HEADER_LENGTH + nameLength + extraLength;
+    }
+
+    private List<ZipArchiveEntry> readCentralDirectory() throws IOException {
+        long fileSize = size;
+        int tailLength = (int) Math.min(fileSize, END_OF_CENTRAL_DIRECTORY_LENGTH + 0xFFFF);
+        ByteBuffer tail = region(fileSize - tailLength, tailLength);
+
+        int endOffset = -1;
+        for (int i = tailLength - END_OF_CENTRAL_DIRECTORY_LENGTH; i >= 0; i--) {
+            if (tail.getInt(i) == END_OF_CENTRAL_DIRECTORY_SIGNATURE) {
+                endOffset = i;
+                break;
+            }
+        }
+        if (endOffset < 0) {
+            throw new ZipException("Not a zip archive: " + file.getName());
+        }
+
+        long entryCount = Short.toUnsignedInt(tail.getShort(endOffset + 10));
+        long directorySize = Integer.toUnsignedLong(tail.getInt(endOffset + 12));
+        long directoryOffset = Integer.toUnsignedLong(tail.getInt(endOffset + 16));
+        long endPosition = fileSize - tailLength + endOffset;
+
+        if (entryCount == ZIP64_MAGIC_COUNT || directorySize == ZIP64_MAGIC || directoryOffset == ZIP64_MAGIC) {
+            if (endPosition >= ZIP64_LOCATOR_LENGTH) {
+                ByteBuffer locator = region(endPosition - ZIP64_LOCATOR_LENGTH, ZIP64_LOCATOR_LENGTH);
+                if (locator.getInt(0) == ZIP64_LOCATOR_SIGNATURE) {
+                    ByteBuffer record = region(locator.getLong(8), ZIP64_END_OF_CENTRAL_DIRECTORY_LENGTH);
+                    if (record.getInt(0) != ZIP64_END_OF_CENTRAL_DIRECTORY_SIGNATURE) {
+                        throw new ZipException("Invalid zip64 end of central directory: " + file.getName());
+                    }
+                    entryCount = record.getLong(32);
+                    directorySize = record.getLong(40);
+                    directoryOffset = record.getLong(48);
+                }
+            }
+        }
+        if (directorySize > Integer.MAX_VALUE || directoryOffset + directorySize > fileSize) {
+            throw new ZipException("Invalid central directory: " + file.getName());
+        }
+
+        ByteBuffer directory = region(directoryOffset, (int) directorySize);
+        List<ZipArchiveEntry> result = new ArrayList<>((int) Math.min(entryCount, 1 << 16));
+        int position = 0;
+        while (position + CENTRAL_HEADER_LENGTH <= directory.limit()
+                && directory.getInt(position) == CENTRAL_HEADER_SIGNATURE) {
+            int flags = Short.toUnsignedInt(directory.getShort(position + 8));
+            int method = Short.toUnsignedInt(directory.getShort(position + 10));
+            int dosTime = directory.getInt(position + 12);
+            long crc = Integer.toUnsignedLong(directory.getInt(position + 16));
+            long compressedSize = Integer.toUnsignedLong(directory.getInt(position + 20));
+            long size = Integer.toUnsignedLong(directory.getInt(position + 24));
+            int nameLength = Short.toUnsignedInt(directory.getShort(position + 28));
+            int extraLength = Short.toUnsignedInt(directory.getShort(position + 30));
+            int commentLength = Short.toUnsignedInt(directory.getShort(position + 32));
+            int externalAttributes = directory.getInt(position + 38);
+            long localHeaderOffset = Integer.toUnsignedLong(directory.getInt(position + 42));
+
+            byte[] nameBytes = new byte[nameLength];
+            directory.get(position + CENTRAL_HEADER_LENGTH, nameBytes);
+            String name = new String(nameBytes, StandardCharsets.UTF_8);
+
+            int extra = position + CENTRAL_HEADER_LENGTH + nameLength;
+            int extraEnd = extra + extraLength;
+            while (extra + 4 <= extraEnd) {
+                int id = Short.toUnsignedInt(directory.getShort(extra));
+                int length = Short.toUnsignedInt(directory.getShort(extra + 2));
+                if (id == ZIP64_EXTRA_ID) {
+                    int field = extra + 4;
+                    if (size == ZIP64_MAGIC && field + 8 <= extraEnd) {
+                        size = directory.getLong(field);
+                        field += 8;
+                    }
+                    if (compressedSize == ZIP64_MAGIC && field + 8 <= extraEnd) {
+                        compressedSize = directory.getLong(field);
+                        field += 8;
+                    }
+                    if (localHeaderOffset == ZIP64_MAGIC && field + 8 <= extraEnd) {
+                        localHeaderOffset = directory.getLong(field);
+                    }
+                }
+                extra += 4 + length;
+            }
+
+            result.add(new ZipArchiveEntry(name, flags, method, dosTime, crc, compressedSize, size,
+                    localHeaderOffset, externalAttributes,
+                    withoutZip64Extra(directory, position + CENTRAL_HEADER_LENGTH + nameLength, extraEnd)));
+            position = extraEnd + commentLength;
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private ByteBuffer region(long position, int length) throws IOException {
+        if (mapped != null) {
+            if (position < 0 || position + length > mapped.capacity()) {
+                throw new EOFException("Unexpected end of archive: " + file.getName());
+            }
+            return mapped.slice((int) position, length).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(buffer, position);
+        return buffer;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        if (inflated != null) {
+            inflated.read(buffer, base + position);
+        } else {
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, base + position);
+                if (read < 0) {
+                    throw new EOFException("Unexpected end of archive: " + file.getName());
+                }
+                position += read;
+            }
+        }
+        buffer.flip();
+    }
+
+    @Override
+    public void close() throws IOException {
+        releaseInflaters();
+        if (ownsChannel) {
+            channel.close();
+        }
+    }
+
+    private static class InflatedSource {
+        private final ZipArchive parent;
+        private final ZipArchiveEntry entry;
+        private final long dataOffset;
+        private final List<InflaterCursor> idleCursors = new ArrayList<>();
+
+        InflatedSource(ZipArchive parent, ZipArchiveEntry entry, long dataOffset) {
+            this.parent = parent;
+            this.entry = entry;
+            this.dataOffset = dataOffset;
+        }
+
+        void read(ByteBuffer buffer, long position) throws IOException {
+            if (position < 0 || position + buffer.remaining() > entry.getSize()) {
+                throw new EOFException("Unexpected end of archive: " + entry.getName());
+            }
+            InflaterCursor cursor = acquireCursor(position);
+            try {
+                cursor.read(buffer, position);
+            } catch (IOException | RuntimeException e) {
+                cursor.end();
+                cursor = null;
+                throw e;
+            } finally {
+                if (cursor != null) {
+                    releaseCursor(cursor);
+                }
+            }
+        }
+
+        synchronized void releaseInflaters() {
+            for (InflaterCursor cursor : idleCursors) {
+                cursor.end();
+            }
+            idleCursors.clear();
+        }
+
+        private synchronized InflaterCursor acquireCursor(long position) {
+            InflaterCursor best = null;
+            for (InflaterCursor cursor : idleCursors) {
+                if (cursor.position <= position && (best == null || cursor.position > best.position)) {
+                    best = cursor;
+                }
+            }
+            if (best == null && !idleCursors.isEmpty()) {
+                best = idleCursors.get(idleCursors.size() - 1);
+                best.restart();
+            }
+            if (best == null) {
+                return new InflaterCursor(this);
+            }
+            idleCursors.remove(best);
+            return best;
+        }
+
+        private synchronized void releaseCursor(InflaterCursor cursor) {
+            idleCursors.add(cursor);
+        }
+    }
+
+    private static class InflaterCursor {
+        private final InflatedSource source;
+        private final Inflater inflater = new Inflater(true);
+        private final ByteBuffer skipBuffer = ByteBuffer.allocate(8 * 1024);
+        private long inputPosition;
+        private long position;
+        private boolean paddingSupplied;
+
+        InflaterCursor(InflatedSource source) {
+            this.source = source;
+        }
+
+        void read(ByteBuffer buffer, long target) throws IOException {
+            if (target < position) {
+                restart();
+            }
+            while (position < target) {
+                skipBuffer.clear();
+                skipBuffer.limit((int) Math.min(skipBuffer.capacity(), target - position));
+                inflate(skipBuffer);
+            }
+            inflate(buffer);
+        }
+
+        void restart() {
+            inflater.reset();
+            inputPosition = 0;
+            position = 0;
+            paddingSupplied = false;
+        }
+
+        void end() {
+            inflater.end();
+        }
+
+        private void inflate(ByteBuffer buffer) throws IOException {
+            ZipArchiveEntry entry = source.entry;
+            try {
+                while (buffer.hasRemaining()) {
+                    int inflated = inflater.inflate(buffer);
+                    position += inflated;
+                    if (inflated > 0) {
+                        continue;
+                    }
+                    if (inflater.finished() || inflater.needsDictionary()) {
+                        throw new ZipException("Unexpected end of compressed data: " + entry.getName());
+                    }
+                    if (inflater.needsInput()) {
+                        supplyInput();
+                    }
+                }
+            } catch (DataFormatException e) {
+                throw new ZipException("Invalid compressed data in " + entry.getName() + ": " + e.getMessage());
+            }
+        }
+
+        private void supplyInput() throws IOException {
+            long remaining = source.entry.getCompressedSize() - inputPosition;
+            if (remaining > 0) {
+                int length = (int) Math.min(remaining, TRANSFER_CHUNK);
+                inflater.setInput(source.parent.region(source.dataOffset + inputPosition, length));
+                inputPosition += length;
+            } else if (!paddingSupplied) {
+                inflater.setInput(INFLATER_PADDING);
+                paddingSupplied = true;
+            } else {
+                throw new ZipException("Unexpected end of compressed data: " + source.entry.getName());
+            }
+        }
+    }
+}
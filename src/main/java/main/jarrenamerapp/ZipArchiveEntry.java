@@ -0,0 +1,72 @@
+package main.jarrenamerapp;
+
+public class ZipArchiveEntry {
+    private final String name;
+    private final int flags;
+    private final int method;
+    private final int dosTime;
+    private final long crc;
+    private final long compressedSize;
+    private final long size;
+    private final long localHeaderOffset;
+    private final int externalAttributes;
+    private final byte[] extra;
+
+    ZipArchiveEntry(String name, int flags, int method, int dosTime, long crc, long compressedSize,
+                    long size, long localHeaderOffset, int externalAttributes, byte[] extra) {
+        this.name = name;
+        this.flags = flags;
+        this.method = method;
+        this.dosTime = dosTime;
+        this.crc = crc;
+        this.compressedSize = compressedSize;
+        this.size = size;
+        this.localHeaderOffset = localHeaderOffset;
+        this.externalAttributes = externalAttributes;
+        this.extra = extra;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getFlags() {
+        return flags;
+    }
+
+    public int getMethod() {
+        return method;
+    }
+
+    public int getDosTime() {
+        return dosTime;
+    }
+
+    public long getCrc() {
+        return crc;
+    }
+
+    public long getCompressedSize() {
+        return compressedSize;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getLocalHeaderOffset() {
+        return localHeaderOffset;
+    }
+
+    public int getExternalAttributes() {
+        return externalAttributes;
+    }
+
+    byte[] getExtra() {
+        return extra;
+    }
+
+    public boolean isDirectory() {
+        return name.endsWith("/");
+    }
+}
@@ -0,0 +1,268 @@
+package main.jarrenamerapp;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ZipArchiveWriter implements Closeable {
+    private static final int VERSION_DEFAULT = 20;
+    private static final int VERSION_ZIP64 = 45;
+    private static final int FLAG_ENCRYPTED = 0x0001;
+    private static final int FLAG_DATA_DESCRIPTOR = 0x0008;
+    private static final int FLAG_UTF8 = 0x0800;
+    private static final int DATA_DESCRIPTOR_SIGNATURE = 0x08074b50;
+    private static final int MAX_EXTRA_LENGTH = 0xFFFF;
+    private static final byte[] NO_EXTRA = new byte[0];
+
+    private final WritableByteChannel channel;
+    private final List<CentralRecord> records = new ArrayList<>();
+    private long position;
+
+    public ZipArchiveWriter(File file) throws IOException {
+        this(FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE));
+    }
+
+    public ZipArchiveWriter(WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    public void write(EncodedEntry entry) throws IOException {
+        byte[] name = entry.getName().getBytes(StandardCharsets.UTF_8);
+        int flags = entry.getFlags();
+        if ((flags & FLAG_ENCRYPTED) == 0) {
+            flags &= ~FLAG_DATA_DESCRIPTOR;
+        }
+        if (!isAscii(name)) {
+            flags |= FLAG_UTF8;
+        }
+        boolean zip64Sizes = entry.getSize() >= ZipArchive.ZIP64_MAGIC
+                || entry.getCompressedSize() >= ZipArchive.ZIP64_MAGIC;
+        int zip64Length = zip64Sizes ? 20 : 0;
+        byte[] extra = entry.isRawCopy() ? entry.getSource().readLocalExtra(entry.getSourceEntry()) : NO_EXTRA;
+        if (zip64Length + extra.length > MAX_EXTRA_LENGTH) {
+            extra = NO_EXTRA;
+        }
+
+        CentralRecord record = new CentralRecord(name, flags, entry, position);
+        ByteBuffer header = ByteBuffer.allocate(ZipArchive.LOCAL_HEADER_LENGTH + name.length + zip64Length
+                        + extra.length)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(ZipArchive.LOCAL_HEADER_SIGNATURE);
+        header.putShort((short) (zip64Sizes ? VERSION_ZIP64 : VERSION_DEFAULT));
+        header.putShort((short) flags);
+        header.putShort((short) entry.getMethod());
+        header.putInt(entry.getDosTime());
+        header.putInt((int) entry.getCrc());
+        if (zip64Sizes) {
+            header.putInt((int) ZipArchive.ZIP64_MAGIC);
+            header.putInt((int) ZipArchive.ZIP64_MAGIC);
+        } else {
+            header.putInt((int) entry.getCompressedSize());
+            header.putInt((int) entry.getSize());
+        }
+        header.putShort((short) name.length);
+        header.putShort((short) (zip64Length + extra.length));
+        header.put(name);
+        if (zip64Sizes) {
+            header.putShort((short) ZipArchive.ZIP64_EXTRA_ID);
+            header.putShort((short) 16);
+            header.putLong(entry.getSize());
+            header.putLong(entry.getCompressedSize());
+        }
+        header.put(extra);
+        header.flip();
+        writeFully(header);
+
+        if (entry.isRawCopy()) {
+            entry.getSource().transferRawTo(entry.getSourceEntry(), channel);
+            position += entry.getCompressedSize();
+        } else if (entry.getDataFile() != null) {
+            transferFile(entry);
+        } else {
+            writeFully(ByteBuffer.wrap(entry.getData()));
+        }
+        if ((flags & FLAG_DATA_DESCRIPTOR) != 0) {
+            writeDataDescriptor(entry, zip64Sizes);
+        }
+        records.add(record);
+    }
+
+    private void transferFile(EncodedEntry entry) throws IOException {
+        try (FileChannel data = FileChannel.open(entry.getDataFile().toPath(), StandardOpenOption.READ)) {
+            long transferred = 0;
+            while (transferred < entry.getCompressedSize()) {
+                long count = data.transferTo(transferred, entry.getCompressedSize() - transferred, channel);
+                if (count <= 0) {
+                    throw new EOFException("Unexpected end of entry data: " + entry.getName());
+                }
+                transferred += count;
+            }
+            position += transferred;
+        }
+    }
+
+    private void writeDataDescriptor(EncodedEntry entry, boolean zip64Sizes) throws IOException {
+        ByteBuffer descriptor = ByteBuffer.allocate(zip64Sizes ? 24 : 16).order(ByteOrder.LITTLE_ENDIAN);
+        descriptor.putInt(DATA_DESCRIPTOR_SIGNATURE);
+        descriptor.putInt((int) entry.getCrc());
+        if (zip64Sizes) {
+            descriptor.putLong(entry.getCompressedSize());
+            descriptor.putLong(entry.getSize());
+        } else {
+            descriptor.putInt((int) entry.getCompressedSize());
+            descriptor.putInt((int) entry.getSize());
+        }
+        descriptor.flip();
+        writeFully(descriptor);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            writeCentralDirectory();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void writeCentralDirectory() throws IOException {
+        long directoryOffset = position;
+        for (CentralRecord record : records) {
+            boolean zip64Size = record.size >= ZipArchive.ZIP64_MAGIC;
+            boolean zip64CompressedSize = record.compressedSize >= ZipArchive.ZIP64_MAGIC;
+            boolean zip64Offset = record.localHeaderOffset >= ZipArchive.ZIP64_MAGIC;
+            int zip64Length = (zip64Size ? 8 : 0) + (zip64CompressedSize ? 8 : 0) + (zip64Offset ? 8 : 0);
+            if (zip64Length > 0) {
+                zip64Length += 4;
+            }
+            byte[] extra = zip64Length + record.extra.length > MAX_EXTRA_LENGTH ? NO_EXTRA : record.extra;
+            int extraLength = zip64Length + extra.length;
+
+            ByteBuffer header = ByteBuffer.allocate(ZipArchive.CENTRAL_HEADER_LENGTH + record.name.length + extraLength)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            int version = zip64Length > 0 ? VERSION_ZIP64 : VERSION_DEFAULT;
+            header.putInt(ZipArchive.CENTRAL_HEADER_SIGNATURE);
+            header.putShort((short) version);
+            header.putShort((short) version);
+            header.putShort((short) record.flags);
+            header.putShort((short) record.method);
+            header.putInt(record.dosTime);
+            header.putInt((int) record.crc);
+            header.putInt((int) (zip64CompressedSize ? ZipArchive.ZIP64_MAGIC : record.compressedSize));
+            header.putInt((int) (zip64Size ? ZipArchive.ZIP64_MAGIC : record.size));
+            header.putShort((short) record.name.length);
+            header.putShort((short) extraLength);
+            header.putShort((short) 0);
+            header.putShort((short) 0);
+            header.putShort((short) 0);
+            header.putInt(record.externalAttributes);
+            header.putInt((int) (zip64Offset ? ZipArchive.ZIP64_MAGIC : record.localHeaderOffset));
+            header.put(record.name);
+            if (zip64Length > 0) {
+                header.putShort((short) ZipArchive.ZIP64_EXTRA_ID);
+                header.putShort((short) (zip64Length - 4));
+                if (zip64Size) {
+                    header.putLong(record.size);
+                }
+                if (zip64CompressedSize) {
+                    header.putLong(record.compressedSize);
+                }
+                if (zip64Offset) {
+                    header.putLong(record.localHeaderOffset);
+                }
+            }
+            header.put(extra);
+            header.flip();
+            writeFully(header);
+        }
+        long directorySize = position - directoryOffset;
+
+        boolean zip64 = records.size() >= ZipArchive.ZIP64_MAGIC_COUNT
+                || directoryOffset >= ZipArchive.ZIP64_MAGIC
+                || directorySize >= ZipArchive.ZIP64_MAGIC;
+        if (zip64) {
+            long zip64EndOffset = position;
+            ByteBuffer end = ByteBuffer.allocate(ZipArchive.ZIP64_END_OF_CENTRAL_DIRECTORY_LENGTH
+                    + ZipArchive.ZIP64_LOCATOR_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+            end.putInt(ZipArchive.ZIP64_END_OF_CENTRAL_DIRECTORY_SIGNATURE);
+            end.putLong(ZipArchive.ZIP64_END_OF_CENTRAL_DIRECTORY_LENGTH - 12);
+            end.putShort((short) VERSION_ZIP64);
+            end.putShort((short) VERSION_ZIP64);
+            end.putInt(0);
+            end.putInt(0);
+            end.putLong(records.size());
+            end.putLong(records.size());
+            end.putLong(directorySize);
+            end.putLong(directoryOffset);
+            end.putInt(ZipArchive.ZIP64_LOCATOR_SIGNATURE);
+            end.putInt(0);
+            end.putLong(zip64EndOffset);
+            end.putInt(1);
+            end.flip();
+            writeFully(end);
+        }
+
+        ByteBuffer end = ByteBuffer.allocate(ZipArchive.END_OF_CENTRAL_DIRECTORY_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+        end.putInt(ZipArchive.END_OF_CENTRAL_DIRECTORY_SIGNATURE);
+        end.putShort((short) 0);
+        end.putShort((short) 0);
+        end.putShort((short) Math.min(records.size(), ZipArchive.ZIP64_MAGIC_COUNT));
+        end.putShort((short) Math.min(records.size(), ZipArchive.ZIP64_MAGIC_COUNT));
+        end.putInt((int) Math.min(directorySize, ZipArchive.ZIP64_MAGIC));
+        end.putInt((int) Math.min(directoryOffset, ZipArchive.ZIP64_MAGIC));
+        end.putShort((short) 0);
+        end.flip();
+        writeFully(end);
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer);
+        }
+    }
+
+    private static boolean isAscii(byte[] bytes) {
+        for (byte b : bytes) {
+            if (b < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static class CentralRecord {
+        private final byte[] name;
+        private final int flags;
+        private final int method;
+        private final int dosTime;
+        private final long crc;
+        private final long compressedSize;
+        private final long size;
+        private final int externalAttributes;
+        private final byte[] extra;
+        private final long localHeaderOffset;
+
+        CentralRecord(byte[] name, int flags, EncodedEntry entry, long localHeaderOffset) {
+            this.name = name;
+            this.flags = flags;
+            this.method = entry.getMethod();
+            this.dosTime = entry.getDosTime();
+            this.crc = entry.getCrc();
+            this.compressedSize = entry.getCompressedSize();
+            this.size = entry.getSize();
+            this.externalAttributes = entry.getExternalAttributes();
+            this.extra = entry.getExtra();
+            this.localHeaderOffset = localHeaderOffset;
+        }
+    }
+}
@@ -7,6 +7,7 @@ module main.jarrenamerapp {
     requires org.kordamp.ikonli.materialdesign2;
     requires org.objectweb.asm;
     requires org.objectweb.asm.commons;
+    requires jdk.jfr;
 
     opens main.jarrenamerapp to javafx.fxml;
     exports main.jarrenamerapp;
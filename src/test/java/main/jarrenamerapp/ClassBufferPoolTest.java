@@ -0,0 +1,37 @@
+package main.jarrenamerapp;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClassBufferPoolTest {
+
+    @Test
+    void bufferIsReusedOnTheSameThread() {
+        byte[] buffer = ClassBufferPool.get(100_000);
+
+        assertTrue(buffer.length >= 100_000);
+        assertSame(buffer, ClassBufferPool.get(10));
+        assertSame(buffer, ClassBufferPool.get(buffer.length));
+    }
+
+    @Test
+    void bufferGrowsToNextPowerOfTwo() {
+        ClassBufferPool.get(1);
+
+        assertEquals(1 << 18, ClassBufferPool.get((1 << 17) + 1).length);
+    }
+
+    @Test
+    void oversizedEntriesGetTheirOwnBuffer() {
+        byte[] pooled = ClassBufferPool.get(1);
+        byte[] large = ClassBufferPool.get((1 << 22) + 1);
+
+        assertEquals((1 << 22) + 1, large.length);
+        assertNotSame(large, ClassBufferPool.get((1 << 22) + 1));
+        assertSame(pooled, ClassBufferPool.get(1));
+    }
+}
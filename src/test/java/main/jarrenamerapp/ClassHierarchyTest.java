@@ -0,0 +1,104 @@
+package main.jarrenamerapp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClassHierarchyTest {
+
+    @TempDir
+    Path directory;
+
+    private static byte[] type(String name, String superName, String[] interfaces, String... methods) {
+        boolean isInterface = superName == null;
+        ClassWriter writer = new ClassWriter(0);
+        writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_ABSTRACT
+                        | (isInterface ? Opcodes.ACC_INTERFACE : Opcodes.ACC_SUPER),
+                name, null, isInterface ? "java/lang/Object" : superName, interfaces);
+        for (String method : methods) {
+            int access = Opcodes.ACC_ABSTRACT;
+            if (method.startsWith("private ")) {
+                method = method.substring(8);
+                access = Opcodes.ACC_PRIVATE | Opcodes.ACC_ABSTRACT;
+            } else {
+                access |= Opcodes.ACC_PUBLIC;
+            }
+            int descriptor = method.indexOf('(');
+            writer.visitMethod(access, method.substring(0, descriptor), method.substring(descriptor), null, null)
+                    .visitEnd();
+        }
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    private ClassHierarchy load() throws IOException {
+        String[] none = new String[0];
+        TestJars.write(directory.resolve("types.jar"), TestJars.entries(
+                "t/I.class", type("t/I", null, none, "m()V"),
+                "t/A.class", type("t/A", "java/lang/Object", none, "m()V", "m(I)V", "toString()Ljava/lang/String;"),
+                "t/B.class", type("t/B", "t/A", none, "m()V", "private m(J)V"),
+                "t/C.class", type("t/C", "t/A", new String[]{"t/I"}),
+                "t/D.class", type("t/D", "java/lang/Object", none, "m()V")));
+        try (ZipArchive archive = ZipArchive.open(directory.resolve("types.jar").toFile())) {
+            return new ClassHierarchy(ClassModel.load(archive, 1));
+        }
+    }
+
+    @Test
+    void overridingMethodsShareOneFamily() throws IOException {
+        ClassHierarchy hierarchy = load();
+
+        MethodFamily family = hierarchy.getMethodFamily("t/A", "m", "()V");
+        assertSame(family, hierarchy.getMethodFamily("t/B", "m", "()V"));
+        assertFalse(family.isExternal());
+    }
+
+    @Test
+    void inheritedMethodJoinsInterfaceFamily() throws IOException {
+        ClassHierarchy hierarchy = load();
+
+        MethodFamily family = hierarchy.getMethodFamily("t/I", "m", "()V");
+        assertSame(family, hierarchy.getMethodFamily("t/A", "m", "()V"));
+        assertEquals(Set.of("t/I", "t/A", "t/B"), Set.copyOf(family.getOwners()));
+    }
+
+    @Test
+    void unrelatedOverloadAndPrivateMethodsStayApart() throws IOException {
+        ClassHierarchy hierarchy = load();
+
+        MethodFamily family = hierarchy.getMethodFamily("t/A", "m", "()V");
+        assertNotSame(family, hierarchy.getMethodFamily("t/A", "m", "(I)V"));
+        assertNotSame(family, hierarchy.getMethodFamily("t/D", "m", "()V"));
+        assertNull(hierarchy.getMethodFamily("t/B", "m", "(J)V"));
+    }
+
+    @Test
+    void familyOverridingJdkMethodIsExternal() throws IOException {
+        ClassHierarchy hierarchy = load();
+
+        assertTrue(hierarchy.getMethodFamily("t/A", "toString", "()Ljava/lang/String;").isExternal());
+    }
+
+    @Test
+    void supertypesAndSubtypesAreTransitive() throws IOException {
+        ClassHierarchy hierarchy = load();
+
+        assertEquals(Set.of("t/A", "java/lang/Object", "t/I"), Set.copyOf(hierarchy.getSupertypes("t/C")));
+        assertEquals(Set.of("t/B", "t/C"), Set.copyOf(hierarchy.getSubtypes("t/A")));
+        assertEquals(Set.of("t/B", "t/C", "t/D", "t/A", "t/I"), Set.copyOf(hierarchy.getSubtypes("java/lang/Object")));
+        assertEquals(List.of(), hierarchy.getSubtypes("t/D"));
+    }
+}
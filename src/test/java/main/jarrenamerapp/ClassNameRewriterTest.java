@@ -0,0 +1,75 @@
+package main.jarrenamerapp;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClassNameRewriterTest {
+    private final ClassNameRewriter rewriter = new ClassNameRewriter(Map.of("a.b.Foo", "c.Bar", "Top", "NewTop"));
+
+    private String rewriteResource(String entryName, String text) {
+        byte[] content = text.getBytes(StandardCharsets.UTF_8);
+        byte[] rewritten = rewriter.rewriteResource(entryName, content, content.length);
+        return rewritten != null ? new String(rewritten, StandardCharsets.UTF_8) : null;
+    }
+
+    @Test
+    void qualifiedNamesAreRewrittenOnlyAtNameBoundaries() {
+        assertEquals("c.Bar", rewriter.rewrite("a.b.Foo"));
+        assertEquals("c/Bar", rewriter.rewrite("a/b/Foo"));
+        assertEquals("[Lc/Bar;", rewriter.rewrite("[La/b/Foo;"));
+        assertEquals("load c.Bar now", rewriter.rewrite("load a.b.Foo now"));
+        assertEquals("a.b.FooBar", rewriter.rewrite("a.b.FooBar"));
+        assertEquals("x.a.b.Foo", rewriter.rewrite("x.a.b.Foo"));
+        assertEquals("Top", rewriter.rewrite("Top"));
+    }
+
+    @Test
+    void serviceFileNameAndLinesAreRewritten() {
+        assertEquals("META-INF/services/c.Bar", rewriter.rewriteEntryName("META-INF/services/a.b.Foo"));
+        assertEquals("META-INF/services/NewTop", rewriter.rewriteEntryName("META-INF/services/Top"));
+        assertEquals("META-INF/services/x/a.b.Foo", rewriter.rewriteEntryName("META-INF/services/x/a.b.Foo"));
+        assertEquals("c.Bar\r\n  NewTop\n# a.b.FooBar\n",
+                rewriteResource("META-INF/services/x.Service", "a.b.Foo\r\n  Top\n# a.b.FooBar\n"));
+    }
+
+    @Test
+    void manifestClassAttributesAreRewrittenAndWrapped() {
+        assertEquals("Manifest-Version: 1.0\nMain-Class: NewTop\n",
+                rewriteResource("META-INF/MANIFEST.MF", "Manifest-Version: 1.0\nMain-Class: Top\n"));
+
+        String longValue = "a.b.Foo " + "x".repeat(80);
+        String rewritten = rewriteResource("META-INF/MANIFEST.MF", "Class-Path: " + longValue + "\r\n");
+        assertEquals("Class-Path: c.Bar " + "x".repeat(80), rewritten.replace("\r\n ", "").trim());
+        for (String line : rewritten.split("\r\n")) {
+            assertTrue(line.getBytes(StandardCharsets.UTF_8).length <= 72);
+        }
+    }
+
+    @Test
+    void unchangedOrBinaryResourcesAreNotRewritten() {
+        assertNull(rewriteResource("META-INF/MANIFEST.MF", "Main-Class: a.b.FooBar\n"));
+        assertNull(rewriteResource("beans.xml", "<bean class=\"Top\"/>"));
+        assertEquals("<bean class=\"c.Bar\"/>", rewriteResource("beans.xml", "<bean class=\"a.b.Foo\"/>"));
+        byte[] binary = {(byte) 0xFF, (byte) 0xFE, 'a'};
+        assertNull(rewriter.rewriteResource("beans.xml", binary, binary.length));
+    }
+
+    @Test
+    void onlyKnownTextResourcesAreRecognized() {
+        assertTrue(ClassNameRewriter.isTextResource("META-INF/MANIFEST.MF"));
+        assertTrue(ClassNameRewriter.isTextResource("META-INF/services/a.b.Foo"));
+        assertTrue(ClassNameRewriter.isTextResource("config/beans.xml"));
+        assertTrue(ClassNameRewriter.isTextResource("META-INF/spring.factories"));
+        assertTrue(ClassNameRewriter.isTextResource(
+                "META-INF/spring/org.springframework.boot.autoconfigure.AutoConfiguration.imports"));
+        assertFalse(ClassNameRewriter.isTextResource("META-INF/services/"));
+        assertFalse(ClassNameRewriter.isTextResource("application.properties"));
+    }
+}
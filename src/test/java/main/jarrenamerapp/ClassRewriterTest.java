@@ -0,0 +1,124 @@
+package main.jarrenamerapp;
+
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.commons.Remapper;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ClassRewriterTest {
+    private static final String STRING_GETTER = "()Ljava/lang/String;";
+
+    private final RenameMetrics metrics = new RenameMetrics();
+
+    private ClassRewriter rewriter(String... namesAndNewNames) {
+        Map<String, String> mapping = new HashMap<>();
+        for (int i = 0; i < namesAndNewNames.length; i += 2) {
+            mapping.put(namesAndNewNames[i], namesAndNewNames[i + 1]);
+        }
+        return new ClassRewriter(new Remapper() {
+            @Override
+            public String map(String internalName) {
+                return mapping.getOrDefault(internalName, internalName);
+            }
+        }, metrics);
+    }
+
+    private static byte[] generateCaller(String name, boolean callTarget) {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
+        writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, name, null, "java/lang/Object", null);
+
+        MethodVisitor run = writer.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "run", STRING_GETTER, null, null);
+        run.visitCode();
+        Label otherwise = new Label();
+        run.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/System", "nanoTime", "()J", false);
+        run.visitInsn(Opcodes.LCONST_0);
+        run.visitInsn(Opcodes.LCMP);
+        run.visitJumpInsn(Opcodes.IFEQ, otherwise);
+        run.visitMethodInsn(Opcodes.INVOKESTATIC, name, "name", STRING_GETTER, false);
+        run.visitInsn(Opcodes.ARETURN);
+        run.visitLabel(otherwise);
+        run.visitLdcInsn("B");
+        run.visitInsn(Opcodes.ARETURN);
+        run.visitMaxs(0, 0);
+        run.visitEnd();
+
+        MethodVisitor target = writer.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "name", STRING_GETTER, null, null);
+        target.visitCode();
+        if (callTarget) {
+            target.visitMethodInsn(Opcodes.INVOKESTATIC, "test/Target", "name", STRING_GETTER, false);
+        } else {
+            target.visitLdcInsn("A");
+        }
+        target.visitInsn(Opcodes.ARETURN);
+        target.visitMaxs(0, 0);
+        target.visitEnd();
+
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    private static byte[] generateTarget(String name) {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
+        writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, name, null, "java/lang/Object", null);
+        MethodVisitor method = writer.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "name", STRING_GETTER, null, null);
+        method.visitCode();
+        method.visitLdcInsn("A");
+        method.visitInsn(Opcodes.ARETURN);
+        method.visitMaxs(0, 0);
+        method.visitEnd();
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    private static Object run(String className, Map<String, byte[]> classes) throws ReflectiveOperationException {
+        ClassLoader loader = new ClassLoader(null) {
+            @Override
+            protected Class<?> findClass(String name) throws ClassNotFoundException {
+                byte[] bytes = classes.get(name.replace('.', '/'));
+                if (bytes == null) {
+                    throw new ClassNotFoundException(name);
+                }
+                return defineClass(name, bytes, 0, bytes.length);
+            }
+        };
+        return loader.loadClass(className).getMethod("run").invoke(null);
+    }
+
+    @Test
+    void classWithNothingToRenameIsCopiedUnchanged() {
+        byte[] classBytes = generateCaller("test/Caller", false);
+
+        assertArrayEquals(classBytes, rewriter("test/Target", "test/Renamed").rewrite(classBytes));
+        assertEquals(0, metrics.getRewriteFallbacks());
+    }
+
+    @Test
+    void rewrittenMethodsKeepValidFrames() throws ReflectiveOperationException {
+        byte[] classBytes = generateCaller("test/Caller", true);
+
+        byte[] rewritten = rewriter("test/Target", "test/Renamed").rewrite(classBytes);
+
+        assertEquals("A", run("test.Caller", Map.of("test/Caller", rewritten,
+                "test/Renamed", generateTarget("test/Renamed"))));
+        assertEquals(0, metrics.getRewriteFallbacks());
+    }
+
+    @Test
+    void renamedClassKeepsItsMethods() throws ReflectiveOperationException {
+        byte[] classBytes = generateCaller("test/Caller", false);
+
+        byte[] rewritten = rewriter("test/Caller", "test/Other").rewrite(classBytes);
+
+        assertEquals("test/Other", new ClassReader(rewritten).getClassName());
+        assertEquals("A", run("test.Other", Map.of("test/Other", rewritten)));
+    }
+}
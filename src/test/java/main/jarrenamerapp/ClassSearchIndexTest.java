@@ -0,0 +1,100 @@
+package main.jarrenamerapp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ClassSearchIndexTest {
+    private static final String[] PARTS = {"com", "acme", "Foo", "BAR", "io", "State", "İndex", "ıd", "Kelvin",
+            "straße", "Util", "x", "Impl", "$1", "ab"};
+
+    private static ClassSelection generate() {
+        Random random = new Random(42);
+        List<String> classNames = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder className = new StringBuilder();
+            int length = 1 + random.nextInt(4);
+            for (int part = 0; part < length; part++) {
+                if (part > 0) {
+                    className.append('.');
+                }
+                className.append(PARTS[random.nextInt(PARTS.length)]);
+                if (random.nextInt(3) == 0) {
+                    className.append(random.nextInt(100));
+                }
+            }
+            classNames.add(className.toString());
+        }
+        return new ClassSelection(classNames);
+    }
+
+    private static String fold(String value) {
+        StringBuilder folded = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            folded.append(Character.toLowerCase(Character.toUpperCase(value.charAt(i))));
+        }
+        return folded.toString();
+    }
+
+    private static int[] scan(ClassSelection selection, String query) {
+        return IntStream.range(0, selection.size())
+                .filter(id -> fold(selection.getClassName(id)).contains(fold(query)))
+                .toArray();
+    }
+
+    @Test
+    void findsTheSameClassesAsAPlainScan() {
+        ClassSelection selection = generate();
+        ClassSearchIndex index = new ClassSearchIndex(selection);
+        Random random = new Random(7);
+        for (int i = 0; i < 500; i++) {
+            String className = selection.getClassName(random.nextInt(selection.size()));
+            int start = random.nextInt(className.length());
+            int end = start + 1 + random.nextInt(Math.min(8, className.length() - start));
+            String query = className.substring(start, end);
+            query = random.nextBoolean() ? query.toUpperCase() : query;
+            assertArrayEquals(scan(selection, query), index.find(query), query);
+        }
+    }
+
+    @Test
+    void refinedQueriesMatchAFreshIndex() {
+        ClassSelection selection = generate();
+        ClassSearchIndex index = new ClassSearchIndex(selection);
+        String query = "";
+        for (String next : new String[]{"a", "ac", "acm", "acme", "acme.", "acme.f", "cme.f", "ACME.FOO"}) {
+            query = next;
+            assertArrayEquals(scan(selection, query), index.find(query), query);
+        }
+        assertArrayEquals(new ClassSearchIndex(selection).find(query), index.find(query));
+    }
+
+    @Test
+    void shortQueriesAndCaseFolding() {
+        ClassSelection selection = new ClassSelection(List.of("com.acme.Foo", "com.acme.ſtate", "org.Index",
+                "org.ıd", "Bar"));
+        ClassSearchIndex index = new ClassSearchIndex(selection);
+
+        assertEquals(selection.size(), index.find("").length);
+        assertArrayEquals(scan(selection, "o"), index.find("o"));
+        assertArrayEquals(scan(selection, "AR"), index.find("AR"));
+        assertEquals(List.of("com.acme.Foo"), names(selection, index.find("ACME.f")));
+        assertEquals(List.of("com.acme.ſtate"), names(selection, index.find("STATE")));
+        assertEquals(List.of("org.ıd"), names(selection, index.find("g.ID")));
+        assertEquals(List.of(), names(selection, index.find("missing")));
+    }
+
+    private static List<String> names(ClassSelection selection, int[] ids) {
+        List<String> names = new ArrayList<>();
+        for (int id : ids) {
+            names.add(selection.getClassName(id));
+        }
+        return names;
+    }
+}
@@ -0,0 +1,83 @@
+package main.jarrenamerapp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClassSelectionTest {
+    private final ClassSelection selection = new ClassSelection(List.of(
+            "org.z.Last", "com.acme.b.Deep", "com.acme.Foo", "com.acme.Bar", "com.other.Baz", "com.acme.Foo"));
+
+    private int[] packageRange(int[] ids, String prefix) {
+        int from = 0;
+        while (from < ids.length && !selection.getClassName(ids[from]).startsWith(prefix)) {
+            from++;
+        }
+        return new int[]{from, selection.findPrefixEnd(ids, from, ids.length, prefix)};
+    }
+
+    @Test
+    void classNamesAreSortedAndUniqueAndAllSelected() {
+        assertEquals(5, selection.size());
+        assertEquals("com.acme.Bar", selection.getClassName(0));
+        assertEquals("org.z.Last", selection.getClassName(4));
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4}, selection.getAllIds());
+        assertTrue(selection.isAllSelected());
+        assertEquals(5, selection.getSelectedCount());
+    }
+
+    @Test
+    void selectingAPackageAffectsOnlyItsClasses() {
+        int[] ids = selection.getAllIds();
+        int[] acme = packageRange(ids, "com.acme.");
+        assertArrayEquals(new int[]{0, 3}, acme);
+
+        selection.setAllSelected(false);
+        selection.setSelected(ids, acme[0], acme[1], true);
+
+        assertTrue(selection.isAllSelected(ids, acme[0], acme[1]));
+        assertFalse(selection.isNoneSelected(ids, acme[0], acme[1]));
+        assertTrue(selection.isNoneSelected(ids, 3, 5));
+        assertEquals(Set.of("com.acme.Bar", "com.acme.Foo", "com.acme.b.Deep"), selection.getSelectedClassNames());
+    }
+
+    @Test
+    void deselectingOneClassLeavesItsPackagePartiallySelected() {
+        int[] ids = selection.getAllIds();
+        int[] com = packageRange(ids, "com.");
+        int foo = 1;
+        assertEquals("com.acme.Foo", selection.getClassName(ids[foo]));
+
+        selection.setSelected(ids, foo, foo + 1, false);
+
+        assertFalse(selection.isSelected(ids[foo]));
+        assertFalse(selection.isAllSelected(ids, com[0], com[1]));
+        assertFalse(selection.isNoneSelected(ids, com[0], com[1]));
+        assertFalse(selection.isAllSelected());
+        assertEquals(4, selection.getSelectedCount());
+        assertEquals(Set.of("com.acme.Bar", "com.acme.b.Deep", "com.other.Baz", "org.z.Last"),
+                selection.getSelectedClassNames());
+    }
+
+    @Test
+    void nonContiguousIdsFromASearchAreSelectedIndividually() {
+        int[] found = {0, 2, 4};
+        selection.setAllSelected(false);
+
+        selection.setSelected(found, 0, found.length, true);
+
+        assertTrue(selection.isAllSelected(found, 0, found.length));
+        assertTrue(selection.isNoneSelected(new int[]{1, 3}, 0, 2));
+        assertEquals(Set.of("com.acme.Bar", "com.acme.b.Deep", "org.z.Last"), selection.getSelectedClassNames());
+
+        selection.setSelected(found, 1, 2, false);
+        assertFalse(selection.isAllSelected(found, 0, found.length));
+        assertFalse(selection.isNoneSelected(found, 0, found.length));
+    }
+}
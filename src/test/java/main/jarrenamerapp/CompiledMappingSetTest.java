@@ -0,0 +1,213 @@
+package main.jarrenamerapp;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompiledMappingSetTest {
+    private static final String[] WORDS = {"a", "b", "Zeta", "élan", "中文", "𝔘nicode", "x$1", "a0"};
+
+    @TempDir
+    Path directory;
+
+    private String previousCacheDirectory;
+
+    @BeforeEach
+    void useTemporaryCacheDirectory() {
+        previousCacheDirectory = System.getProperty("jarrenamer.cache.dir");
+        System.setProperty("jarrenamer.cache.dir", directory.resolve("cache").toString());
+    }
+
+    @AfterEach
+    void restoreCacheDirectory() {
+        if (previousCacheDirectory != null) {
+            System.setProperty("jarrenamer.cache.dir", previousCacheDirectory);
+        } else {
+            System.clearProperty("jarrenamer.cache.dir");
+        }
+    }
+
+    private static String word(int index) {
+        return WORDS[index % WORDS.length] + index / WORDS.length;
+    }
+
+    private static IndexedMappingSet generate(List<String[]> fields, List<String[]> methods) {
+        IndexedMappingSet mappingSet = new IndexedMappingSet();
+        for (int c = 0; c < 300; c++) {
+            String owner = "pkg/" + word(c);
+            mappingSet.putClass(owner.replace('/', '.'), "out." + word(c + 1));
+            for (int f = 0; f < 3; f++) {
+                String[] field = {owner, word(f + c), f == 2 ? null : "L" + word(f) + ";", "f" + word(c * 3 + f)};
+                mappingSet.putField(field[0], field[1], field[2], field[3]);
+                fields.add(field);
+            }
+            for (int m = 0; m < 2; m++) {
+                String[] method = {owner, word(m * 7 + c), "(I)" + word(m), "m" + word(c * 2 + m)};
+                mappingSet.putMethod(method[0], method[1], method[2], method[3]);
+                methods.add(method);
+            }
+        }
+        for (int n = 0; n < 40; n++) {
+            mappingSet.putName("name." + word(n), "renamed." + word(n));
+        }
+        return mappingSet;
+    }
+
+    private static void assertSameLookups(MappingSet expected, MappingSet actual, List<String[]> fields,
+                                          List<String[]> methods) {
+        assertEquals(expected.getClassCount(), actual.getClassCount());
+        assertEquals(expected.getFieldCount(), actual.getFieldCount());
+        assertEquals(expected.getMethodCount(), actual.getMethodCount());
+        List<String> names = new ArrayList<>(Arrays.asList("", "pkg", "pkg.", "pkg.zzz", "￿", "😀"));
+        for (int i = 0; i < 340; i++) {
+            names.add("pkg." + word(i));
+            names.add("name." + word(i));
+            names.add(word(i));
+        }
+        for (String name : names) {
+            assertEquals(expected.getClassName(name), actual.getClassName(name), name);
+            assertEquals(expected.getName(name), actual.getName(name), name);
+        }
+        for (String[] field : fields) {
+            String descriptor = field[2] != null ? field[2] : "I";
+            assertEquals(field[3], actual.getFieldName(field[0], field[1], descriptor));
+            assertEquals(expected.getFieldName(field[0], field[1], "Lmissing;"),
+                    actual.getFieldName(field[0], field[1], "Lmissing;"));
+            assertEquals(expected.getFieldName(field[0], field[1], null), actual.getFieldName(field[0], field[1], null));
+            assertNull(actual.getFieldName(field[0], field[1] + "?", descriptor));
+            assertNull(actual.getFieldName(field[0] + "?", field[1], descriptor));
+        }
+        for (String[] method : methods) {
+            assertEquals(method[3], actual.getMethodName(method[0], method[1], method[2]));
+            assertNull(actual.getMethodName(method[0], method[1], "()V"));
+            assertNull(actual.getMethodName(method[0], "missing", method[2]));
+        }
+    }
+
+    @Test
+    void compiledSetAnswersLikeTheSourceSet() throws IOException {
+        List<String[]> fields = new ArrayList<>();
+        List<String[]> methods = new ArrayList<>();
+        IndexedMappingSet source = generate(fields, methods);
+        Path file = directory.resolve("mappings.bin");
+
+        CompiledMappingSet.write(source, file);
+
+        assertSameLookups(source, CompiledMappingSet.open(file), fields, methods);
+    }
+
+    @Test
+    void emptySetRoundTrips() throws IOException {
+        Path file = directory.resolve("empty.bin");
+        CompiledMappingSet.write(new IndexedMappingSet(), file);
+
+        CompiledMappingSet mappingSet = CompiledMappingSet.open(file);
+        assertTrue(mappingSet.isEmpty());
+        assertNull(mappingSet.getClassName("a.B"));
+        assertNull(mappingSet.getMethodName("a/B", "m", "()V"));
+    }
+
+    @Test
+    void truncatedOrWrongVersionFilesAreRejected() throws IOException {
+        Path file = directory.resolve("mappings.bin");
+        CompiledMappingSet.write(generate(new ArrayList<>(), new ArrayList<>()), file);
+        byte[] bytes = Files.readAllBytes(file);
+
+        Path truncated = Files.write(directory.resolve("truncated.bin"), Arrays.copyOf(bytes, bytes.length - 16));
+        Path header = Files.write(directory.resolve("header.bin"), Arrays.copyOf(bytes, 16));
+        byte[] versionBytes = bytes.clone();
+        versionBytes[7]++;
+        Path version = Files.write(directory.resolve("version.bin"), versionBytes);
+
+        assertThrows(IOException.class, () -> CompiledMappingSet.open(truncated));
+        assertThrows(IOException.class, () -> CompiledMappingSet.open(header));
+        assertThrows(IOException.class, () -> CompiledMappingSet.open(version));
+    }
+
+    private File writeMappingFile() throws IOException {
+        return Files.writeString(directory.resolve("mappings.tiny"), "tiny\t2\t0\tofficial\tnamed\n"
+                + "c\ta/B\tx/Y\n"
+                + "\tf\tI\tcount\tsize\n"
+                + "\tm\t()V\trun\texecute\n"
+                + "c\ta/é𝔘\tx/Z\n").toFile();
+    }
+
+    private static Path cacheFile() throws IOException {
+        try (Stream<Path> files = Files.list(MappingCache.getCacheDirectory())) {
+            List<Path> cached = files.toList();
+            assertEquals(1, cached.size());
+            return cached.get(0);
+        }
+    }
+
+    private static void assertMappings(MappingSet mappingSet) {
+        assertEquals("x.Y", mappingSet.getClassName("a.B"));
+        assertEquals("x.Z", mappingSet.getClassName("a.é𝔘"));
+        assertEquals("size", mappingSet.getFieldName("a/B", "count", "I"));
+        assertEquals("execute", mappingSet.getMethodName("a/B", "run", "()V"));
+        assertNull(mappingSet.getMethodName("a/B", "run", "(I)V"));
+    }
+
+    @Test
+    void cacheCountsMissesThenHits() throws IOException {
+        File mappingFile = writeMappingFile();
+        RenameMetrics metrics = new RenameMetrics();
+
+        assertMappings(MappingCache.load(mappingFile, metrics));
+        assertEquals(1, metrics.getMappingCacheMisses());
+        assertTrue(Files.isRegularFile(cacheFile()));
+
+        MappingSet cached = MappingCache.load(mappingFile, metrics);
+        assertInstanceOf(CompiledMappingSet.class, cached);
+        assertMappings(cached);
+        assertEquals(1, metrics.getMappingCacheHits());
+        assertEquals(1, metrics.getMappingCacheMisses());
+        assertEquals(0, metrics.getMappingCacheErrors());
+    }
+
+    @Test
+    void corruptCacheFileIsCountedAndRebuilt() throws IOException {
+        File mappingFile = writeMappingFile();
+        MappingCache.load(mappingFile, new RenameMetrics());
+        Path cacheFile = cacheFile();
+        byte[] bytes = Files.readAllBytes(cacheFile);
+        Files.write(cacheFile, Arrays.copyOf(bytes, bytes.length - 4));
+        RenameMetrics metrics = new RenameMetrics();
+
+        assertMappings(MappingCache.load(mappingFile, metrics));
+        assertEquals(0, metrics.getMappingCacheHits());
+        assertEquals(1, metrics.getMappingCacheMisses());
+        assertEquals(1, metrics.getMappingCacheErrors());
+        assertEquals(bytes.length, Files.size(cacheFile));
+
+        assertInstanceOf(CompiledMappingSet.class, MappingCache.load(mappingFile, metrics));
+        assertEquals(1, metrics.getMappingCacheHits());
+    }
+
+    @Test
+    void unwritableCacheIsCountedAsErrorAndStillLoads() throws IOException {
+        File mappingFile = writeMappingFile();
+        Files.writeString(directory.resolve("cache"), "not a directory");
+        RenameMetrics metrics = new RenameMetrics();
+
+        assertMappings(MappingCache.load(mappingFile, metrics));
+        assertEquals(1, metrics.getMappingCacheMisses());
+        assertEquals(1, metrics.getMappingCacheErrors());
+    }
+}
@@ -0,0 +1,73 @@
+package main.jarrenamerapp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IncrementalIndexTest {
+    private static final ZipArchiveEntry ENTRY = entry(42);
+
+    @TempDir
+    Path directory;
+
+    private static ZipArchiveEntry entry(long crc) {
+        return new ZipArchiveEntry("a/B.class", 0, 8, 0, crc, 10, 20, 0, 0, new byte[0]);
+    }
+
+    private static byte[] digest(String value) throws IOException {
+        return IncrementalIndex.digest(value.getBytes(), value.length());
+    }
+
+    private File writeIndex() throws IOException {
+        File outputFile = directory.resolve("out.jar").toFile();
+        Files.write(outputFile.toPath(), new byte[]{1, 2, 3});
+        IncrementalIndex index = new IncrementalIndex();
+        index.put(ENTRY, digest("content"), digest("rename"), "x/Y.class");
+        index.write(outputFile);
+        return outputFile;
+    }
+
+    @Test
+    void entriesSurviveWriteAndRead() throws IOException {
+        IncrementalIndex index = IncrementalIndex.read(writeIndex());
+
+        assertFalse(index.isEmpty());
+        assertEquals("x/Y.class", index.getReusableOutputName(ENTRY, digest("rename")));
+        assertTrue(index.hasContent(ENTRY, digest("content")));
+        assertFalse(index.hasContent(ENTRY, digest("other")));
+    }
+
+    @Test
+    void changedEntryOrRenameIsNotReused() throws IOException {
+        IncrementalIndex index = IncrementalIndex.read(writeIndex());
+
+        assertNull(index.getReusableOutputName(entry(43), digest("rename")));
+        assertNull(index.getReusableOutputName(ENTRY, digest("other rename")));
+    }
+
+    @Test
+    void indexOfModifiedOutputIsIgnored() throws IOException {
+        File outputFile = writeIndex();
+        Files.write(outputFile.toPath(), new byte[]{1, 2, 3, 4});
+
+        assertTrue(IncrementalIndex.read(outputFile).isEmpty());
+    }
+
+    @Test
+    void missingOrCorruptIndexIsEmpty() throws IOException {
+        File outputFile = writeIndex();
+        Files.write(IncrementalIndex.getIndexFile(outputFile).toPath(), new byte[]{1, 2});
+
+        assertTrue(IncrementalIndex.read(outputFile).isEmpty());
+        assertTrue(IncrementalIndex.read(directory.resolve("missing.jar").toFile()).isEmpty());
+    }
+}
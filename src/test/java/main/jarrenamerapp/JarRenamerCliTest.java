@@ -0,0 +1,151 @@
+package main.jarrenamerapp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JarRenamerCliTest {
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    @TempDir
+    Path directory;
+
+    private int run(String... args) {
+        return JarRenamerCli.run(args, new PrintStream(out, true, StandardCharsets.UTF_8),
+                new PrintStream(err, true, StandardCharsets.UTF_8));
+    }
+
+    private String out() {
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private String err() {
+        return err.toString(StandardCharsets.UTF_8);
+    }
+
+    private File writeJar(String name) throws Exception {
+        return TestJars.write(directory.resolve(name), TestJars.entries(
+                "test/Base.class", TestJars.constants("test/Base", "java/lang/Object", "foo", "A"),
+                "test/Derived.class", TestJars.constants("test/Derived", "test/Base", "baz", "C"),
+                "test/Main.class", TestJars.caller("test/Main", "test/Derived", "foo", "baz")));
+    }
+
+    private String output(File jarFile, String suffix) {
+        String name = jarFile.getName();
+        return new File(jarFile.getParentFile(), name.substring(0, name.length() - 4) + suffix).getPath();
+    }
+
+    @Test
+    void helpPrintsUsageAndSucceeds() {
+        assertEquals(0, run());
+        assertTrue(out().startsWith("Usage: jar-renamer"));
+        assertEquals(0, run("--prefix", "X", "--help"));
+        assertEquals("", err());
+    }
+
+    @Test
+    void invalidArgumentsExitWithUsageError() {
+        assertEquals(2, run("--prefix", "X", "--replace", "a", "b", "app.jar"));
+        assertTrue(err().contains("Options --prefix and --replace cannot be combined"), err());
+        assertEquals(2, run("--prefix"));
+        assertTrue(err().contains("Missing value for --prefix"), err());
+        assertEquals(2, run("--prefix", "X", "--bogus", "app.jar"));
+        assertTrue(err().contains("Unknown option --bogus"), err());
+        assertEquals(2, run("app.jar"));
+        assertTrue(err().contains("A renaming mode is required"), err());
+        assertEquals(2, run("--prefix", "X"));
+        assertTrue(err().contains("At least one JAR file is required"), err());
+        assertEquals(2, run("--prefix", "X", "--threads", "0", "app.jar"));
+        assertTrue(err().contains("--threads expects a positive number: 0"), err());
+        assertTrue(err().contains("Usage: jar-renamer"));
+        assertEquals("", out());
+    }
+
+    @Test
+    void dryRunFormatIsValidated() throws Exception {
+        File jarFile = writeJar("app.jar");
+
+        assertEquals(2, run("--prefix", "X", "--dry-run", "xml", jarFile.getPath()));
+        assertTrue(err().contains("--dry-run expects csv or json: xml"), err());
+
+        assertEquals(0, run("--prefix", "X", "--dry-run", "json", jarFile.getPath()));
+        assertEquals(jarFile.getPath() + " -> " + output(jarFile, "-rename-plan.json"), out().trim());
+        assertFalse(new File(output(jarFile, "-renamed.jar")).exists());
+    }
+
+    @Test
+    void missingJarFailsWithoutStoppingOtherJars() throws Exception {
+        File jarFile = writeJar("app.jar");
+        File missing = directory.resolve("missing.jar").toFile();
+
+        assertEquals(1, run("--prefix", "X", missing.getPath(), jarFile.getPath()));
+
+        assertEquals(missing.getPath() + ": JAR file not found: " + missing.getPath(), err().trim());
+        assertEquals(jarFile.getPath() + " -> " + output(jarFile, "-renamed.jar"), out().trim());
+    }
+
+    @Test
+    void eachJarIsReportedInOrder() throws Exception {
+        File first = writeJar("first.jar");
+        File second = writeJar("second.jar");
+
+        assertEquals(0, run("--prefix", "X", "--jobs", "2", first.getPath(), second.getPath()));
+
+        assertEquals(List.of(first.getPath() + " -> " + output(first, "-renamed.jar"),
+                second.getPath() + " -> " + output(second, "-renamed.jar")), out().lines().toList());
+        assertEquals("", err());
+    }
+
+    @Test
+    void classpathModeReportsEveryOutputButOnlyOnePlan() throws Exception {
+        File first = writeJar("first.jar");
+        File second = writeJar("second.jar");
+
+        assertEquals(0, run("--prefix", "X", "--classpath", first.getPath(), second.getPath()));
+        assertEquals(List.of(first.getPath() + " -> " + output(first, "-renamed.jar"),
+                second.getPath() + " -> " + output(second, "-renamed.jar")), out().lines().toList());
+
+        out.reset();
+        assertEquals(0, run("--prefix", "X", "--classpath", "--dry-run", "csv", first.getPath(), second.getPath()));
+        assertEquals(List.of(first.getPath() + " -> " + output(first, "-rename-plan.csv")), out().lines().toList());
+        assertFalse(new File(output(second, "-rename-plan.csv")).exists());
+    }
+
+    @Test
+    void mappingTextKeepsDescriptorSemicolons() throws Exception {
+        File jarFile = writeJar("app.jar");
+
+        assertEquals(0, run("--mapping-text", "tiny\t2\t0\tofficial\tnamed|c\ttest/Derived\ttest/Derived"
+                + "|\tm\t()Ljava/lang/String;\tbaz\tqux", jarFile.getPath()), err());
+
+        File outputFile = new File(output(jarFile, "-renamed.jar"));
+        assertEquals("AC", TestJars.run(outputFile, "test.Main"));
+        try (ZipArchive archive = ZipArchive.open(outputFile)) {
+            ClassInfo derived = ClassModel.readClassInfo(archive.readEntry(archive.getEntry("test/Derived.class")));
+            assertTrue(derived.getMethods().stream().anyMatch(method -> method.getName().equals("qux")));
+        }
+    }
+
+    @Test
+    void mappingTextPairsAreSeparatedByBars() throws Exception {
+        File jarFile = writeJar("app.jar");
+
+        assertEquals(0, run("--mapping-text", "foo -> one|baz -> two", jarFile.getPath()), err());
+
+        File outputFile = new File(output(jarFile, "-renamed.jar"));
+        assertEquals("AC", TestJars.run(outputFile, "test.Main"));
+        assertTrue(Files.exists(outputFile.toPath()));
+    }
+}
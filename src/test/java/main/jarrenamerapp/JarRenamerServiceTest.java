@@ -0,0 +1,372 @@
+package main.jarrenamerapp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JarRenamerServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private File writeBaseAndDerived() throws Exception {
+        return TestJars.write(directory.resolve("app.jar"), TestJars.entries(
+                "test/Base.class", TestJars.constants("test/Base", "java/lang/Object", "foo", "A"),
+                "test/Derived.class", TestJars.constants("test/Derived", "test/Base", "baz", "C"),
+                "test/Main.class", TestJars.caller("test/Main", "test/Derived", "foo", "baz")));
+    }
+
+    private File writeManyClasses() throws Exception {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("META-INF/MANIFEST.MF", "Manifest-Version: 1.0\n".getBytes());
+        String superName = "java/lang/Object";
+        for (int i = 0; i < 60; i++) {
+            String name = "test/p" + (i % 4) + "/C" + i;
+            entries.put(name + ".class", TestJars.constants(name, superName, "get" + i, "v" + i, "name", name));
+            superName = i % 5 == 4 ? "java/lang/Object" : name;
+        }
+        entries.put("test/Main.class", TestJars.caller("test/Main", "test/p3/C59", "get59", "name"));
+        entries.put("readme.txt", "text".getBytes());
+        return TestJars.write(directory.resolve("many.jar"), entries);
+    }
+
+    private byte[] renameWithPrefix(File jarFile, int parallelism, long memoryLimit) throws Exception {
+        JarRenamerService service = new JarRenamerService(jarFile, new HashMap<>(), true, "R", false, null, null,
+                false, Set.of("test.p0.C0", "test.p1.C1", "test.p3.C59"));
+        service.setParallelism(parallelism);
+        service.setMemoryLimit(memoryLimit);
+        File outputFile = service.execute();
+        assertEquals("v59test/p3/C59", TestJars.run(outputFile, "test.Main"));
+        try (ZipArchive archive = ZipArchive.open(outputFile)) {
+            assertNotNull(archive.getEntry("test/p3/RC59.class"));
+        }
+        return Files.readAllBytes(outputFile.toPath());
+    }
+
+    @Test
+    void outputIsIdenticalForAnyWorkerCount() throws Exception {
+        File jarFile = writeManyClasses();
+
+        byte[] expected = renameWithPrefix(jarFile, 1, 0);
+        assertArrayEquals(expected, renameWithPrefix(jarFile, 2, 0));
+        assertArrayEquals(expected, renameWithPrefix(jarFile, 8, 0));
+    }
+
+    @Test
+    void memoryLimitDoesNotChangeOutput() throws Exception {
+        File jarFile = writeManyClasses();
+
+        byte[] expected = renameWithPrefix(jarFile, 1, 0);
+        assertArrayEquals(expected, renameWithPrefix(jarFile, 8, 1024));
+        assertArrayEquals(expected, renameWithPrefix(jarFile, 8, 64 * 1024));
+    }
+
+    private JarRenamerService incrementalService(File jarFile, String prefix) {
+        JarRenamerService service = new JarRenamerService(jarFile, new HashMap<>(), true, prefix, false, null, null,
+                false, null);
+        service.setIncremental(true);
+        return service;
+    }
+
+    @Test
+    void incrementalRunReusesUnchangedClasses() throws Exception {
+        File jarFile = writeManyClasses();
+        File outputFile = incrementalService(jarFile, "R").execute();
+        byte[] expected = Files.readAllBytes(outputFile.toPath());
+
+        JarRenamerService service = incrementalService(jarFile, "R");
+        service.execute();
+
+        assertEquals(61, service.getReusedClassCount());
+        assertArrayEquals(expected, Files.readAllBytes(outputFile.toPath()));
+    }
+
+    @Test
+    void incrementalRunRewritesChangedClassesAndRenames() throws Exception {
+        File jarFile = writeManyClasses();
+        File outputFile = incrementalService(jarFile, "R").execute();
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        try (ZipArchive archive = ZipArchive.open(jarFile, false)) {
+            for (ZipArchiveEntry entry : archive.getEntries()) {
+                entries.put(entry.getName(), archive.readEntry(entry));
+            }
+        }
+        entries.put("test/p0/C0.class", TestJars.constants("test/p0/C0", "java/lang/Object", "get0", "changed",
+                "name", "test/p0/C0"));
+        TestJars.write(jarFile.toPath(), entries);
+
+        JarRenamerService service = incrementalService(jarFile, "R");
+        service.execute();
+        assertEquals(60, service.getReusedClassCount());
+        byte[] incremental = Files.readAllBytes(outputFile.toPath());
+        Files.delete(outputFile.toPath());
+        new JarRenamerService(jarFile, new HashMap<>(), true, "R", false, null, null, false, null).execute();
+        assertArrayEquals(Files.readAllBytes(outputFile.toPath()), incremental);
+
+        service = incrementalService(jarFile, "S");
+        service.execute();
+        assertEquals(0, service.getReusedClassCount());
+    }
+
+    @Test
+    void mappedMethodDoesNotOverrideSupertypeMethod() throws Exception {
+        File jarFile = writeBaseAndDerived();
+        assertEquals("AC", TestJars.run(jarFile, "test.Main"));
+
+        File outputFile = new JarRenamerService(jarFile, Map.of("foo", "x", "baz", "x"), false, null,
+                false, null, null, false, null).execute();
+
+        assertEquals("AC", TestJars.run(outputFile, "test.Main"));
+    }
+
+    @Test
+    void mappedMethodDoesNotOverrideMethodOfClassKeptAsIs() throws Exception {
+        File jarFile = writeBaseAndDerived();
+
+        File outputFile = new JarRenamerService(jarFile, Map.of("baz", "foo"), false, null,
+                false, null, null, false, Set.of("test.Derived", "test.Main")).execute();
+
+        assertEquals("AC", TestJars.run(outputFile, "test.Main"));
+    }
+
+    @Test
+    void pooledMethodNameDoesNotOverrideSupertypeMethod() throws Exception {
+        File jarFile = writeBaseAndDerived();
+
+        File outputFile = new JarRenamerService(jarFile, List.of(), List.of("m"), List.of(), true,
+                Set.of("test.Base", "test.Derived")).execute();
+
+        assertEquals("AC", TestJars.run(outputFile, "test.Main"));
+    }
+
+    @Test
+    void pooledFieldNameDoesNotHideSupertypeField() throws Exception {
+        File jarFile = TestJars.write(directory.resolve("fields.jar"), TestJars.entries(
+                "test/Base.class", TestJars.fields("test/Base", "java/lang/Object", "foo", "A"),
+                "test/Derived.class", TestJars.fields("test/Derived", "test/Base", "baz", "C"),
+                "test/Main.class", TestJars.fieldReader("test/Main", "test/Derived", "foo", "baz")));
+        assertEquals("AC", TestJars.run(jarFile, "test.Main"));
+
+        File outputFile = new JarRenamerService(jarFile, List.of(), List.of(), List.of("f"), true,
+                Set.of("test.Base", "test.Derived")).execute();
+
+        assertEquals("AC", TestJars.run(outputFile, "test.Main"));
+    }
+
+    private File writeBootJar(Path path) throws Exception {
+        return writeBootJar(path, false);
+    }
+
+    private File writeBootJar(Path path, boolean storeJars) throws Exception {
+        byte[] library = Files.readAllBytes(TestJars.write(directory.resolve("lib.jar"), TestJars.entries(
+                "test/Lib.class", TestJars.constants("test/Lib", "java/lang/Object", "get", "L")))
+                .toPath());
+        return TestJars.write(path, TestJars.entries(
+                "BOOT-INF/classes/test/Main.class", TestJars.caller("test/Main", "test/Lib", "get"),
+                "BOOT-INF/lib/lib.jar", library), storeJars);
+    }
+
+    private File flatten(File bootJar) throws Exception {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        try (ZipArchive archive = ZipArchive.open(bootJar)) {
+            for (ZipArchiveEntry entry : archive.getEntries()) {
+                if (ZipArchive.isNestedArchive(entry.getName())) {
+                    try (ZipArchive nested = archive.openNested(entry)) {
+                        for (ZipArchiveEntry nestedEntry : nested.getEntries()) {
+                            entries.put(nestedEntry.getName(), nested.readEntry(nestedEntry));
+                        }
+                    }
+                } else {
+                    entries.put(entry.getName().substring(ZipArchive.getClassRoot(entry.getName()).length()),
+                            archive.readEntry(entry));
+                }
+            }
+        }
+        return TestJars.write(directory.resolve("flat.jar"), entries);
+    }
+
+    @Test
+    void classInNestedJarIsRenamedAlongWithItsCallers() throws Exception {
+        File jarFile = writeBootJar(directory.resolve("boot.jar"));
+        assertEquals("L", TestJars.run(flatten(jarFile), "test.Main"));
+
+        File outputFile = new JarRenamerService(jarFile, new HashMap<>(), true, "R", false, null, null, true,
+                Set.of("test.Lib")).execute();
+
+        try (ZipArchive archive = ZipArchive.open(outputFile);
+             ZipArchive nested = archive.openNested(archive.getEntry("BOOT-INF/lib/lib.jar"))) {
+            assertNotNull(archive.getEntry("BOOT-INF/classes/test/Main.class"));
+            assertNotNull(nested.getEntry("test/RLib.class"));
+            assertNull(nested.getEntry("test/Lib.class"));
+        }
+        assertEquals("L", TestJars.run(flatten(outputFile), "test.Main"));
+    }
+
+    @Test
+    void rewrittenNestedJarKeepsItsCompressionMethod() throws Exception {
+        for (boolean storeJars : new boolean[]{true, false}) {
+            File jarFile = writeBootJar(directory.resolve("boot.jar"), storeJars);
+
+            File outputFile = new JarRenamerService(jarFile, new HashMap<>(), true, "R", false, null, null, true,
+                    Set.of("test.Lib")).execute();
+
+            try (ZipArchive input = ZipArchive.open(jarFile); ZipArchive output = ZipArchive.open(outputFile)) {
+                assertEquals(input.getEntry("BOOT-INF/lib/lib.jar").getMethod(),
+                        output.getEntry("BOOT-INF/lib/lib.jar").getMethod());
+            }
+            assertEquals("L", TestJars.run(flatten(outputFile), "test.Main"));
+        }
+    }
+
+    @Test
+    void nestedJarOutputIsIdenticalForAnyWorkerCountAndMemoryLimit() throws Exception {
+        File jarFile = writeBootJar(directory.resolve("boot.jar"));
+        byte[] expected = renameLib(jarFile, 1, 0);
+
+        assertArrayEquals(expected, renameLib(jarFile, 4, 0));
+        assertArrayEquals(expected, renameLib(jarFile, 4, 1024));
+    }
+
+    private byte[] renameLib(File jarFile, int parallelism, long memoryLimit) throws Exception {
+        JarRenamerService service = new JarRenamerService(jarFile, new HashMap<>(), true, "R", false, null, null,
+                true, Set.of("test.Lib"));
+        service.setParallelism(parallelism);
+        service.setMemoryLimit(memoryLimit);
+        return Files.readAllBytes(service.execute().toPath());
+    }
+
+    @Test
+    void nestedJarWithoutRenamedClassesIsCopied() throws Exception {
+        File jarFile = writeBootJar(directory.resolve("boot.jar"));
+
+        File outputFile = new JarRenamerService(jarFile, new HashMap<>(), true, "R", false, null, null, true,
+                Set.of("test.Main")).execute();
+
+        try (ZipArchive input = ZipArchive.open(jarFile); ZipArchive output = ZipArchive.open(outputFile)) {
+            ZipArchiveEntry library = input.getEntry("BOOT-INF/lib/lib.jar");
+            assertArrayEquals(input.readEntry(library), output.readEntry(output.getEntry("BOOT-INF/lib/lib.jar")));
+            assertNotNull(output.getEntry("BOOT-INF/classes/test/RMain.class"));
+        }
+    }
+
+    @Test
+    void rewrittenStringsAndResourcesFollowRenamedClasses() throws Exception {
+        File jarFile = TestJars.write(directory.resolve("strings.jar"), TestJars.entries(
+                "META-INF/MANIFEST.MF", "Manifest-Version: 1.0\nMain-Class: test.Lib\n",
+                "META-INF/services/test.Lib", "test.Lib\n",
+                "test/Lib.class", TestJars.constants("test/Lib", "java/lang/Object"),
+                "test/Holder.class", TestJars.constants("test/Holder", "java/lang/Object", "get", "test.Lib"),
+                "test/Main.class", TestJars.caller("test/Main", "test/Holder", "get")));
+
+        JarRenamerService service = new JarRenamerService(jarFile, new HashMap<>(), true, "R", false, null, null,
+                true, Set.of("test.Lib"));
+        service.setRewriteStrings(true);
+        File outputFile = service.execute();
+
+        assertEquals("test.RLib", TestJars.run(outputFile, "test.Main"));
+        try (ZipArchive archive = ZipArchive.open(outputFile)) {
+            assertEquals("Manifest-Version: 1.0\nMain-Class: test.RLib\n",
+                    new String(archive.readEntry(archive.getEntry("META-INF/MANIFEST.MF"))));
+            assertNull(archive.getEntry("META-INF/services/test.Lib"));
+            assertEquals("test.RLib\n",
+                    new String(archive.readEntry(archive.getEntry("META-INF/services/test.RLib"))));
+        }
+    }
+
+    private JarRenamerService planService() throws Exception {
+        File jarFile = TestJars.write(directory.resolve("app.jar"), TestJars.entries(
+                "test/Base.class", TestJars.constants("test/Base", "java/lang/Object", "foo", "A"),
+                "test/Derived.class", TestJars.constants("test/Derived", "test/Base", "baz", "C"),
+                "test/Main.class", TestJars.caller("test/Main", "test/Derived", "foo", "baz"),
+                "java/Fake.class", TestJars.constants("java/Fake", "java/lang/Object")));
+        return new JarRenamerService(jarFile, Map.of("foo", "x", "baz", "x", "test.Base", "test.Same",
+                "test.Derived", "test.Same"), false, null, false, null, null, true, null);
+    }
+
+    @Test
+    void dryRunWritesPlanWithoutOutputJar() throws Exception {
+        File planFile = planService().executeDryRun(false);
+
+        assertEquals(directory.resolve("app-rename-plan.csv").toFile(), planFile);
+        assertEquals(List.of(
+                "kind,owner,name,descriptor,newName,status,preferredName",
+                "class,,test.Base,,test.Same,renamed,",
+                "method,test.Base,foo,()Ljava/lang/String;,x,renamed,",
+                "class,,test.Derived,,test.Same_0,collision,test.Same",
+                "method,test.Derived,baz,()Ljava/lang/String;,x_0,collision,x",
+                "class,,test.Main,,test.Main,unchanged,",
+                "method,test.Main,run,()Ljava/lang/String;,run,unchanged,",
+                "class,,java.Fake,,java.Fake,skipped,"), Files.readAllLines(planFile.toPath()));
+        assertFalse(Files.exists(directory.resolve("app-renamed.jar")));
+    }
+
+    @Test
+    void dryRunPlanMatchesRename() throws Exception {
+        File planFile = planService().executeDryRun(true);
+        String plan = Files.readString(planFile.toPath());
+        File outputFile = planService().execute();
+
+        assertEquals(directory.resolve("app-rename-plan.json").toFile(), planFile);
+        assertTrue(plan.contains("{\"kind\": \"class\", \"name\": \"test.Derived\", \"newName\": \"test.Same_0\", "
+                + "\"status\": \"collision\", \"preferredName\": \"test.Same\"}"));
+        assertEquals("AC", TestJars.run(outputFile, "test.Main"));
+        try (ZipArchive archive = ZipArchive.open(outputFile)) {
+            assertNotNull(archive.getEntry("test/Same.class"));
+            assertNotNull(archive.getEntry("test/Same_0.class"));
+        }
+    }
+
+    @Test
+    void jarsAreRenamedTogetherAgainstReadOnlyLibraries() throws Exception {
+        File libraryJar = TestJars.write(directory.resolve("lib.jar"), TestJars.entries(
+                "test/Ext.class", TestJars.constants("test/Ext", "java/lang/Object", "foo", "E")));
+        File familyJar = TestJars.write(directory.resolve("family.jar"), TestJars.entries(
+                "test/Base.class", TestJars.constants("test/Base", "java/lang/Object", "foo", "A"),
+                "test/Derived.class", TestJars.constants("test/Derived", "test/Base", "foo", "D"),
+                "test/Impl.class", TestJars.constants("test/Impl", "test/Ext", "foo", "I"),
+                "test/Dup.class", TestJars.caller("test/Dup", "test/Derived", "foo")));
+        File mainJar = TestJars.write(directory.resolve("main.jar"), TestJars.entries(
+                "test/Main.class", TestJars.caller("test/Main", "test/Derived", "foo"),
+                "test/Other.class", TestJars.caller("test/Other", "test/Impl", "foo"),
+                "test/Dup.class", TestJars.caller("test/Dup", "test/Base", "foo")));
+        List<File> inputs = List.of(mainJar, familyJar, libraryJar);
+        assertEquals("D", TestJars.run(inputs, "test.Main"));
+
+        JarRenamerService service = new JarRenamerService(mainJar, Map.of("foo", "bar"), false, null,
+                false, null, null, false, null);
+        service.addJarFile(familyJar);
+        service.addLibraryJarFile(libraryJar);
+        List<File> outputFiles = service.executeAll();
+
+        assertEquals(List.of(directory.resolve("main-renamed.jar").toFile(),
+                directory.resolve("family-renamed.jar").toFile()), outputFiles);
+        assertFalse(Files.exists(directory.resolve("lib-renamed.jar")));
+        List<File> renamed = List.of(outputFiles.get(0), outputFiles.get(1), libraryJar);
+        assertEquals("D", TestJars.run(renamed, "test.Main"));
+        assertEquals("I", TestJars.run(renamed, "test.Other"));
+        assertEquals("A", TestJars.run(renamed, "test.Dup"));
+        assertEquals("D", TestJars.run(List.of(outputFiles.get(1), libraryJar), "test.Dup"));
+
+        try (ZipArchive family = ZipArchive.open(outputFiles.get(1))) {
+            ClassInfo derived = ClassModel.readClassInfo(family.readEntry(family.getEntry("test/Derived.class")));
+            ClassInfo impl = ClassModel.readClassInfo(family.readEntry(family.getEntry("test/Impl.class")));
+            assertTrue(derived.getMethods().stream().anyMatch(method -> method.getName().equals("bar")));
+            assertTrue(impl.getMethods().stream().anyMatch(method -> method.getName().equals("foo")));
+        }
+    }
+}
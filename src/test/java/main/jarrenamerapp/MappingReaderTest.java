@@ -0,0 +1,76 @@
+package main.jarrenamerapp;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MappingReaderTest {
+
+    private static MappingSet read(String content) throws IOException {
+        return MappingReader.read(new StringReader(content));
+    }
+
+    @Test
+    void proGuardMappingIsReversed() throws IOException {
+        MappingSet mappings = read("com.acme.Foo -> a.a:\n"
+                + "    int count -> b\n"
+                + "    1:4:void run() -> c\n");
+
+        assertEquals("com.acme.Foo", mappings.getClassName("a.a"));
+        assertEquals("count", mappings.getFieldName("a/a", "b", "I"));
+        assertEquals("run", mappings.getMethodName("a/a", "c", "()V"));
+    }
+
+    @Test
+    void proGuardDescriptorsAreRemappedToObfuscatedNames() throws IOException {
+        MappingSet mappings = read("com.acme.Foo -> a.a:\n"
+                + "    com.acme.Bar bar -> a\n"
+                + "    com.acme.Foo make(com.acme.Bar,int[],java.lang.String) -> b\n"
+                + "    com.acme.Foo make(com.acme.Foo) -> b\n"
+                + "com.acme.Bar -> a.b:\n");
+
+        assertEquals("bar", mappings.getFieldName("a/a", "a", "La/b;"));
+        assertEquals("make", mappings.getMethodName("a/a", "b", "(La/b;[ILjava/lang/String;)La/a;"));
+        assertEquals("make", mappings.getMethodName("a/a", "b", "(La/a;)La/a;"));
+        assertNull(mappings.getMethodName("a/a", "b", "(Lcom/acme/Bar;[ILjava/lang/String;)Lcom/acme/Foo;"));
+    }
+
+    @Test
+    void tinyV2UsesLastNamespace() throws IOException {
+        MappingSet mappings = read("tiny\t2\t0\tofficial\tintermediary\tnamed\n"
+                + "c\ta\tclass_1\tcom/acme/Foo\n"
+                + "\tf\tI\tb\tfield_1\tcount\n"
+                + "\tm\t(La;)V\tc\tmethod_1\tcopy\n"
+                + "c\td\tclass_2\t\n");
+
+        assertEquals("com.acme.Foo", mappings.getClassName("a"));
+        assertEquals("count", mappings.getFieldName("a", "b", "I"));
+        assertEquals("copy", mappings.getMethodName("a", "c", "(La;)V"));
+        assertNull(mappings.getClassName("d"));
+    }
+
+    @Test
+    void tinyV2WithTwoNamespacesUsesSecond() throws IOException {
+        MappingSet mappings = read("tiny\t2\t0\tintermediary\tnamed\n"
+                + "c\tclass_1\tcom/acme/Foo\n"
+                + "\tm\t()V\tmethod_1\trun\n");
+
+        assertEquals("com.acme.Foo", mappings.getClassName("class_1"));
+        assertEquals("run", mappings.getMethodName("class_1", "method_1", "()V"));
+    }
+
+    @Test
+    void legacyMappingLetsLaterLinesWin() throws IOException {
+        MappingSet mappings = read("# names\n"
+                + "com.acme.Foo -> com.acme.Bar\n"
+                + "run -> execute\n"
+                + "com.acme.Foo -> com.acme.Baz\n");
+
+        assertEquals("com.acme.Baz", mappings.getClassName("com.acme.Foo"));
+        assertEquals("execute", mappings.getName("run"));
+    }
+}
@@ -0,0 +1,54 @@
+package main.jarrenamerapp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NameAllocatorTest {
+
+    @Test
+    void preferredNameIsKeptWhenFree() {
+        NameAllocator allocator = new NameAllocator();
+
+        assertEquals("a", allocator.allocate(List.of("x"), "a", null, name -> true));
+        assertTrue(allocator.isUsed("x", "a"));
+    }
+
+    @Test
+    void poolIsProbedPastUsedNames() {
+        NameAllocator allocator = new NameAllocator();
+        NameAllocator.NamePool pool = allocator.addPool(List.of("a", "b", "c"));
+        allocator.reserve("x", "a");
+        allocator.reserve("x", "b");
+
+        assertEquals("c", allocator.allocate(List.of("x"), "a", pool, name -> !allocator.isUsed("x", name)));
+    }
+
+    @Test
+    void exhaustedPoolFallsBackToSuffixes() {
+        NameAllocator allocator = new NameAllocator();
+        NameAllocator.NamePool pool = allocator.addPool(List.of("a"));
+        allocator.reserve("x", "a");
+
+        assertEquals("a_0", allocator.allocate(List.of("x"), "a", pool, name -> !allocator.isUsed("x", name)));
+        assertEquals("a_1", allocator.allocate(List.of("x"), "a", pool, name -> !allocator.isUsed("x", name)));
+    }
+
+    @Test
+    void namesUsedInRelatedScopesAreSkippedButNotReserved() {
+        NameAllocator allocator = new NameAllocator();
+        NameAllocator.NamePool pool = allocator.addPool(List.of("a", "b"));
+        allocator.reserve("base", "a");
+
+        assertEquals("b", allocator.allocate(List.of("derived"), List.of("base"), "a", pool,
+                name -> !allocator.isUsed("derived", name)));
+        assertEquals("a_0", allocator.allocate(List.of("other"), List.of("base"), "a", pool,
+                name -> !name.equals("b")));
+        assertFalse(allocator.isUsed("base", "b"));
+        assertFalse(allocator.isUsed("base", "a_0"));
+    }
+}
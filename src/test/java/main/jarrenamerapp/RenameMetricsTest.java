@@ -0,0 +1,83 @@
+package main.jarrenamerapp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RenameMetricsTest {
+
+    @TempDir
+    Path directory;
+
+    private static long value(String json, String key) {
+        Matcher matcher = Pattern.compile("\"" + key + "\": (\\d+)").matcher(json);
+        assertTrue(matcher.find(), key);
+        return Long.parseLong(matcher.group(1));
+    }
+
+    private static String section(String json, String key) {
+        int start = json.indexOf("\"" + key + "\": {");
+        assertTrue(start >= 0, key);
+        return json.substring(start, json.indexOf('}', start));
+    }
+
+    @Test
+    void quoteEscapesQuotesBackslashesAndControlCharacters() {
+        assertEquals("\"plain é 𝔘\"", RenameMetrics.quote("plain é 𝔘"));
+        assertEquals("\"a\\\"b\\\\c\"", RenameMetrics.quote("a\"b\\c"));
+        assertEquals("\"\\u000a\\u0009\\u0000\\u001f\"", RenameMetrics.quote("\n\t\u0000\u001f"));
+        assertEquals("\"\"", RenameMetrics.quote(""));
+    }
+
+    @Test
+    void emptyMetricsProduceZeroCounters() {
+        String json = new RenameMetrics().toJson("x\"y.jar");
+
+        assertTrue(json.startsWith("{\n  \"jar\": \"x\\\"y.jar\",\n  \"phaseNanos\": {},\n"), json);
+        assertEquals(0, value(json, "total"));
+        assertEquals(0, value(json, "bytesWritten"));
+    }
+
+    @Test
+    void reportDescribesRename() throws Exception {
+        File jarFile = TestJars.write(directory.resolve("app.jar"), TestJars.entries(
+                "test/Base.class", TestJars.constants("test/Base", "java/lang/Object", "foo", "A"),
+                "test/Derived.class", TestJars.constants("test/Derived", "test/Base", "baz", "C"),
+                "test/Main.class", TestJars.caller("test/Main", "test/Derived", "foo", "baz"),
+                "README.txt", "hi"));
+        JarRenamerService service = new JarRenamerService(jarFile, Map.of("baz", "y", "test.Base", "test.Root"),
+                false, null, false, null, null, false, null);
+        service.setMetricsReport(true);
+
+        File outputFile = service.execute();
+
+        File reportFile = RenameMetrics.getReportFile(outputFile);
+        assertEquals(directory.resolve("app-renamed.jar.metrics.json").toFile(), reportFile);
+        String json = Files.readString(reportFile.toPath());
+        assertTrue(json.contains("\"jar\": \"app.jar\""), json);
+        String phases = section(json, "phaseNanos");
+        assertTrue(phases.contains("\"analyze-classes\": ") && phases.contains("\"write\": "), phases);
+        assertEquals(jarFile.length(), value(json, "bytesRead"));
+        assertEquals(outputFile.length(), value(json, "bytesWritten"));
+        String classes = section(json, "classes");
+        assertEquals(3, value(classes, "total"));
+        assertEquals(1, value(classes, "renamed"));
+        assertEquals(3, value(classes, "transformed") + value(classes, "copied"));
+        assertEquals(0, value(classes, "reused"));
+        assertEquals(0, value(json, "fieldsRenamed"));
+        assertEquals(1, value(json, "methodsRenamed"));
+        String mappingCache = section(json, "mappingCache");
+        assertEquals(0, value(mappingCache, "hits") + value(mappingCache, "misses") + value(mappingCache, "errors"));
+        assertEquals(service.getMetrics().getCacheHits(), value(section(json, "renameCache"), "hits"));
+        assertEquals(service.getMetrics().toJson("app.jar"), json);
+    }
+}
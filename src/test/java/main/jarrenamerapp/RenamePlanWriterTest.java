@@ -0,0 +1,46 @@
+package main.jarrenamerapp;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RenamePlanWriterTest {
+
+    private static String write(boolean json, boolean rows) throws IOException {
+        StringWriter out = new StringWriter();
+        RenamePlanWriter plan = new RenamePlanWriter(out, json);
+        plan.writeHeader();
+        if (rows) {
+            plan.write("class", null, "a.B", null, "a.C", "collision", "a.D");
+            plan.write("method", "a.B", "m", "(I)V", "say \"hi\", bye", "renamed", null);
+        }
+        plan.finish();
+        return out.toString();
+    }
+
+    @Test
+    void csvRowsLeaveMissingColumnsEmptyAndQuoteSpecialValues() throws IOException {
+        assertEquals("kind,owner,name,descriptor,newName,status,preferredName\n"
+                + "class,,a.B,,a.C,collision,a.D\n"
+                + "method,a.B,m,(I)V,\"say \"\"hi\"\", bye\",renamed,\n", write(false, true));
+    }
+
+    @Test
+    void jsonRowsOmitMissingColumns() throws IOException {
+        assertEquals("[\n"
+                + "  {\"kind\": \"class\", \"name\": \"a.B\", \"newName\": \"a.C\", \"status\": \"collision\", "
+                + "\"preferredName\": \"a.D\"},\n"
+                + "  {\"kind\": \"method\", \"owner\": \"a.B\", \"name\": \"m\", \"descriptor\": \"(I)V\", "
+                + "\"newName\": \"say \\\"hi\\\", bye\", \"status\": \"renamed\"}\n"
+                + "]\n", write(true, true));
+    }
+
+    @Test
+    void emptyPlans() throws IOException {
+        assertEquals("kind,owner,name,descriptor,newName,status,preferredName\n", write(false, false));
+        assertEquals("[]\n", write(true, false));
+    }
+}
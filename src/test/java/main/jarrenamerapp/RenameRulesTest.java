@@ -0,0 +1,107 @@
+package main.jarrenamerapp;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RenameRulesTest {
+
+    private static RenameRules parse(String... lines) throws IOException {
+        return RenameRules.parse(List.of(lines));
+    }
+
+    @Test
+    void globWildcardsAreNumberedInOrder() throws IOException {
+        RenameRules rules = parse("com.*.internal.** -> org.*.**");
+
+        assertEquals("org.acme.util.Foo", rules.apply("class", "com.acme.internal.util.Foo"));
+    }
+
+    @Test
+    void globReplacementMixesWildcardKinds() throws IOException {
+        RenameRules rules = parse("**.*Impl -> **.impl.*", "method get? -> read?");
+
+        assertEquals("com.acme.impl.Foo", rules.apply("class", "com.acme.FooImpl"));
+        assertEquals("readX", rules.apply("method", "getX"));
+        assertEquals("getXY", rules.apply("method", "getXY"));
+    }
+
+    @Test
+    void singleStarStaysWithinPackageSegment() throws IOException {
+        RenameRules rules = parse("com.*.Foo -> x.*.Foo");
+
+        assertEquals("x.acme.Foo", rules.apply("class", "com.acme.Foo"));
+        assertEquals("com.acme.util.Foo", rules.apply("class", "com.acme.util.Foo"));
+    }
+
+    @Test
+    void firstMatchingRuleWins() throws IOException {
+        RenameRules rules = parse("com.acme.** -> a.**", "com.** -> b.**");
+
+        assertEquals("a.Foo", rules.apply("class", "com.acme.Foo"));
+        assertEquals("b.other.Foo", rules.apply("class", "com.other.Foo"));
+    }
+
+    @Test
+    void regexMustMatchWholeName() throws IOException {
+        RenameRules rules = parse("method /get(\\w+)/ -> fetch$1", "field /m([A-Z]\\w*)/ -> $1");
+
+        assertEquals("fetchName", rules.apply("method", "getName"));
+        assertEquals("forget", rules.apply("method", "forget"));
+        assertEquals("Count", rules.apply("field", "mCount"));
+        assertEquals("mcount", rules.apply("field", "mcount"));
+    }
+
+    @Test
+    void optionalRegexCharacterIsNotPartOfLiteralPrefix() throws IOException {
+        RenameRules rules = parse("method /ab{0,2}c/ -> x", "method /de?f/ -> y", "method /gh*i/ -> z");
+
+        assertEquals("x", rules.apply("method", "ac"));
+        assertEquals("x", rules.apply("method", "abbc"));
+        assertEquals("y", rules.apply("method", "df"));
+        assertEquals("z", rules.apply("method", "gi"));
+    }
+
+    @Test
+    void regexAlternationHasNoLiteralPrefix() throws IOException {
+        RenameRules rules = parse("method /a|b/ -> x", "method /(c)?d/ -> y");
+
+        assertEquals("x", rules.apply("method", "a"));
+        assertEquals("x", rules.apply("method", "b"));
+        assertEquals("y", rules.apply("method", "d"));
+    }
+
+    @Test
+    void rulesOnlyApplyToTheirType() throws IOException {
+        RenameRules rules = parse("method run -> execute");
+
+        assertEquals("run", rules.apply("field", "run"));
+        assertEquals("run", rules.apply("class", "run"));
+        assertEquals("execute", rules.apply("method", "run"));
+    }
+
+    @Test
+    void replacementGroupReferencesAreCheckedWhenParsing() throws IOException {
+        assertThrows(IOException.class, () -> parse("method /get(\\w+)/ -> fetch$2"));
+        assertThrows(IOException.class, () -> parse("method /get(?<name>\\w+)/ -> fetch${other}"));
+        assertThrows(IOException.class, () -> parse("class com.*.Foo -> x.*.*"));
+
+        RenameRules rules = parse("method /get(?<name>\\w+)/ -> fetch${name}",
+                "method /(a)(b)(c)(d)(e)(f)(g)(h)(i)(j)/ -> $10$1");
+
+        assertEquals("fetchName", rules.apply("method", "getName"));
+        assertEquals("ja", rules.apply("method", "abcdefghij"));
+    }
+
+    @Test
+    void invalidRuleReportsLineNumber() {
+        IOException e = assertThrows(IOException.class, () -> parse("# rules", "com.** -> x.**", "method /(/ -> x"));
+
+        assertTrue(e.getMessage().startsWith("Invalid rename rule at line 3:"));
+    }
+}
@@ -0,0 +1,62 @@
+package main.jarrenamerapp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ReplacementRulesTest {
+
+    @Test
+    void leftmostMatchWins() {
+        ReplacementRules rules = ReplacementRules.parse(List.of("bcd -> X", "ab -> Y"));
+
+        assertEquals("Ycd", rules.apply("abcd"));
+    }
+
+    @Test
+    void longestMatchWinsAtSamePosition() {
+        ReplacementRules rules = ReplacementRules.parse(List.of("ab -> X", "abc -> Y", "b -> Z"));
+
+        assertEquals("Yd", rules.apply("abcd"));
+        assertEquals("XZ", rules.apply("abb"));
+    }
+
+    @Test
+    void matchesDoNotOverlap() {
+        ReplacementRules rules = ReplacementRules.parse(List.of("aa -> b"));
+
+        assertEquals("bba", rules.apply("aaaaa"));
+    }
+
+    @Test
+    void emptyReplacementDeletesText() {
+        ReplacementRules rules = ReplacementRules.parse(List.of("Impl -> "));
+
+        assertEquals("FooBar", rules.apply("FooImplBarImpl"));
+    }
+
+    @Test
+    void unchangedNameIsReturnedAsIs() {
+        String name = "com.acme.Foo";
+
+        assertSame(name, ReplacementRules.of("xyz", "abc").apply(name));
+    }
+
+    @Test
+    void classNamesOnlyMatchWholeNames() {
+        Map<String, String> classNames = new LinkedHashMap<>();
+        classNames.put("com.acme.Foo", "x.Bar");
+        ReplacementRules rules = ReplacementRules.forClassNames(classNames);
+
+        assertEquals("x.Bar", rules.apply("com.acme.Foo"));
+        assertEquals("com.acme.FooBar", rules.apply("com.acme.FooBar"));
+        assertEquals("org.com.acme.Foo", rules.apply("org.com.acme.Foo"));
+        assertEquals("x/Bar", rules.apply("com/acme/Foo"));
+        assertEquals("(Lx/Bar;)V", rules.apply("(Lcom/acme/Foo;)V"));
+    }
+}
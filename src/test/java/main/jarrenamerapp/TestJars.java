@@ -0,0 +1,160 @@
+package main.jarrenamerapp;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+
+final class TestJars {
+    private static final String STRING = "Ljava/lang/String;";
+    private static final String STRING_GETTER = "()" + STRING;
+    private static final long ENTRY_TIME = 1_600_000_000_000L;
+
+    private TestJars() {
+    }
+
+    static Map<String, byte[]> entries(Object... namesAndContents) {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        for (int i = 0; i < namesAndContents.length; i += 2) {
+            Object content = namesAndContents[i + 1];
+            entries.put((String) namesAndContents[i],
+                    content instanceof String ? ((String) content).getBytes() : (byte[]) content);
+        }
+        return entries;
+    }
+
+    static File write(Path path, Map<String, byte[]> entries) throws IOException {
+        return write(path, entries, false);
+    }
+
+    static File write(Path path, Map<String, byte[]> entries, boolean storeJars) throws IOException {
+        File file = path.toFile();
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(file))) {
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                JarEntry jarEntry = new JarEntry(entry.getKey());
+                jarEntry.setTime(ENTRY_TIME);
+                if (storeJars && entry.getKey().endsWith(".jar")) {
+                    CRC32 crc = new CRC32();
+                    crc.update(entry.getValue());
+                    jarEntry.setMethod(ZipEntry.STORED);
+                    jarEntry.setSize(entry.getValue().length);
+                    jarEntry.setCrc(crc.getValue());
+                }
+                out.putNextEntry(jarEntry);
+                out.write(entry.getValue());
+                out.closeEntry();
+            }
+        }
+        return file;
+    }
+
+    static byte[] constants(String name, String superName, String... methodsAndValues) {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, name, null, superName, null);
+        visitConstructor(writer, superName);
+        for (int i = 0; i < methodsAndValues.length; i += 2) {
+            MethodVisitor method = writer.visitMethod(Opcodes.ACC_PUBLIC, methodsAndValues[i], STRING_GETTER, null, null);
+            method.visitCode();
+            method.visitLdcInsn(methodsAndValues[i + 1]);
+            method.visitInsn(Opcodes.ARETURN);
+            method.visitMaxs(0, 0);
+            method.visitEnd();
+        }
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    static byte[] fields(String name, String superName, String... fieldsAndValues) {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, name, null, superName, null);
+        MethodVisitor constructor = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitMethodInsn(Opcodes.INVOKESPECIAL, superName, "<init>", "()V", false);
+        for (int i = 0; i < fieldsAndValues.length; i += 2) {
+            writer.visitField(Opcodes.ACC_PUBLIC, fieldsAndValues[i], STRING, null, null).visitEnd();
+            constructor.visitVarInsn(Opcodes.ALOAD, 0);
+            constructor.visitLdcInsn(fieldsAndValues[i + 1]);
+            constructor.visitFieldInsn(Opcodes.PUTFIELD, name, fieldsAndValues[i], STRING);
+        }
+        constructor.visitInsn(Opcodes.RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    static byte[] caller(String name, String receiver, String... methods) {
+        return reader(name, receiver, false, methods);
+    }
+
+    static byte[] fieldReader(String name, String receiver, String... fields) {
+        return reader(name, receiver, true, fields);
+    }
+
+    private static byte[] reader(String name, String receiver, boolean readFields, String... members) {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, name, null, "java/lang/Object", null);
+        visitConstructor(writer, "java/lang/Object");
+        MethodVisitor run = writer.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "run", STRING_GETTER, null, null);
+        run.visitCode();
+        run.visitLdcInsn("");
+        for (String member : members) {
+            run.visitTypeInsn(Opcodes.NEW, receiver);
+            run.visitInsn(Opcodes.DUP);
+            run.visitMethodInsn(Opcodes.INVOKESPECIAL, receiver, "<init>", "()V", false);
+            if (readFields) {
+                run.visitFieldInsn(Opcodes.GETFIELD, receiver, member, STRING);
+            } else {
+                run.visitMethodInsn(Opcodes.INVOKEVIRTUAL, receiver, member, STRING_GETTER, false);
+            }
+            run.visitMethodInsn(Opcodes.INVOKEVIRTUAL, "java/lang/String", "concat",
+                    "(Ljava/lang/String;)Ljava/lang/String;", false);
+        }
+        run.visitInsn(Opcodes.ARETURN);
+        run.visitMaxs(0, 0);
+        run.visitEnd();
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    static String run(File jarFile, String className) throws IOException, ReflectiveOperationException {
+        return run(List.of(jarFile), className);
+    }
+
+    static String run(List<File> jarFiles, String className) throws IOException, ReflectiveOperationException {
+        URL[] urls = new URL[jarFiles.size()];
+        for (int i = 0; i < urls.length; i++) {
+            urls[i] = jarFiles.get(i).toURI().toURL();
+        }
+        try (URLClassLoader loader = new URLClassLoader(urls, null)) {
+            return (String) loader.loadClass(className).getMethod("run").invoke(null);
+        } catch (InvocationTargetException e) {
+            throw new AssertionError("run() failed in " + jarFiles, e.getCause());
+        }
+    }
+
+    private static void visitConstructor(ClassWriter writer, String superName) {
+        MethodVisitor constructor = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitMethodInsn(Opcodes.INVOKESPECIAL, superName, "<init>", "()V", false);
+        constructor.visitInsn(Opcodes.RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+    }
+}
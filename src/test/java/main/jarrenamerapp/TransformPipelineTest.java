@@ -0,0 +1,97 @@
+package main.jarrenamerapp;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TransformPipelineTest {
+    private static final ZipArchiveEntry ORIGINAL = new ZipArchiveEntry("original", 0, ZipEntry.DEFLATED, 0, 0, 0, 0,
+            0, 0, new byte[0]);
+
+    private static EncodedEntry slowEntry(String name) throws InterruptedException {
+        Thread.sleep(ThreadLocalRandom.current().nextInt(3));
+        return EncodedEntry.encode(name, ORIGINAL, name.getBytes());
+    }
+
+    private static List<String> readNames(byte[] zip) throws IOException {
+        List<String> names = new ArrayList<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            ZipEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                assertEquals(entry.getName(), new String(in.readAllBytes()));
+                names.add(entry.getName());
+            }
+        }
+        return names;
+    }
+
+    private static List<String> write(int workerCount, long memoryLimit, List<String> names) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ZipArchiveWriter writer = new ZipArchiveWriter(Channels.newChannel(out));
+             TransformPipeline pipeline = new TransformPipeline(writer, workerCount, memoryLimit, null)) {
+            for (String name : names) {
+                if (name.startsWith("copy")) {
+                    pipeline.copy(EncodedEntry.encode(name, ORIGINAL, name.getBytes()));
+                } else {
+                    pipeline.submit(() -> slowEntry(name), 4096);
+                }
+            }
+            pipeline.finish();
+        }
+        return readNames(out.toByteArray());
+    }
+
+    private static List<String> names(int count) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            names.add((i % 3 == 0 ? "copy" : "entry") + i);
+        }
+        return names;
+    }
+
+    @Test
+    void entriesAreWrittenInSubmissionOrder() throws IOException {
+        List<String> names = names(200);
+
+        assertEquals(names, write(1, 0, names));
+        assertEquals(names, write(8, 0, names));
+    }
+
+    @Test
+    void memoryLimitSmallerThanEntriesKeepsOrder() throws IOException {
+        List<String> names = names(200);
+
+        assertEquals(names, write(8, 1024, names));
+        assertEquals(names, write(8, 16 * 1024, names));
+    }
+
+    @Test
+    void failedTaskIsRethrownFromFinish() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ZipArchiveWriter writer = new ZipArchiveWriter(Channels.newChannel(out));
+             TransformPipeline pipeline = new TransformPipeline(writer, 4)) {
+            pipeline.submit(() -> slowEntry("a"));
+            pipeline.submit(() -> {
+                throw new IOException("broken entry");
+            });
+            IOException e = assertThrows(IOException.class, () -> {
+                for (int i = 0; i < 100; i++) {
+                    pipeline.submit(() -> slowEntry("b"));
+                }
+                pipeline.finish();
+            });
+            assertEquals("broken entry", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package main.jarrenamerapp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ZipArchiveTest {
+    private static final byte[] CONTENT = "hello, hello, hello".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path directory;
+
+    private static byte[] zip(String comment, Object... namesAndContents) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(bytes)) {
+            for (int i = 0; i < namesAndContents.length; i += 2) {
+                byte[] content = (byte[]) namesAndContents[i + 1];
+                ZipEntry entry = new ZipEntry((String) namesAndContents[i]);
+                if (entry.getName().endsWith(".jar") || entry.getName().startsWith("stored")) {
+                    CRC32 crc = new CRC32();
+                    crc.update(content);
+                    entry.setMethod(ZipEntry.STORED);
+                    entry.setSize(content.length);
+                    entry.setCrc(crc.getValue());
+                }
+                out.putNextEntry(entry);
+                out.write(content);
+                out.closeEntry();
+            }
+            if (comment != null) {
+                out.setComment(comment);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private File write(String name, byte[] content) throws IOException {
+        Path path = directory.resolve(name);
+        Files.write(path, content);
+        return path.toFile();
+    }
+
+    @Test
+    void readsStoredAndDeflatedEntriesPastArchiveComment() throws IOException {
+        File file = write("a.zip", zip("a comment", "stored.txt", CONTENT, "deflated.txt", CONTENT));
+
+        for (boolean memoryMapped : new boolean[]{true, false}) {
+            try (ZipArchive archive = ZipArchive.open(file, memoryMapped)) {
+                assertEquals(2, archive.getEntries().size());
+                assertEquals(ZipEntry.STORED, archive.getEntry("stored.txt").getMethod());
+                assertEquals(ZipEntry.DEFLATED, archive.getEntry("deflated.txt").getMethod());
+                assertArrayEquals(CONTENT, archive.readEntry(archive.getEntry("stored.txt")));
+                assertArrayEquals(CONTENT, archive.readEntry(archive.getEntry("deflated.txt")));
+                assertNull(archive.getEntry("missing.txt"));
+            }
+        }
+    }
+
+    @Test
+    void corruptedEntryFailsCrcCheck() throws IOException {
+        byte[] bytes = zip(null, "stored.txt", CONTENT);
+        int data = ZipArchive.LOCAL_HEADER_LENGTH + "stored.txt".length();
+        bytes[data] ^= 1;
+        File file = write("corrupt.zip", bytes);
+
+        try (ZipArchive archive = ZipArchive.open(file)) {
+            assertThrows(ZipException.class, () -> archive.readEntry(archive.getEntry("stored.txt")));
+        }
+    }
+
+    @Test
+    void notAZipArchiveIsRejected() throws IOException {
+        File file = write("plain.zip", CONTENT);
+
+        assertThrows(ZipException.class, () -> ZipArchive.open(file).close());
+    }
+
+    @Test
+    void readsZip64EndOfCentralDirectory() throws IOException {
+        File file = directory.resolve("many.zip").toFile();
+        int count = ZipArchive.ZIP64_MAGIC_COUNT + 10;
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file))) {
+            out.setLevel(0);
+            for (int i = 0; i < count; i++) {
+                out.putNextEntry(new ZipEntry("e" + i));
+                out.closeEntry();
+            }
+            out.putNextEntry(new ZipEntry("last.txt"));
+            out.write(CONTENT);
+            out.closeEntry();
+        }
+
+        try (ZipArchive archive = ZipArchive.open(file)) {
+            assertEquals(count + 1, archive.getEntries().size());
+            assertArrayEquals(CONTENT, archive.readEntry(archive.getEntry("last.txt")));
+        }
+    }
+
+    @Test
+    void readsZip64ExtraFieldSizes() throws IOException {
+        byte[] name = "big.txt".getBytes(StandardCharsets.UTF_8);
+        CRC32 crc = new CRC32();
+        crc.update(CONTENT);
+        ByteBuffer buffer = ByteBuffer.allocate(256).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(ZipArchive.LOCAL_HEADER_SIGNATURE).putShort((short) 45).putShort((short) 0)
+                .putShort((short) ZipEntry.STORED).putInt(0).putInt((int) crc.getValue())
+                .putInt(CONTENT.length).putInt(CONTENT.length)
+                .putShort((short) name.length).putShort((short) 0).put(name).put(CONTENT);
+        int directoryOffset = buffer.position();
+        buffer.putInt(ZipArchive.CENTRAL_HEADER_SIGNATURE).putShort((short) 45).putShort((short) 45)
+                .putShort((short) 0).putShort((short) ZipEntry.STORED).putInt(0).putInt((int) crc.getValue())
+                .putInt((int) ZipArchive.ZIP64_MAGIC).putInt((int) ZipArchive.ZIP64_MAGIC)
+                .putShort((short) name.length).putShort((short) 28).putShort((short) 0)
+                .putShort((short) 0).putShort((short) 0).putInt(0).putInt((int) ZipArchive.ZIP64_MAGIC)
+                .put(name)
+                .putShort((short) ZipArchive.ZIP64_EXTRA_ID).putShort((short) 24)
+                .putLong(CONTENT.length).putLong(CONTENT.length).putLong(0);
+        int directorySize = buffer.position() - directoryOffset;
+        buffer.putInt(ZipArchive.END_OF_CENTRAL_DIRECTORY_SIGNATURE).putShort((short) 0).putShort((short) 0)
+                .putShort((short) 1).putShort((short) 1).putInt(directorySize).putInt(directoryOffset)
+                .putShort((short) 0);
+        byte[] bytes = new byte[buffer.position()];
+        buffer.flip().get(bytes);
+        File file = write("zip64.zip", bytes);
+
+        try (ZipArchive archive = ZipArchive.open(file)) {
+            ZipArchiveEntry entry = archive.getEntry("big.txt");
+            assertEquals(CONTENT.length, entry.getSize());
+            assertEquals(CONTENT.length, entry.getCompressedSize());
+            assertEquals(0, entry.getLocalHeaderOffset());
+            assertArrayEquals(CONTENT, archive.readEntry(entry));
+        }
+    }
+
+    @Test
+    void opensStoredAndDeflatedNestedArchives() throws IOException {
+        byte[] nested = zip(null, "inner.txt", CONTENT);
+        File file = write("outer.zip", zip(null, "lib/stored.jar", nested, "lib/deflated.zip", nested));
+
+        try (ZipArchive archive = ZipArchive.open(file)) {
+            for (String name : List.of("lib/stored.jar", "lib/deflated.zip")) {
+                ZipArchive nestedArchive = archive.openNested(archive.getEntry(name));
+                assertEquals(new File(file, name), nestedArchive.getFile());
+                assertArrayEquals(CONTENT, nestedArchive.readEntry(nestedArchive.getEntry("inner.txt")));
+            }
+        }
+    }
+
+    @Test
+    void deflatedNestedArchiveIsReadInAnyOrderWithoutBuffering() throws Exception {
+        Object[] namesAndContents = new Object[80];
+        Random random = new Random(7);
+        for (int i = 0; i < 39; i++) {
+            byte[] content = new byte[4096 + i * 100];
+            random.nextBytes(content);
+            namesAndContents[i * 2] = "e" + i + ".bin";
+            namesAndContents[i * 2 + 1] = content;
+        }
+        namesAndContents[78] = "inner.jar";
+        namesAndContents[79] = zip(null, "inner.txt", CONTENT);
+        byte[] nested = zip(null, namesAndContents);
+        File file = write("outer.zip", zip(null, "lib/deflated.zip", nested));
+
+        try (ZipArchive archive = ZipArchive.open(file);
+             ZipArchive nestedArchive = archive.openNested(archive.getEntry("lib/deflated.zip"))) {
+            assertEquals(nested.length, nestedArchive.getSize());
+            List<ZipArchiveEntry> entries = new ArrayList<>(nestedArchive.getEntries());
+            Collections.reverse(entries);
+            for (ZipArchiveEntry entry : entries) {
+                assertArrayEquals(content(namesAndContents, entry.getName()), nestedArchive.readEntry(entry));
+            }
+            nestedArchive.releaseInflaters();
+
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            try {
+                List<Future<?>> reads = new ArrayList<>();
+                for (ZipArchiveEntry entry : nestedArchive.getEntries()) {
+                    reads.add(executor.submit(() -> {
+                        assertArrayEquals(content(namesAndContents, entry.getName()), nestedArchive.readEntry(entry));
+                        return null;
+                    }));
+                }
+                for (Future<?> read : reads) {
+                    read.get();
+                }
+            } finally {
+                executor.shutdown();
+            }
+
+            ZipArchive innerArchive = nestedArchive.openNested(nestedArchive.getEntry("inner.jar"));
+            assertArrayEquals(CONTENT, innerArchive.readEntry(innerArchive.getEntry("inner.txt")));
+            ByteArrayOutputStream raw = new ByteArrayOutputStream();
+            nestedArchive.transferRawTo(nestedArchive.getEntry("inner.jar"), Channels.newChannel(raw));
+            assertArrayEquals(content(namesAndContents, "inner.jar"), raw.toByteArray());
+        }
+    }
+
+    private static byte[] content(Object[] namesAndContents, String name) {
+        for (int i = 0; i < namesAndContents.length; i += 2) {
+            if (namesAndContents[i].equals(name)) {
+                return (byte[]) namesAndContents[i + 1];
+            }
+        }
+        throw new AssertionError(name);
+    }
+
+    @Test
+    void truncatedDeflatedNestedArchiveIsRejected() throws IOException {
+        byte[] nested = zip(null, "inner.txt", CONTENT);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(bytes)) {
+            ZipEntry entry = new ZipEntry("lib/deflated.zip");
+            out.putNextEntry(entry);
+            out.write(nested);
+            out.closeEntry();
+        }
+        File file = write("outer.zip", bytes.toByteArray());
+
+        try (ZipArchive archive = ZipArchive.open(file)) {
+            ZipArchiveEntry entry = archive.getEntry("lib/deflated.zip");
+            ZipArchiveEntry truncated = new ZipArchiveEntry(entry.getName(), entry.getFlags(), entry.getMethod(),
+                    entry.getDosTime(), entry.getCrc(), entry.getCompressedSize() / 2, entry.getSize(),
+                    entry.getLocalHeaderOffset(), entry.getExternalAttributes(), entry.getExtra());
+            assertThrows(ZipException.class, () -> archive.openNested(truncated));
+        }
+    }
+
+    @Test
+    void classNamesAreReadBelowFatJarClassRoots() {
+        assertEquals("com.acme.Foo", ZipArchive.getClassName("com/acme/Foo.class"));
+        assertEquals("com.acme.Foo", ZipArchive.getClassName("BOOT-INF/classes/com/acme/Foo.class"));
+        assertEquals("com.acme.Foo", ZipArchive.getClassName("WEB-INF/classes/com/acme/Foo.class"));
+        assertNull(ZipArchive.getClassName("com/acme/Foo.txt"));
+    }
+}
@@ -0,0 +1,141 @@
+package main.jarrenamerapp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ZipArchiveWriterTest {
+    private static final byte[] EXTRA = {(byte) 0xFE, (byte) 0xCA, 2, 0, 1, 2};
+
+    @TempDir
+    Path directory;
+
+    private File writeZip(String name, boolean stored) throws IOException {
+        File file = directory.resolve(name).toFile();
+        byte[] content = "hello, hello, hello".getBytes();
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file))) {
+            ZipEntry entry = new ZipEntry("a.txt");
+            entry.setExtra(EXTRA);
+            if (stored) {
+                CRC32 crc = new CRC32();
+                crc.update(content);
+                entry.setMethod(ZipEntry.STORED);
+                entry.setSize(content.length);
+                entry.setCrc(crc.getValue());
+            }
+            out.putNextEntry(entry);
+            out.write(content);
+            out.closeEntry();
+        }
+        return file;
+    }
+
+    private File copyRaw(File source) throws IOException {
+        File target = directory.resolve("copy-" + source.getName()).toFile();
+        try (ZipArchive archive = ZipArchive.open(source);
+             ZipArchiveWriter writer = new ZipArchiveWriter(target)) {
+            for (ZipArchiveEntry entry : archive.getEntries()) {
+                writer.write(EncodedEntry.copyOf(archive, entry));
+            }
+        }
+        return target;
+    }
+
+    private static void setFlags(File file, int flags) throws IOException {
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putShort(6, (short) flags);
+        for (int i = bytes.length - ZipArchive.END_OF_CENTRAL_DIRECTORY_LENGTH; i >= 0; i--) {
+            if (buffer.getInt(i) == ZipArchive.CENTRAL_HEADER_SIGNATURE) {
+                buffer.putShort(i + 8, (short) flags);
+            }
+        }
+        Files.write(file.toPath(), bytes);
+    }
+
+    private static int getLocalFlags(File file) throws IOException {
+        return ByteBuffer.wrap(Files.readAllBytes(file.toPath())).order(ByteOrder.LITTLE_ENDIAN).getShort(6);
+    }
+
+    @Test
+    void rawCopyDropsOnlyDataDescriptorFlag() throws IOException {
+        File source = writeZip("deflated.zip", false);
+        setFlags(source, 0x000A);
+
+        File copy = copyRaw(source);
+
+        assertEquals(0x0002, getLocalFlags(copy));
+        try (ZipArchive archive = ZipArchive.open(copy)) {
+            ZipArchiveEntry entry = archive.getEntry("a.txt");
+            assertEquals(0x0002, entry.getFlags());
+            assertArrayEquals("hello, hello, hello".getBytes(), archive.readEntry(entry));
+        }
+    }
+
+    @Test
+    void rawCopyKeepsLocalAndCentralExtraFields() throws IOException {
+        File copy = copyRaw(writeZip("extra.zip", false));
+
+        try (ZipFile zipFile = new ZipFile(copy)) {
+            ZipEntry entry = zipFile.getEntry("a.txt");
+            assertArrayEquals(EXTRA, entry.getExtra());
+            assertArrayEquals("hello, hello, hello".getBytes(), zipFile.getInputStream(entry).readAllBytes());
+        }
+        try (ZipInputStream in = new ZipInputStream(Files.newInputStream(copy.toPath()))) {
+            assertArrayEquals(EXTRA, in.getNextEntry().getExtra());
+        }
+    }
+
+    @Test
+    void encryptedEntryKeepsDataDescriptor() throws IOException {
+        File source = writeZip("encrypted.zip", true);
+        setFlags(source, 0x0009);
+
+        File copy = copyRaw(source);
+
+        assertEquals(0x0009, getLocalFlags(copy));
+        try (ZipArchive archive = ZipArchive.open(copy)) {
+            ZipArchiveEntry entry = archive.getEntry("a.txt");
+            assertEquals(0x0009, entry.getFlags());
+            ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(copy.toPath())).order(ByteOrder.LITTLE_ENDIAN);
+            int descriptor = (int) (archive.getDataOffset(entry) + entry.getCompressedSize());
+            assertEquals(0x08074b50, bytes.getInt(descriptor));
+            assertEquals((int) entry.getCrc(), bytes.getInt(descriptor + 4));
+            assertEquals((int) entry.getCompressedSize(), bytes.getInt(descriptor + 8));
+        }
+    }
+
+    @Test
+    void encodedEntryHasNoInheritedFlagsOrExtraFields() throws IOException {
+        File source = writeZip("encoded.zip", false);
+        setFlags(source, 0x000A);
+        File target = directory.resolve("encoded-copy.zip").toFile();
+        try (ZipArchive archive = ZipArchive.open(source);
+             ZipArchiveWriter writer = new ZipArchiveWriter(target)) {
+            ZipArchiveEntry entry = archive.getEntry("a.txt");
+            writer.write(EncodedEntry.encode("b.txt", entry, "changed".getBytes()));
+        }
+
+        try (ZipArchive archive = ZipArchive.open(target)) {
+            ZipArchiveEntry entry = archive.getEntry("b.txt");
+            assertEquals(0, entry.getFlags());
+            assertEquals(0, entry.getExtra().length);
+            assertArrayEquals("changed".getBytes(), archive.readEntry(entry));
+        }
+    }
+}